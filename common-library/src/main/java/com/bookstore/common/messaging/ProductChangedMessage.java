@@ -0,0 +1,17 @@
+package com.bookstore.common.messaging;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangedMessage implements Serializable {
+    private Long productId;
+    private String originInstanceId;
+}
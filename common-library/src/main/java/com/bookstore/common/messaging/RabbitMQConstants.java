@@ -9,6 +9,12 @@ public final class RabbitMQConstants {
     public static final String FILE_EXCHANGE = "file.exchange";
     public static final String ORDER_EXCHANGE = "order.exchange";
     public static final String INVENTORY_EXCHANGE = "inventory.exchange";
+    public static final String PRODUCT_EXCHANGE = "product.exchange";
+    public static final String PAYMENT_EXCHANGE = "payment.exchange";
+    // Fanout: every consumer instance binds its own queue to keep a local availability replica
+    public static final String INVENTORY_STOCK_LEVEL_EXCHANGE = "inventory.stock-level.exchange";
+    // Fanout: every order-service instance completes the status subscriptions it holds
+    public static final String ORDER_STATUS_EXCHANGE = "order.status.exchange";
 
     // ==================== FILE QUEUES ====================
     public static final String FILE_UPLOAD_QUEUE = "file.upload.queue";
@@ -21,20 +27,38 @@ public final class RabbitMQConstants {
     public static final String ORDER_CREATE_FAIL = "order.create.fail";
     public static final String INVENTORY_OUT_OF_STOCK_KEY = "inventory.outofstock";
     public static final String ORDER_CREATE_SUCCESS_KEY = "order.create.success";
+    public static final String ORDER_STOCK_RESULT_KEY = "order.stock.result";
+    public static final String ORDER_SAGA_COMPLETED_KEY = "order.saga.completed";
     // ==================== ORDER QUEUES ====================
     public static final String ORDER_CREATED_QUEUE = "order.created.queue";
     public static final String ORDER_CREATED_FAIL_QUEUE = "order.create.fail.queue";
     public static final String ORDER_CREATE_SUCCESS_QUEUE = "order.create.success.queue";
+    public static final String ORDER_STOCK_RESULT_QUEUE = "order.stock.result.queue";
+    public static final String ORDER_SAGA_COMPLETED_QUEUE = "order.saga.completed.queue";
     // ==================== NOTIFICATION QUEUES ====================
 
     // ==================== INVENTORY QUEUES ====================
     public static final String INVENTORY_STOCK_QUEUE = "inventory.stock.queue";
+    public static final String INVENTORY_RESERVE_QUEUE = "inventory.reserve.queue";
+    public static final String INVENTORY_RESERVE_KEY = "inventory.reserve";
+    public static final String INVENTORY_RELEASE_QUEUE = "inventory.release.queue";
+    public static final String INVENTORY_RELEASE_KEY = "inventory.release";
+    public static final String INVENTORY_CONFIRM_QUEUE = "inventory.confirm.queue";
+    public static final String INVENTORY_CONFIRM_KEY = "inventory.confirm";
+    // Messages wait here without a consumer until their TTL ends, then dead-letter to the expired queue
+    public static final String INVENTORY_RESERVATION_DELAY_QUEUE = "inventory.reservation.delay.queue";
+    public static final String INVENTORY_RESERVATION_EXPIRED_QUEUE = "inventory.reservation.expired.queue";
+    public static final String INVENTORY_RESERVATION_DELAY_KEY = "inventory.reservation.delay";
+    public static final String INVENTORY_RESERVATION_EXPIRED_KEY = "inventory.reservation.expired";
 
     public static final String PROCESS_PAYMENT_SUCCESS_QUEUE = "payment.success.queue";
     public static final String PROCESS_PAYMENT_FAIL_QUEUE = "payment.fail.queue";
+    public static final String PAYMENT_REFUND_QUEUE = "payment.refund.queue";
+    public static final String PAYMENT_REFUND_KEY = "payment.refund";
 
     // ==================== SAGA EXCHANGE ====================
-
+    // Direct: routed to one shard queue per orderId, see SagaRouting
+    public static final String SAGA_EXCHANGE = "saga.exchange";
 
     // ==================== SAGA QUEUES ====================
     public static final String SAGA_ORDER_QUEUE = "saga.order.queue";
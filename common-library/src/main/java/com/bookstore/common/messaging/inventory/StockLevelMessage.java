@@ -0,0 +1,26 @@
+package com.bookstore.common.messaging.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Sellable units of a product after a committed stock change. {@code version} never
+ * decreases for a product, so a consumer keeps the message with the highest version and
+ * can ignore redeliveries and out-of-order messages.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long productId;
+    private Integer available;
+    private Long version;
+}
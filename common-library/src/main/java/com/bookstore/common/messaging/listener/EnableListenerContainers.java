@@ -0,0 +1,20 @@
+package com.bookstore.common.messaging.listener;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers per-queue listener container settings for services that do not scan
+ * com.bookstore.common. They only apply when bookstore.listener.enabled is true.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(ListenerContainerConfiguration.class)
+public @interface EnableListenerContainers {
+}
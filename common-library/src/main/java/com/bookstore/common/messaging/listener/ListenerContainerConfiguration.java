@@ -0,0 +1,51 @@
+package com.bookstore.common.messaging.listener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spring Boot's rabbitListenerContainerFactory picks up the single ContainerCustomizer bean,
+ * so @RabbitListener methods and programmatic endpoints get their queue's settings without
+ * naming a container factory.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "bookstore.listener", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ListenerContainerProperties.class)
+public class ListenerContainerConfiguration {
+
+    @Bean
+    public QueueDepthScaler queueDepthScaler(AmqpAdmin amqpAdmin, ListenerContainerProperties properties,
+                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        return new QueueDepthScaler(amqpAdmin, properties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public QueueListenerContainerCustomizer queueListenerContainerCustomizer(ListenerContainerProperties properties,
+                                                                             RabbitTemplate rabbitTemplate,
+                                                                             QueueDepthScaler queueDepthScaler) {
+        return new QueueListenerContainerCustomizer(properties, rabbitTemplate, queueDepthScaler);
+    }
+
+    @Bean
+    public Declarables listenerRetryQueues(ListenerContainerProperties properties) {
+        List<Declarable> declarables = new ArrayList<>();
+        properties.getQueues().forEach((queue, settings) -> {
+            if (settings.getRetry().isEnabled()) {
+                declarables.addAll(ListenerQueues.declarations(queue, settings.getRetry()));
+            }
+        });
+        return new Declarables(declarables);
+    }
+}
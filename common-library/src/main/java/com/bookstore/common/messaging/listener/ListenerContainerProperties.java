@@ -0,0 +1,59 @@
+package com.bookstore.common.messaging.listener;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "bookstore.listener")
+public class ListenerContainerProperties {
+
+    private boolean enabled = false;
+
+    // How often queue depth is read to resize the consumers of depth-scaled queues
+    private long scaleIntervalMs = 5000;
+
+    // Keyed by queue name, written as "[queue.name]" so the dots stay part of the key
+    private Map<String, QueueSettings> queues = new LinkedHashMap<>();
+
+    @Data
+    public static class QueueSettings {
+        // Consumers kept running; depth scaling never goes below this
+        private int concurrency = 1;
+        // Upper bound for depth scaling and for the container's own activity-based scaling
+        private Integer maxConcurrency;
+        // Unacknowledged messages each consumer may hold
+        private Integer prefetch;
+        // Messages acknowledged together by one consumer
+        private Integer batchSize;
+        // Ready messages per consumer when scaling by depth; 0 leaves the count to the container
+        private int messagesPerConsumer = 0;
+        private Retry retry = new Retry();
+
+        public int maxConcurrencyOrDefault() {
+            return maxConcurrency != null ? maxConcurrency : concurrency;
+        }
+    }
+
+    @Data
+    public static class Retry {
+        // Failed messages go through <queue>.retry.N and finally <queue>.dlq instead of blocking the consumer
+        private boolean enabled = true;
+        // Deliveries including the first; 1 sends a failed message straight to the dead-letter queue
+        private int maxAttempts = 4;
+        // Tries per delivery on the consumer thread, backing off as below, before the message is
+        // handed to the retry queues; keeps ordering for queues that must not reorder
+        private int inPlaceAttempts = 1;
+        private Duration initialInterval = Duration.ofSeconds(1);
+        private double multiplier = 2.0;
+        private Duration maxInterval = Duration.ofMinutes(1);
+
+        public long intervalMs(int attempt) {
+            double interval = initialInterval.toMillis() * Math.pow(multiplier, attempt - 1);
+            return (long) Math.min(interval, maxInterval.toMillis());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookstore.common.messaging.listener;
+
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.QueueBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Names and declarations of the retry and dead-letter queues of a listener queue. They are
+ * new queues next to it, so the listener queue itself keeps its arguments and existing
+ * brokers accept the declaration.
+ */
+public final class ListenerQueues {
+
+    private ListenerQueues() {
+    }
+
+    public static String retryQueue(String queue, int attempt) {
+        return queue + ".retry." + attempt;
+    }
+
+    public static String deadLetterQueue(String queue) {
+        return queue + ".dlq";
+    }
+
+    // One retry queue per attempt, because RabbitMQ only expires messages at the head of a queue
+    static List<Declarable> declarations(String queue, ListenerContainerProperties.Retry retry) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int attempt = 1; attempt < retry.getMaxAttempts(); attempt++) {
+            declarables.add(QueueBuilder.durable(retryQueue(queue, attempt))
+                    .ttl((int) retry.intervalMs(attempt))
+                    .deadLetterExchange("")
+                    .deadLetterRoutingKey(queue)
+                    .build());
+        }
+        declarables.add(QueueBuilder.durable(deadLetterQueue(queue)).build());
+        return declarables;
+    }
+}
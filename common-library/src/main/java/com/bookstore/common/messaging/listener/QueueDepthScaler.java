@@ -0,0 +1,113 @@
+package com.bookstore.common.messaging.listener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.context.SmartLifecycle;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sizes the consumers of registered queues from their backlog: one consumer per
+ * messages-per-consumer ready messages, between concurrency and max-concurrency. This adds
+ * consumers as soon as a backlog shows up; the container's own activity-based scaling
+ * still adds consumers up to max-concurrency and retires idle ones in between.
+ */
+@Slf4j
+public class QueueDepthScaler implements SmartLifecycle {
+
+    private final AmqpAdmin amqpAdmin;
+    private final ListenerContainerProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Target> targets = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+    private volatile boolean running;
+
+    public QueueDepthScaler(AmqpAdmin amqpAdmin, ListenerContainerProperties properties, MeterRegistry meterRegistry) {
+        this.amqpAdmin = amqpAdmin;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    void register(String queue, SimpleMessageListenerContainer container,
+                  ListenerContainerProperties.QueueSettings settings) {
+        Target target = new Target(container, settings);
+        targets.put(queue, target);
+        Gauge.builder("rabbit.listener.queue.depth", target.depth, AtomicInteger::get)
+                .description("Ready messages on a depth-scaled listener queue")
+                .tag("queue", queue)
+                .register(meterRegistry);
+        Gauge.builder("rabbit.listener.consumers", target.consumers, AtomicInteger::get)
+                .description("Consumers the depth scaler last asked for")
+                .tag("queue", queue)
+                .register(meterRegistry);
+    }
+
+    private void scale() {
+        targets.forEach((queue, target) -> {
+            try {
+                QueueInformation info = amqpAdmin.getQueueInfo(queue);
+                if (info == null || !target.container.isRunning()) {
+                    return;
+                }
+                int depth = info.getMessageCount();
+                target.depth.set(depth);
+                ListenerContainerProperties.QueueSettings settings = target.settings;
+                int wanted = (int) Math.ceil(depth / (double) settings.getMessagesPerConsumer());
+                wanted = Math.max(settings.getConcurrency(), Math.min(settings.maxConcurrencyOrDefault(), wanted));
+                if (wanted != target.consumers.get()) {
+                    target.container.setConcurrentConsumers(wanted);
+                    log.info("Scaled {} from {} to {} consumers for {} ready messages", queue,
+                            target.consumers.get(), wanted, depth);
+                    target.consumers.set(wanted);
+                }
+            } catch (Exception e) {
+                log.debug("Could not scale listener on {}: {}", queue, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listener-depth-scaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::scale, properties.getScaleIntervalMs(),
+                properties.getScaleIntervalMs(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static final class Target {
+        private final SimpleMessageListenerContainer container;
+        private final ListenerContainerProperties.QueueSettings settings;
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicInteger consumers;
+
+        private Target(SimpleMessageListenerContainer container, ListenerContainerProperties.QueueSettings settings) {
+            this.container = container;
+            this.settings = settings;
+            this.consumers = new AtomicInteger(settings.getConcurrency());
+        }
+    }
+}
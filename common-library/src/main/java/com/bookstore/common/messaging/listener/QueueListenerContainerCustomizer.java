@@ -0,0 +1,78 @@
+package com.bookstore.common.messaging.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+/**
+ * Applies bookstore.listener.queues settings to every listener container Spring Boot's
+ * default factory creates, matched by the container's queue name. Containers for queues
+ * without settings keep the spring.rabbitmq.listener defaults. The settings replace any
+ * concurrency set on the endpoint, and retry replaces the in-memory retry from
+ * spring.rabbitmq.listener.simple.retry for that queue.
+ */
+@Slf4j
+public class QueueListenerContainerCustomizer implements ContainerCustomizer<SimpleMessageListenerContainer> {
+
+    private final ListenerContainerProperties properties;
+    private final RabbitTemplate rabbitTemplate;
+    private final QueueDepthScaler scaler;
+
+    public QueueListenerContainerCustomizer(ListenerContainerProperties properties, RabbitTemplate rabbitTemplate,
+                                            QueueDepthScaler scaler) {
+        this.properties = properties;
+        this.rabbitTemplate = rabbitTemplate;
+        this.scaler = scaler;
+    }
+
+    @Override
+    public void configure(SimpleMessageListenerContainer container) {
+        for (String queue : container.getQueueNames()) {
+            ListenerContainerProperties.QueueSettings settings = properties.getQueues().get(queue);
+            if (settings != null) {
+                apply(container, queue, settings);
+                return;
+            }
+        }
+    }
+
+    private void apply(SimpleMessageListenerContainer container, String queue,
+                       ListenerContainerProperties.QueueSettings settings) {
+        int concurrency = settings.getConcurrency();
+        int maxConcurrency = settings.maxConcurrencyOrDefault();
+        if (concurrency < 1 || maxConcurrency < concurrency) {
+            throw new IllegalStateException("Listener settings for " + queue
+                    + " need 1 <= concurrency <= max-concurrency");
+        }
+        // Max first: the container rejects a concurrency above the current maximum
+        container.setMaxConcurrentConsumers(maxConcurrency);
+        container.setConcurrentConsumers(concurrency);
+        if (settings.getPrefetch() != null) {
+            container.setPrefetchCount(settings.getPrefetch());
+        }
+        if (settings.getBatchSize() != null) {
+            container.setBatchSize(settings.getBatchSize());
+        }
+
+        ListenerContainerProperties.Retry retry = settings.getRetry();
+        if (retry.isEnabled()) {
+            // In-place attempts block the consumer but keep the message's position; after them the
+            // recoverer schedules the next delivery through the retry queues or dead-letters it
+            container.setAdviceChain(RetryInterceptorBuilder.stateless()
+                    .maxAttempts(Math.max(1, retry.getInPlaceAttempts()))
+                    .backOffOptions(retry.getInitialInterval().toMillis(), retry.getMultiplier(),
+                            retry.getMaxInterval().toMillis())
+                    .recoverer(new RetryQueueRecoverer(rabbitTemplate, queue, retry))
+                    .build());
+        }
+        if (settings.getMessagesPerConsumer() > 0) {
+            scaler.register(queue, container, settings);
+        }
+        log.info("Listener on {}: consumers {}-{}, prefetch {}, batch {}, attempts {}x{}", queue, concurrency,
+                maxConcurrency, settings.getPrefetch(), settings.getBatchSize(),
+                retry.isEnabled() ? retry.getMaxAttempts() : "default",
+                retry.isEnabled() ? retry.getInPlaceAttempts() : 1);
+    }
+}
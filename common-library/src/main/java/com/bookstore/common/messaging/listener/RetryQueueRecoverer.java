@@ -0,0 +1,70 @@
+package com.bookstore.common.messaging.listener;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+
+/**
+ * Takes a message whose listener failed off the consumer: it is republished to the retry
+ * queue for its next attempt, which holds it for that attempt's backoff and dead-letters it
+ * back to the original queue, or to the dead-letter queue once the attempts are used up.
+ * The consumer acknowledges the original and moves on, so a failing message never blocks
+ * the ones behind it. A retried message goes to the back of its queue.
+ */
+@Slf4j
+public class RetryQueueRecoverer implements MessageRecoverer {
+
+    static final String ATTEMPT_HEADER = "x-retry-attempt";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final String queue;
+    private final ListenerContainerProperties.Retry retry;
+
+    public RetryQueueRecoverer(RabbitTemplate rabbitTemplate, String queue, ListenerContainerProperties.Retry retry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.queue = queue;
+        this.retry = retry;
+    }
+
+    @Override
+    public void recover(Message message, Throwable cause) {
+        MessageProperties properties = message.getMessageProperties();
+        String sourceQueue = properties.getConsumerQueue() != null ? properties.getConsumerQueue() : queue;
+        Object header = properties.getHeaders().get(ATTEMPT_HEADER);
+        int attempt = (header instanceof Number number ? number.intValue() : 0) + 1;
+        Throwable rootCause = rootCause(cause);
+
+        if (attempt < retry.getMaxAttempts()) {
+            properties.setHeader(ATTEMPT_HEADER, attempt);
+            log.warn("Message on {} failed (attempt {}), retrying in {} ms: {}", sourceQueue, attempt,
+                    retry.intervalMs(attempt), rootCause.getMessage());
+            // Default exchange: routed straight to the queue named by the routing key
+            rabbitTemplate.send("", ListenerQueues.retryQueue(sourceQueue, attempt), message);
+            return;
+        }
+
+        properties.setHeader("x-exception-message", truncate(rootCause.getMessage()));
+        properties.setHeader("x-exception-class", rootCause.getClass().getName());
+        properties.setHeader("x-original-queue", sourceQueue);
+        log.error("Message on {} failed after {} attempts, moving it to {}: {}", sourceQueue, attempt,
+                ListenerQueues.deadLetterQueue(sourceQueue), rootCause.getMessage());
+        rabbitTemplate.send("", ListenerQueues.deadLetterQueue(sourceQueue), message);
+    }
+
+    private Throwable rootCause(Throwable cause) {
+        Throwable root = cause;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root;
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= 1000) {
+            return value;
+        }
+        return value.substring(0, 1000);
+    }
+}
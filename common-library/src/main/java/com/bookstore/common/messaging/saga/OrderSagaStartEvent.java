@@ -24,6 +24,7 @@ public class OrderSagaStartEvent implements Serializable {
     private List<SagaOrderItem> items;
     private BigDecimal totalAmount;
     private String shippingAddress;
+    private String shippingProvince;
     private String paymentMethod;
 
     @Data
@@ -0,0 +1,24 @@
+package com.bookstore.common.messaging.saga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefundPaymentCommand implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String sagaId;
+    private Long orderId;
+    private String transactionId;
+    private BigDecimal amount;
+    private String reason;
+}
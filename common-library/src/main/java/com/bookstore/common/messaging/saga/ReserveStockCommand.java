@@ -18,6 +18,10 @@ public class ReserveStockCommand implements Serializable {
 
     private String sagaId;
     private Long orderId;
+    private Long userId;
+    private String shippingProvince;
+    // Stable per order, so a redelivered command is answered from the stored reservation
+    private String idempotencyKey;
     private List<StockItem> items;
 
     @Data
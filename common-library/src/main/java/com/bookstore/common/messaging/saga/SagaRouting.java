@@ -0,0 +1,31 @@
+package com.bookstore.common.messaging.saga;
+
+/**
+ * Routes every message about an order to the same saga shard queue. Each shard queue has
+ * one active consumer, so an order's saga events are handled strictly in order while
+ * different orders run in parallel. Changing SHARDS re-homes in-flight orders; drain the
+ * shard queues first.
+ */
+public final class SagaRouting {
+
+    public static final int SHARDS = 8;
+
+    private SagaRouting() {
+    }
+
+    public static int shard(Long orderId) {
+        return (int) Math.floorMod(orderId, (long) SHARDS);
+    }
+
+    public static String routingKey(Long orderId) {
+        return routingKey(shard(orderId));
+    }
+
+    public static String routingKey(int shard) {
+        return "saga.shard." + shard;
+    }
+
+    public static String queue(int shard) {
+        return "saga.shard." + shard + ".queue";
+    }
+}
@@ -0,0 +1,22 @@
+package com.bookstore.common.messaging.saga;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockConfirmedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String sagaId;
+    private Long orderId;
+    private boolean success;
+    private String failureReason;
+}
@@ -20,4 +20,7 @@ public class StockReservedEvent implements Serializable {
     private boolean success;
     private String reservationId;
     private String failureReason;
+    // Epoch millis at which inventory lets the reservation expire; the saga's payment
+    // deadline ends before it
+    private Long expiresAt;
 }
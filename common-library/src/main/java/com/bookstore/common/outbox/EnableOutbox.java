@@ -0,0 +1,20 @@
+package com.bookstore.common.outbox;
+
+import org.springframework.context.annotation.Import;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Registers the transactional outbox for services that do not scan com.bookstore.common.
+ * It still only starts when bookstore.outbox.enabled is true.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Import(OutboxConfiguration.class)
+public @interface EnableOutbox {
+}
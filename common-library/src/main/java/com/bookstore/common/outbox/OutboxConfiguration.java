@@ -0,0 +1,52 @@
+package com.bookstore.common.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "bookstore.outbox", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxConfiguration {
+
+    @Bean
+    public DataSourceInitializer outboxSchemaInitializer(DataSource dataSource, OutboxProperties properties) {
+        DataSourceInitializer initializer = new DataSourceInitializer();
+        initializer.setDataSource(dataSource);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("outbox/schema-mysql.sql")));
+        initializer.setEnabled(properties.isInitializeSchema());
+        return initializer;
+    }
+
+    @Bean
+    public OutboxRepository outboxRepository(JdbcTemplate jdbcTemplate) {
+        return new OutboxRepository(jdbcTemplate);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxRepository outboxRepository, RabbitTemplate rabbitTemplate,
+                                   OutboxProperties properties, PlatformTransactionManager transactionManager,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        return new OutboxRelay(outboxRepository, rabbitTemplate, properties, transactionManager,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public OutboxPublisher outboxPublisher(OutboxRepository outboxRepository, RabbitTemplate rabbitTemplate,
+                                           OutboxRelay outboxRelay, OutboxProperties properties) {
+        return new OutboxPublisher(outboxRepository, rabbitTemplate.getMessageConverter(), outboxRelay,
+                properties.getMaxBodyBytes());
+    }
+}
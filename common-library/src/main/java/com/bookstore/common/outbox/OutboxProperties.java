@@ -0,0 +1,39 @@
+package com.bookstore.common.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "bookstore.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = false;
+
+    // Run outbox/schema-mysql.sql on startup (CREATE TABLE IF NOT EXISTS)
+    private boolean initializeSchema = true;
+
+    // Messages locked, published on one channel and confirmed together
+    private int batchSize = 200;
+
+    // A batch also stops once its bodies add up to this much, so large messages go a few at a time
+    private long maxBatchBytes = 16L * 1024 * 1024;
+
+    // Larger bodies are refused: they could exceed max_allowed_packet and would crowd the relay's heap
+    private int maxBodyBytes = 4 * 1024 * 1024;
+
+    // Idle wait between polls; a commit that wrote to the outbox wakes the relay earlier
+    private long pollIntervalMs = 500;
+
+    // How long to wait for the broker to confirm a batch before it is retried
+    private long confirmTimeoutMs = 5000;
+
+    // First retry delay for a message that failed to publish, doubled per attempt
+    private long retryBackoffMs = 1000;
+
+    private long maxBackoffMs = 60000;
+
+    // How often the pending count and oldest message age are read for the gauges
+    private long statsIntervalMs = 5000;
+
+    private long shutdownTimeoutMs = 5000;
+}
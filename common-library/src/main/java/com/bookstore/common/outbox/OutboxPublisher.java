@@ -0,0 +1,83 @@
+package com.bookstore.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+/**
+ * Drop-in for {@code rabbitTemplate.convertAndSend} that writes the message to the outbox
+ * table instead of the broker. Inside a transaction the message is sent only if that
+ * transaction commits; outside one the row is committed on its own and still survives a
+ * broker outage. Delivery is at least once, so consumers must tolerate duplicates.
+ */
+public class OutboxPublisher {
+
+    private final OutboxRepository repository;
+    private final MessageConverter messageConverter;
+    private final OutboxRelay relay;
+    private final int maxBodyBytes;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public OutboxPublisher(OutboxRepository repository, MessageConverter messageConverter, OutboxRelay relay,
+                           int maxBodyBytes) {
+        this.repository = repository;
+        this.messageConverter = messageConverter;
+        this.relay = relay;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Whether a message body of this size may be stored. Callers with larger payloads, such
+     * as file contents, have to send them another way.
+     */
+    public boolean accepts(long bodyBytes) {
+        return bodyBytes <= maxBodyBytes;
+    }
+
+    public void publish(String exchange, String routingKey, Object payload) {
+        publish(exchange, routingKey, payload, null);
+    }
+
+    public void publish(String exchange, String routingKey, Object payload, MessagePostProcessor postProcessor) {
+        Message message = messageConverter.toMessage(payload, new MessageProperties());
+        if (postProcessor != null) {
+            message = postProcessor.postProcessMessage(message);
+        }
+        if (!accepts(message.getBody().length)) {
+            throw new IllegalArgumentException("Message of " + message.getBody().length
+                    + " bytes exceeds the outbox limit of " + maxBodyBytes + " bytes");
+        }
+        MessageProperties properties = message.getMessageProperties();
+        repository.insert(exchange, routingKey, message.getBody(), properties.getContentType(),
+                writeHeaders(properties.getHeaders()), properties.getExpiration());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wakeUp();
+                }
+            });
+        } else {
+            relay.wakeUp();
+        }
+    }
+
+    private String writeHeaders(Map<String, Object> headers) {
+        if (headers.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Message headers must be JSON serializable", e);
+        }
+    }
+}
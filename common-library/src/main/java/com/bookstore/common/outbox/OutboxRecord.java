@@ -0,0 +1,19 @@
+package com.bookstore.common.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * One stored AMQP message: the body and properties exactly as the RabbitTemplate's
+ * converter produced them when the message was written.
+ */
+public record OutboxRecord(
+        Long id,
+        String exchange,
+        String routingKey,
+        byte[] body,
+        String contentType,
+        String headers,
+        String expiration,
+        int attempts,
+        LocalDateTime createdAt) {
+}
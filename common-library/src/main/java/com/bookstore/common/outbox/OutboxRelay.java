@@ -0,0 +1,269 @@
+package com.bookstore.common.outbox;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves committed outbox rows to RabbitMQ. Each round locks up to batch-size due rows with
+ * SKIP LOCKED, loads as many of them as fit in max-batch-bytes, publishes them back to
+ * back on one channel, waits once for the broker to confirm the whole batch and deletes
+ * the rows in the same transaction. A batch that is not confirmed rolls back and its rows
+ * are retried one at a time, so a single unroutable message is deferred with backoff
+ * instead of holding up the rest. One relay thread keeps a service's messages in insert
+ * order; with several instances, order across batches is not guaranteed.
+ */
+@Slf4j
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final TypeReference<Map<String, Object>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    private final OutboxRepository repository;
+    private final RabbitTemplate rabbitTemplate;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMs = new AtomicLong();
+    private volatile boolean running;
+    private Thread relayThread;
+
+    public OutboxRelay(OutboxRepository repository, RabbitTemplate rabbitTemplate, OutboxProperties properties,
+                       PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("outbox.published")
+                .description("Outbox messages confirmed by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.failed")
+                .description("Outbox messages deferred after a failed publish")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to publish one outbox batch and receive its confirms")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("Time from writing an outbox message to its broker confirm")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Outbox messages not yet published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.oldest.age", oldestAgeMs, value -> value.get() / 1000.0)
+                .description("Age in seconds of the oldest unpublished outbox message")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public void wakeUp() {
+        if (wakeUps.availablePermits() == 0) {
+            wakeUps.release();
+        }
+    }
+
+    private void relayLoop() {
+        long nextStatsAt = 0;
+        while (running) {
+            boolean full = false;
+            try {
+                full = relayBatch();
+            } catch (Exception e) {
+                log.error("Outbox relay round failed: {}", e.getMessage());
+            }
+            if (System.currentTimeMillis() >= nextStatsAt) {
+                refreshStats();
+                nextStatsAt = System.currentTimeMillis() + properties.getStatsIntervalMs();
+            }
+            if (!full) {
+                awaitWork();
+            }
+        }
+    }
+
+    /**
+     * Relays one batch and returns whether it was full, by count or by bytes, so the next
+     * round should start without waiting.
+     */
+    private boolean relayBatch() {
+        List<OutboxRecord> failed = new ArrayList<>();
+        Exception[] failure = new Exception[1];
+        Boolean full = transactionTemplate.execute(status -> {
+            OutboxRepository.LockedBatch locked = repository.lockBatch(properties.getBatchSize(),
+                    properties.getMaxBatchBytes());
+            List<OutboxRecord> batch = locked.records();
+            if (batch.isEmpty()) {
+                return false;
+            }
+            try {
+                batchTimer.record(() -> send(batch));
+            } catch (Exception e) {
+                failed.addAll(batch);
+                failure[0] = e;
+                status.setRollbackOnly();
+                return false;
+            }
+            repository.deleteAll(batch.stream().map(OutboxRecord::id).toList());
+            recordPublished(batch);
+            return locked.truncated() || batch.size() >= properties.getBatchSize();
+        });
+        if (failed.isEmpty()) {
+            return Boolean.TRUE.equals(full);
+        }
+
+        log.warn("Outbox batch of {} messages was not confirmed: {}", failed.size(), failure[0].getMessage());
+        if (failure[0] instanceof AmqpConnectException) {
+            // Broker unreachable: retrying each message would only wait out the same timeout.
+            transactionTemplate.executeWithoutResult(status -> failed.forEach(record -> defer(record, failure[0])));
+        } else {
+            failed.forEach(this::relayOne);
+        }
+        return false;
+    }
+
+    private void relayOne(OutboxRecord candidate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<OutboxRecord> locked = repository.lockOne(candidate.id());
+            if (locked.isEmpty()) {
+                return;
+            }
+            OutboxRecord record = locked.get(0);
+            try {
+                send(List.of(record));
+            } catch (Exception e) {
+                defer(record, e);
+                return;
+            }
+            repository.deleteAll(List.of(record.id()));
+            recordPublished(List.of(record));
+        });
+    }
+
+    private void send(List<OutboxRecord> batch) {
+        rabbitTemplate.invoke(operations -> {
+            for (OutboxRecord record : batch) {
+                operations.send(record.exchange(), record.routingKey(), toMessage(record));
+            }
+            operations.waitForConfirmsOrDie(properties.getConfirmTimeoutMs());
+            return null;
+        });
+    }
+
+    private Message toMessage(OutboxRecord record) {
+        MessageProperties messageProperties = new MessageProperties();
+        messageProperties.setContentType(record.contentType());
+        messageProperties.setMessageId("outbox-" + record.id());
+        if (record.expiration() != null) {
+            messageProperties.setExpiration(record.expiration());
+        }
+        if (record.headers() != null) {
+            try {
+                messageProperties.getHeaders().putAll(objectMapper.readValue(record.headers(), HEADERS_TYPE));
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable headers on outbox message " + record.id(), e);
+            }
+        }
+        return new Message(record.body(), messageProperties);
+    }
+
+    private void defer(OutboxRecord record, Exception cause) {
+        long backoff = Math.min(properties.getMaxBackoffMs(),
+                properties.getRetryBackoffMs() << Math.min(record.attempts(), 20));
+        repository.defer(record.id(), LocalDateTime.now().plus(Duration.ofMillis(backoff)), cause.getMessage());
+        failedCounter.increment();
+        log.warn("Outbox message {} to {}/{} deferred {} ms after attempt {}: {}", record.id(), record.exchange(),
+                record.routingKey(), backoff, record.attempts() + 1, cause.getMessage());
+    }
+
+    private void recordPublished(List<OutboxRecord> records) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxRecord record : records) {
+            lagTimer.record(Duration.between(record.createdAt(), now));
+        }
+        publishedCounter.increment(records.size());
+    }
+
+    private void refreshStats() {
+        try {
+            OutboxRepository.Stats stats = repository.stats();
+            pending.set(stats.pending());
+            oldestAgeMs.set(stats.oldest() != null
+                    ? Math.max(0, Duration.between(stats.oldest(), LocalDateTime.now()).toMillis())
+                    : 0);
+        } catch (Exception e) {
+            log.debug("Could not read outbox stats: {}", e.getMessage());
+        }
+    }
+
+    private void awaitWork() {
+        try {
+            if (wakeUps.tryAcquire(properties.getPollIntervalMs(), TimeUnit.MILLISECONDS)) {
+                wakeUps.drainPermits();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!rabbitTemplate.getConnectionFactory().isSimplePublisherConfirms()) {
+            throw new IllegalStateException(
+                    "The outbox relay waits for publisher confirms: set spring.rabbitmq.publisher-confirm-type=simple");
+        }
+        running = true;
+        relayThread = new Thread(this::relayLoop, "outbox-relay");
+        relayThread.setDaemon(true);
+        relayThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        wakeUp();
+        try {
+            relayThread.join(properties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server and message listeners, which are still writing to the outbox.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookstore.common.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDBC access to outbox_messages. Writes go through the caller's transaction, so a message
+ * row commits or rolls back with the business rows next to it.
+ */
+public class OutboxRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_messages "
+            + "(exchange_name, routing_key, body, body_size, content_type, headers, expiration, attempts, created_at, "
+            + "next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String COLUMNS = "id, exchange_name, routing_key, body, content_type, headers, expiration, "
+            + "attempts, created_at";
+
+    // Rows another relay holds are skipped, so instances split the backlog instead of queueing on it.
+    // Only ids and sizes are read here; bodies are loaded for the part of the batch that fits.
+    private static final String LOCK_BATCH_SQL = "SELECT id, body_size FROM outbox_messages "
+            + "WHERE next_attempt_at <= ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String LOCK_ONE_SQL = "SELECT " + COLUMNS + " FROM outbox_messages "
+            + "WHERE id = ? FOR UPDATE SKIP LOCKED";
+
+    private static final String DEFER_SQL = "UPDATE outbox_messages "
+            + "SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? WHERE id = ?";
+
+    private static final RowMapper<OutboxRecord> RECORD_MAPPER = (rs, rowNum) -> new OutboxRecord(
+            rs.getLong("id"),
+            rs.getString("exchange_name"),
+            rs.getString("routing_key"),
+            rs.getBytes("body"),
+            rs.getString("content_type"),
+            rs.getString("headers"),
+            rs.getString("expiration"),
+            rs.getInt("attempts"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(String exchange, String routingKey, byte[] body, String contentType, String headers,
+                       String expiration) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_SQL, exchange, routingKey, body, body.length, contentType, headers, expiration,
+                now, now);
+    }
+
+    /**
+     * Locks up to {@code limit} due rows and loads them in id order until their bodies reach
+     * {@code maxBytes}; the first row is always loaded. Rows left out stay locked until the
+     * transaction ends and are picked up by the next round.
+     */
+    public LockedBatch lockBatch(int limit, long maxBytes) {
+        List<Long> ids = new ArrayList<>();
+        long[] bytes = new long[1];
+        boolean[] truncated = new boolean[1];
+        jdbcTemplate.query(LOCK_BATCH_SQL, (RowCallbackHandler) rs -> {
+            int size = rs.getInt("body_size");
+            if (!truncated[0] && (ids.isEmpty() || bytes[0] + size <= maxBytes)) {
+                ids.add(rs.getLong("id"));
+                bytes[0] += size;
+            } else {
+                truncated[0] = true;
+            }
+        }, Timestamp.valueOf(LocalDateTime.now()), limit);
+        if (ids.isEmpty()) {
+            return new LockedBatch(List.of(), false);
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<OutboxRecord> records = jdbcTemplate.query("SELECT " + COLUMNS + " FROM outbox_messages WHERE id IN ("
+                + placeholders + ") ORDER BY id", RECORD_MAPPER, ids.toArray());
+        return new LockedBatch(records, truncated[0]);
+    }
+
+    public List<OutboxRecord> lockOne(Long id) {
+        return jdbcTemplate.query(LOCK_ONE_SQL, RECORD_MAPPER, id);
+    }
+
+    public void deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        jdbcTemplate.update("DELETE FROM outbox_messages WHERE id IN (" + placeholders + ")", ids.toArray());
+    }
+
+    public void defer(Long id, LocalDateTime nextAttemptAt, String error) {
+        jdbcTemplate.update(DEFER_SQL, Timestamp.valueOf(nextAttemptAt), truncate(error), id);
+    }
+
+    /**
+     * Pending message count and the creation time of the oldest one (null when empty).
+     */
+    public Stats stats() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM outbox_messages",
+                (rs, rowNum) -> {
+                    Timestamp oldest = rs.getTimestamp("oldest");
+                    return new Stats(rs.getLong("pending"), oldest != null ? oldest.toLocalDateTime() : null);
+                });
+    }
+
+    private String truncate(String error) {
+        if (error == null || error.length() <= 500) {
+            return error;
+        }
+        return error.substring(0, 500);
+    }
+
+    public record Stats(long pending, LocalDateTime oldest) {
+    }
+
+    /**
+     * Rows loaded for one relay round; {@code truncated} when the byte limit left due rows behind.
+     */
+    public record LockedBatch(List<OutboxRecord> records, boolean truncated) {
+    }
+}
@@ -4,10 +4,14 @@ import com.bookstore.common.file.FileType;
 import com.bookstore.common.messaging.FileDeleteMessage;
 import com.bookstore.common.messaging.FileUploadMessage;
 import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.outbox.OutboxPublisher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -20,6 +24,7 @@ import java.util.UUID;
 public class SharedFileService {
 
     private final RabbitTemplate rabbitTemplate;
+    private final ObjectProvider<OutboxPublisher> outboxPublisher;
 
     public String uploadFile(MultipartFile file, FileType fileType, Long entityId, String sourceService) {
         return uploadFile(file, fileType, entityId, sourceService, null);
@@ -43,10 +48,14 @@ public class SharedFileService {
                     .uploadedBy(uploadedBy)
                     .build();
 
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConstants.FILE_EXCHANGE,
-                    RabbitMQConstants.FILE_UPLOAD_ROUTING_KEY,
-                    message);
+            OutboxPublisher publisher = outboxPublisher.getIfAvailable();
+            // Base64 plus the message envelope; files too large for the outbox are sent after commit.
+            if (publisher != null && !publisher.accepts(base64Content.length() + 4096L)) {
+                log.info("File {} is too large for the outbox, sending it after commit", file.getOriginalFilename());
+                sendAfterCommit(RabbitMQConstants.FILE_UPLOAD_ROUTING_KEY, message);
+            } else {
+                send(RabbitMQConstants.FILE_UPLOAD_ROUTING_KEY, message);
+            }
 
             return correlationId;
         } catch (IOException e) {
@@ -63,14 +72,45 @@ public class SharedFileService {
                     .deletedBy(deletedBy)
                     .build();
 
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConstants.FILE_EXCHANGE,
-                    RabbitMQConstants.FILE_DELETE_ROUTING_KEY,
-                    message);
+            send(RabbitMQConstants.FILE_DELETE_ROUTING_KEY, message);
 
             log.info("Sent delete file request for: {}", fileUrl);
         } catch (Exception e) {
             log.error("Failed to send delete file request", e);
         }
     }
+
+    /**
+     * Goes through the outbox when the service enables it, so a message sent from inside a
+     * transaction is only delivered if that transaction commits.
+     */
+    private void send(String routingKey, Object message) {
+        OutboxPublisher publisher = outboxPublisher.getIfAvailable();
+        if (publisher != null) {
+            publisher.publish(RabbitMQConstants.FILE_EXCHANGE, routingKey, message);
+        } else {
+            rabbitTemplate.convertAndSend(RabbitMQConstants.FILE_EXCHANGE, routingKey, message);
+        }
+    }
+
+    /**
+     * Straight to the broker, but still only if the surrounding transaction commits. Unlike
+     * the outbox this is not retried: a broker outage or a crash right after commit loses it.
+     */
+    private void sendAfterCommit(String routingKey, Object message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rabbitTemplate.convertAndSend(RabbitMQConstants.FILE_EXCHANGE, routingKey, message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    rabbitTemplate.convertAndSend(RabbitMQConstants.FILE_EXCHANGE, routingKey, message);
+                } catch (Exception e) {
+                    log.error("Failed to send file message after commit", e);
+                }
+            }
+        });
+    }
 }
@@ -0,0 +1,16 @@
+CREATE TABLE IF NOT EXISTS outbox_messages (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    exchange_name VARCHAR(255) NOT NULL,
+    routing_key VARCHAR(255) NOT NULL,
+    body LONGBLOB NOT NULL,
+    body_size INT NOT NULL,
+    content_type VARCHAR(100),
+    headers TEXT,
+    expiration VARCHAR(20),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    created_at DATETIME(6) NOT NULL,
+    next_attempt_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_outbox_messages_next_attempt (next_attempt_at, id)
+) ENGINE = InnoDB;
@@ -0,0 +1,4 @@
+package com.bookstore.inventory.allocation;
+
+public record Allocation(Long inventoryId, Long productId, Long warehouseId, int quantity) {
+}
@@ -0,0 +1,151 @@
+package com.bookstore.inventory.allocation;
+
+import com.bookstore.inventory.dto.StockReservationResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Splits an order's quantities across warehouses. Pure in-memory planning over the
+ * candidate rows: no database access and no locks, so it stays in the low milliseconds
+ * with hundreds of warehouses. Callers plan again on locked values, or conditionally
+ * update only the rows the plan picks.
+ */
+@Component
+@RequiredArgsConstructor
+public class AllocationEngine {
+
+    private final ProvinceDistance provinceDistance;
+
+    public AllocationPlan plan(SortedMap<Long, Integer> requested, List<InventoryCandidate> candidates,
+                              AllocationPolicy policy, String shippingProvince) {
+        Map<Long, List<InventoryCandidate>> byProduct = candidates.stream()
+                .collect(Collectors.groupingBy(InventoryCandidate::productId));
+
+        List<StockReservationResponse.FailedItem> failedItems = new ArrayList<>();
+        boolean outOfStock = false;
+        for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+            List<InventoryCandidate> rows = byProduct.get(line.getKey());
+            if (rows == null) {
+                failedItems.add(StockReservationResponse.FailedItem.builder()
+                        .productId(line.getKey())
+                        .requestedQuantity(line.getValue())
+                        .availableQuantity(0)
+                        .reason("Product not found in inventory")
+                        .build());
+                continue;
+            }
+            int total = rows.stream().mapToInt(row -> Math.max(0, row.sellable())).sum();
+            if (total < line.getValue()) {
+                outOfStock = true;
+                failedItems.add(StockReservationResponse.FailedItem.builder()
+                        .productId(line.getKey())
+                        .requestedQuantity(line.getValue())
+                        .availableQuantity(total)
+                        .reason("Insufficient stock")
+                        .build());
+            }
+        }
+        if (!failedItems.isEmpty()) {
+            return new AllocationPlan(List.of(), failedItems, outOfStock);
+        }
+
+        List<Allocation> allocations = policy == AllocationPolicy.FEWEST_SHIPMENTS
+                ? fewestShipments(requested, candidates, shippingProvince)
+                : perProduct(requested, byProduct, rowOrder(policy, shippingProvince));
+        return new AllocationPlan(allocations, List.of(), false);
+    }
+
+    private Comparator<InventoryCandidate> rowOrder(AllocationPolicy policy, String shippingProvince) {
+        Comparator<InventoryCandidate> mostStock = Comparator.comparingInt(InventoryCandidate::sellable).reversed();
+        Comparator<InventoryCandidate> order = policy == AllocationPolicy.NEAREST
+                ? Comparator.<InventoryCandidate>comparingInt(row -> provinceDistance.rank(shippingProvince, row))
+                        .thenComparing(mostStock)
+                : mostStock;
+        return order.thenComparing(InventoryCandidate::inventoryId);
+    }
+
+    private List<Allocation> perProduct(SortedMap<Long, Integer> requested,
+                                        Map<Long, List<InventoryCandidate>> byProduct,
+                                        Comparator<InventoryCandidate> rowOrder) {
+        List<Allocation> allocations = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+            int remaining = line.getValue();
+            List<InventoryCandidate> rows = byProduct.get(line.getKey()).stream().sorted(rowOrder).toList();
+            for (InventoryCandidate row : rows) {
+                if (remaining == 0) {
+                    break;
+                }
+                int take = Math.min(remaining, row.sellable());
+                if (take > 0) {
+                    allocations.add(new Allocation(row.inventoryId(), row.productId(), row.warehouseId(), take));
+                    remaining -= take;
+                }
+            }
+        }
+        return allocations;
+    }
+
+    /**
+     * Greedy set cover: repeatedly ship from the warehouse that covers the most of what is
+     * still missing, breaking ties by distance and then warehouse id.
+     */
+    private List<Allocation> fewestShipments(SortedMap<Long, Integer> requested, List<InventoryCandidate> candidates,
+                                             String shippingProvince) {
+        Map<Long, Integer> remaining = new TreeMap<>(requested);
+        Map<Long, List<InventoryCandidate>> byWarehouse = candidates.stream()
+                .filter(row -> row.sellable() > 0)
+                .collect(Collectors.groupingBy(InventoryCandidate::warehouseId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, Integer> distanceByWarehouse = new HashMap<>();
+        byWarehouse.forEach((warehouseId, rows) ->
+                distanceByWarehouse.put(warehouseId, provinceDistance.rank(shippingProvince, rows.get(0))));
+
+        List<Allocation> allocations = new ArrayList<>();
+        while (!remaining.isEmpty() && !byWarehouse.isEmpty()) {
+            Long best = null;
+            int bestCoverage = 0;
+            for (Map.Entry<Long, List<InventoryCandidate>> warehouse : byWarehouse.entrySet()) {
+                int coverage = 0;
+                for (InventoryCandidate row : warehouse.getValue()) {
+                    coverage += Math.min(remaining.getOrDefault(row.productId(), 0), row.sellable());
+                }
+                if (coverage > bestCoverage || (coverage == bestCoverage && coverage > 0
+                        && isCloser(warehouse.getKey(), best, distanceByWarehouse))) {
+                    best = warehouse.getKey();
+                    bestCoverage = coverage;
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            for (InventoryCandidate row : byWarehouse.remove(best)) {
+                int needed = remaining.getOrDefault(row.productId(), 0);
+                int take = Math.min(needed, row.sellable());
+                if (take > 0) {
+                    allocations.add(new Allocation(row.inventoryId(), row.productId(), row.warehouseId(), take));
+                    if (needed == take) {
+                        remaining.remove(row.productId());
+                    } else {
+                        remaining.put(row.productId(), needed - take);
+                    }
+                }
+            }
+        }
+        return allocations;
+    }
+
+    private boolean isCloser(Long warehouseId, Long currentBest, Map<Long, Integer> distanceByWarehouse) {
+        int distance = distanceByWarehouse.get(warehouseId);
+        int bestDistance = distanceByWarehouse.get(currentBest);
+        return distance < bestDistance || (distance == bestDistance && warehouseId < currentBest);
+    }
+}
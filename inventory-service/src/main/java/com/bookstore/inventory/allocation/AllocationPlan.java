@@ -0,0 +1,27 @@
+package com.bookstore.inventory.allocation;
+
+import com.bookstore.inventory.dto.StockReservationResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @param allocations quantities to take per inventory row; empty when the plan failed
+ * @param failedItems lines the candidates could not cover
+ * @param outOfStock  whether a line failed for lack of stock rather than a missing product
+ */
+public record AllocationPlan(
+        List<Allocation> allocations,
+        List<StockReservationResponse.FailedItem> failedItems,
+        boolean outOfStock) {
+
+    public boolean isComplete() {
+        return failedItems.isEmpty();
+    }
+
+    public Map<Long, Integer> quantityByInventoryId() {
+        return allocations.stream()
+                .collect(Collectors.groupingBy(Allocation::inventoryId, Collectors.summingInt(Allocation::quantity)));
+    }
+}
@@ -0,0 +1,20 @@
+package com.bookstore.inventory.allocation;
+
+import java.util.Locale;
+
+public enum AllocationPolicy {
+    NEAREST, // Warehouses closest to the shipping province first
+    FEWEST_SHIPMENTS, // As few warehouses as possible for the whole order
+    MOST_STOCK; // Warehouses with the most sellable stock first
+
+    public static AllocationPolicy from(String value, AllocationPolicy defaultPolicy) {
+        if (value == null || value.isBlank()) {
+            return defaultPolicy;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return defaultPolicy;
+        }
+    }
+}
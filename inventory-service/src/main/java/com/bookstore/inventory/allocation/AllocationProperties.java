@@ -0,0 +1,19 @@
+package com.bookstore.inventory.allocation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.allocation")
+public class AllocationProperties {
+
+    private AllocationPolicy defaultPolicy = AllocationPolicy.FEWEST_SHIPMENTS;
+    // Region name -> provinces; a warehouse in the buyer's region ranks after one in the buyer's province
+    private Map<String, List<String>> regions = new HashMap<>();
+}
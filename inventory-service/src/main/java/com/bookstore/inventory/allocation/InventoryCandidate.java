@@ -0,0 +1,18 @@
+package com.bookstore.inventory.allocation;
+
+/**
+ * Unlocked snapshot of one inventory row, used to plan an allocation before any row lock
+ * is taken. {@code sellable} may be stale; the reservation strategy re-checks it.
+ */
+public record InventoryCandidate(
+        Long inventoryId,
+        Long productId,
+        Long warehouseId,
+        String province,
+        String city,
+        Integer sellable) {
+
+    public InventoryCandidate withSellable(int value) {
+        return new InventoryCandidate(inventoryId, productId, warehouseId, province, city, value);
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookstore.inventory.allocation;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Coarse distance between a shipping province and a warehouse: 0 for the same province,
+ * 1 for the same region, 2 otherwise. Names are compared without diacritics or
+ * "Tỉnh"/"Thành phố" prefixes, so "TP. Hồ Chí Minh" matches "ho chi minh".
+ */
+@Component
+public class ProvinceDistance {
+
+    public static final int SAME_PROVINCE = 0;
+    public static final int SAME_REGION = 1;
+    public static final int FAR = 2;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern PREFIX = Pattern.compile("^(tinh|thanh pho|tp\\.?)\\s+");
+
+    private final Map<String, String> regionByProvince = new HashMap<>();
+
+    public ProvinceDistance(AllocationProperties properties) {
+        properties.getRegions().forEach((region, provinces) -> {
+            for (String province : provinces) {
+                regionByProvince.put(normalize(province), region);
+            }
+        });
+    }
+
+    public int rank(String shippingProvince, InventoryCandidate candidate) {
+        if (shippingProvince == null || shippingProvince.isBlank()) {
+            return SAME_PROVINCE;
+        }
+        String from = normalize(shippingProvince);
+        String to = normalize(candidate.province() != null ? candidate.province() : candidate.city());
+        if (to.isEmpty()) {
+            return FAR;
+        }
+        if (from.equals(to)) {
+            return SAME_PROVINCE;
+        }
+        String fromRegion = regionByProvince.get(from);
+        return fromRegion != null && fromRegion.equals(regionByProvince.get(to)) ? SAME_REGION : FAR;
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String value = DIACRITICS.matcher(Normalizer.normalize(name, Normalizer.Form.NFD)).replaceAll("");
+        value = value.replace("đ", "d").replace("Đ", "D").toLowerCase(Locale.ROOT).trim();
+        value = PREFIX.matcher(value).replaceFirst("");
+        return value.replaceAll("[^a-z0-9]+", " ").trim();
+    }
+}
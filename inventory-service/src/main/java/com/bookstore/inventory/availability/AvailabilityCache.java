@@ -0,0 +1,106 @@
+package com.bookstore.inventory.availability;
+
+import com.bookstore.inventory.event.StockChangedEvent;
+import com.bookstore.inventory.hotsku.HotSkuLedger;
+import com.bookstore.inventory.repository.InventoryRepository;
+import com.bookstore.inventory.repository.ProductAvailability;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Per-instance cache of sellable units per product. Misses of a bulk lookup are loaded
+ * together with one grouped query. Entries are evicted after every committed stock change
+ * on this instance and, through a Redis channel, on the other instances; the short TTL
+ * bounds staleness if an invalidation is lost.
+ */
+@Component
+@Slf4j
+public class AvailabilityCache {
+
+    private final InventoryRepository inventoryRepository;
+    private final Optional<HotSkuLedger> hotSkuLedger;
+    private final StringRedisTemplate redisTemplate;
+    private final AvailabilityProperties properties;
+    private final Cache<Long, Integer> cache;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public AvailabilityCache(InventoryRepository inventoryRepository, Optional<HotSkuLedger> hotSkuLedger,
+                             StringRedisTemplate redisTemplate, AvailabilityProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.inventoryRepository = inventoryRepository;
+        this.hotSkuLedger = hotSkuLedger;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "inventory.availability");
+    }
+
+    public int get(Long productId) {
+        return getAll(List.of(productId)).getOrDefault(productId, 0);
+    }
+
+    /**
+     * Products without inventory rows map to 0 and are cached as such.
+     */
+    public Map<Long, Integer> getAll(Collection<Long> productIds) {
+        return cache.getAll(productIds, this::load);
+    }
+
+    private Map<Long, Integer> load(Set<? extends Long> productIds) {
+        Map<Long, Integer> loaded = new HashMap<>();
+        productIds.forEach(productId -> loaded.put(productId, 0));
+        for (ProductAvailability availability : inventoryRepository.sumAvailableByProductIds(List.copyOf(productIds))) {
+            loaded.put(availability.productId(), Math.toIntExact(availability.available()));
+        }
+        // Units escrowed into the hot SKU ledger are still for sale but counted as reserved.
+        hotSkuLedger.ifPresent(ledger -> loaded.replaceAll((productId, available) ->
+                ledger.activeInventoryId(productId).isPresent()
+                        ? available + (int) ledger.remaining(productId)
+                        : available));
+        return loaded;
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        cache.invalidateAll(event.productIds());
+        try {
+            String ids = event.productIds().stream().map(String::valueOf).collect(Collectors.joining(","));
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), instanceId + ":" + ids);
+        } catch (Exception e) {
+            // Other instances fall back to the TTL.
+            log.warn("Failed to publish availability invalidation: {}", e.getMessage());
+        }
+    }
+
+    public void onInvalidation(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0 || message.substring(0, separator).equals(instanceId)) {
+            return;
+        }
+        List<Long> productIds = Arrays.stream(message.substring(separator + 1).split(","))
+                .filter(id -> !id.isBlank())
+                .map(Long::valueOf)
+                .toList();
+        cache.invalidateAll(productIds);
+    }
+}
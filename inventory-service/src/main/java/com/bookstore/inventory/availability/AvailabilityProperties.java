@@ -0,0 +1,19 @@
+package com.bookstore.inventory.availability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.availability")
+public class AvailabilityProperties {
+
+    // Upper bound on staleness when an invalidation from another instance is missed
+    private Duration ttl = Duration.ofSeconds(2);
+    private long maxSize = 100_000;
+    private int maxProductsPerRequest = 200;
+    private String invalidationChannel = "inventory:availability:invalidate";
+}
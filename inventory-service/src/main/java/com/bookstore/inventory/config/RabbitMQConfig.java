@@ -1,7 +1,15 @@
 package com.bookstore.inventory.config;
 
 import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.inventory.scheduler.ReservationExpiryTiers;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -9,6 +17,9 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
     @Bean
@@ -27,4 +38,85 @@ public class RabbitMQConfig {
     public DirectExchange inventoryExchange() {
         return new DirectExchange(RabbitMQConstants.INVENTORY_EXCHANGE);
     }
+
+    @Bean
+    public FanoutExchange stockLevelExchange() {
+        return new FanoutExchange(RabbitMQConstants.INVENTORY_STOCK_LEVEL_EXCHANGE);
+    }
+
+    @Bean
+    public DirectExchange sagaExchange() {
+        return new DirectExchange(RabbitMQConstants.SAGA_EXCHANGE);
+    }
+
+    @Bean
+    public Queue reserveQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.INVENTORY_RESERVE_QUEUE).build();
+    }
+
+    @Bean
+    public Binding reserveBinding() {
+        return BindingBuilder.bind(reserveQueue())
+                .to(inventoryExchange())
+                .with(RabbitMQConstants.INVENTORY_RESERVE_KEY);
+    }
+
+    @Bean
+    public Queue confirmQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.INVENTORY_CONFIRM_QUEUE).build();
+    }
+
+    @Bean
+    public Binding confirmBinding() {
+        return BindingBuilder.bind(confirmQueue())
+                .to(inventoryExchange())
+                .with(RabbitMQConstants.INVENTORY_CONFIRM_KEY);
+    }
+
+    @Bean
+    public Queue releaseQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.INVENTORY_RELEASE_QUEUE).build();
+    }
+
+    @Bean
+    public Binding releaseBinding() {
+        return BindingBuilder.bind(releaseQueue())
+                .to(inventoryExchange())
+                .with(RabbitMQConstants.INVENTORY_RELEASE_KEY);
+    }
+
+    // Messages published with a per-message TTL before the tier queues existed still expire
+    // from here; drop once it is empty.
+    @Bean
+    public Queue reservationDelayQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.INVENTORY_RESERVATION_DELAY_QUEUE)
+                .deadLetterExchange(RabbitMQConstants.INVENTORY_EXCHANGE)
+                .deadLetterRoutingKey(RabbitMQConstants.INVENTORY_RESERVATION_EXPIRED_KEY)
+                .build();
+    }
+
+    @Bean
+    public Declarables reservationDelayTierQueues(ReservationExpiryTiers tiers) {
+        List<Declarable> declarables = new ArrayList<>();
+        for (long tierMs : tiers.tiersMs()) {
+            declarables.add(QueueBuilder.durable(ReservationExpiryTiers.queue(tierMs))
+                    .ttl((int) tierMs)
+                    .deadLetterExchange(RabbitMQConstants.INVENTORY_EXCHANGE)
+                    .deadLetterRoutingKey(RabbitMQConstants.INVENTORY_RESERVATION_EXPIRED_KEY)
+                    .build());
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public Queue reservationExpiredQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.INVENTORY_RESERVATION_EXPIRED_QUEUE).build();
+    }
+
+    @Bean
+    public Binding reservationExpiredBinding() {
+        return BindingBuilder.bind(reservationExpiredQueue())
+                .to(inventoryExchange())
+                .with(RabbitMQConstants.INVENTORY_RESERVATION_EXPIRED_KEY);
+    }
 }
@@ -0,0 +1,31 @@
+package com.bookstore.inventory.config;
+
+import com.bookstore.inventory.availability.AvailabilityCache;
+import com.bookstore.inventory.availability.AvailabilityProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Drops cached availability when another instance commits a stock change.
+     */
+    @Bean
+    public RedisMessageListenerContainer availabilityInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            AvailabilityCache availabilityCache,
+            AvailabilityProperties availabilityProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                        availabilityCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(availabilityProperties.getInvalidationChannel()));
+        return container;
+    }
+}
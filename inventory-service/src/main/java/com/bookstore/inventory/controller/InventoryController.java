@@ -1,6 +1,8 @@
 package com.bookstore.inventory.controller;
 
 import com.bookstore.common.dto.response.ServiceResponse;
+import com.bookstore.inventory.dto.JournalReplayReport;
+import com.bookstore.inventory.dto.StockAvailability;
 import com.bookstore.inventory.dto.StockReservationRequest;
 import com.bookstore.inventory.dto.StockReservationResponse;
 import com.bookstore.inventory.service.IInventoryService;
@@ -11,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/inventory")
 @RequiredArgsConstructor
@@ -21,10 +25,11 @@ public class InventoryController {
     private final IInventoryService inventoryService;
 
     @PostMapping("/reserve")
-    @Operation(summary = "Reserve stock for an order")
+    @Operation(summary = "Reserve stock for an order; repeating the request returns the stored result")
     public ResponseEntity<ServiceResponse> reserveStock(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             @RequestBody StockReservationRequest request) {
-        StockReservationResponse response = inventoryService.reserveStock(request);
+        StockReservationResponse response = inventoryService.reserveStock(request, idempotencyKey);
 
         if (response.isSuccess()) {
             return ResponseEntity.ok(ServiceResponse.RESPONSE_SUCCESS("Stock reserved successfully", response));
@@ -67,6 +72,13 @@ public class InventoryController {
         return ResponseEntity.ok(ServiceResponse.RESPONSE_SUCCESS(available));
     }
 
+    @GetMapping("/availability")
+    @Operation(summary = "Get available stock for many products in one call")
+    public ResponseEntity<ServiceResponse> getAvailability(@RequestParam List<Long> productIds) {
+        List<StockAvailability> availability = inventoryService.getAvailability(productIds);
+        return ResponseEntity.ok(ServiceResponse.RESPONSE_SUCCESS(availability));
+    }
+
     @GetMapping("/check/{productId}")
     @Operation(summary = "Check if stock is available for a product")
     public ResponseEntity<ServiceResponse> checkStock(
@@ -75,4 +87,11 @@ public class InventoryController {
         boolean available = inventoryService.isStockAvailable(productId, quantity);
         return ResponseEntity.ok(ServiceResponse.RESPONSE_SUCCESS(available));
     }
+
+    @GetMapping("/journal/verify")
+    @Operation(summary = "Rebuild stock from the movement journal and report rows that disagree")
+    public ResponseEntity<ServiceResponse> verifyJournal(@RequestParam(required = false) Long inventoryId) {
+        JournalReplayReport report = inventoryService.verifyJournal(inventoryId);
+        return ResponseEntity.ok(ServiceResponse.RESPONSE_SUCCESS(report));
+    }
 }
@@ -0,0 +1,34 @@
+package com.bookstore.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalReplayReport {
+    private long movementsReplayed;
+    private int inventoriesChecked;
+    private int inconsistentInventories;
+    private List<Discrepancy> discrepancies;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Discrepancy {
+        private Long inventoryId;
+        private Long productId;
+        private Integer journalQuantity;
+        private Integer actualQuantity;
+        private Integer journalReservedQuantity;
+        private Integer actualReservedQuantity;
+        // Movements whose before value does not follow on from the previous movement
+        private int gaps;
+    }
+}
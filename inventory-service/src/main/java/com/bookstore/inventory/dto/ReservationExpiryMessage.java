@@ -0,0 +1,17 @@
+package com.bookstore.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationExpiryMessage {
+    private Long orderId;
+    private LocalDateTime expiresAt;
+}
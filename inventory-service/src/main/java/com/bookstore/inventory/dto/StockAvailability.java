@@ -0,0 +1,16 @@
+package com.bookstore.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailability {
+    private Long productId;
+    private Integer availableQuantity;
+    private boolean inStock;
+}
@@ -15,6 +15,8 @@ public class StockReservationRequest {
     private Long orderId;
     private List<ReservationItem> items;
     private Long userId;
+    private String shippingProvince;
+    private String allocationPolicy;
 
     @Data
     @Builder
@@ -28,6 +28,7 @@ public class StockReservationResponse {
         private Long productId;
         private Integer quantity;
         private Long reservationId;
+        private Long warehouseId;
     }
 
     @Data
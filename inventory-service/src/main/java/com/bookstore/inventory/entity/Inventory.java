@@ -77,6 +77,11 @@ public class Inventory {
         return quantity - reservedQuantity;
     }
 
+    // Stock that can be promised to new orders: the reorder level is kept back as safety stock.
+    public int getSellableQuantity() {
+        return quantity - reorderLevel - reservedQuantity;
+    }
+
     public boolean isLowStock() {
         return getAvailableQuantity() <= reorderLevel;
     }
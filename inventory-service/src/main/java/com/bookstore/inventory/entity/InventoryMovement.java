@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
         @Index(name = "idx_movements_product", columnList = "product_id"),
         @Index(name = "idx_movements_type", columnList = "movement_type"),
         @Index(name = "idx_movements_date", columnList = "created_at"),
-        @Index(name = "idx_movements_reference", columnList = "reference_type, reference_id")
+        @Index(name = "idx_movements_reference", columnList = "reference_type, reference_id"),
+        @Index(name = "idx_movements_inventory_version", columnList = "inventory_id, inventory_version")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
@@ -66,6 +67,10 @@ public class InventoryMovement {
     @Column(name = "created_by")
     private Long createdBy;
 
+    // Inventory row version the change committed with; orders the journal for replay
+    @Column(name = "inventory_version")
+    private Long inventoryVersion;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,58 @@
+package com.bookstore.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Order-level header over an order's reservation lines. It is written first in the reserve
+ * transaction, so a repeated request for the same order finds the stored outcome by primary
+ * key instead of reserving again, and confirm/release move it with a conditional UPDATE.
+ */
+@Entity
+@Table(name = "order_reservations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_reservations_idempotency_key", columnNames = "idempotency_key")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReservation {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // Digest of the merged request lines; a retry must ask for the same items
+    @Column(name = "request_hash", nullable = false, length = 32)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    // StockReservationResponse returned to the first caller, as JSON
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public enum Status {
+        RESERVED, // Đang giữ hàng
+        FAILED, // Không đủ hàng, không có dòng reservation nào
+        CONFIRMED,
+        RELEASED,
+        EXPIRED
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookstore.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per committed transaction and changed product, written in that transaction.
+ * StockLevelRelay turns them into stock level messages and deletes them.
+ */
+@Entity
+@Table(name = "stock_change_outbox", indexes = {
+        @Index(name = "idx_stock_outbox_product", columnList = "product_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangeOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.bookstore.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last stock level message sent for a product; the relay uses it to debounce.
+ */
+@Entity
+@Table(name = "stock_level_publications")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelPublication {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer available;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "published_at", nullable = false)
+    private LocalDateTime publishedAt;
+}
@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Table(name = "stock_reservations", indexes = {
         @Index(name = "idx_reservations_order", columnList = "order_id"),
         @Index(name = "idx_reservations_status", columnList = "status"),
-        @Index(name = "idx_reservations_expires", columnList = "expires_at")
+        @Index(name = "idx_reservations_expires", columnList = "expires_at"),
+        @Index(name = "idx_reservations_status_expires", columnList = "status, expires_at")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
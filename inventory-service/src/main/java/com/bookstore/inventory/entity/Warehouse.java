@@ -38,6 +38,9 @@ public class Warehouse {
     @Column(length = 100)
     private String city;
 
+    @Column(length = 100)
+    private String province;
+
     @Column(length = 20)
     private String phone;
 
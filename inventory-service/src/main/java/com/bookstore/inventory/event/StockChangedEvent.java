@@ -0,0 +1,9 @@
+package com.bookstore.inventory.event;
+
+import java.util.Set;
+
+/**
+ * Published in-process after a transaction that changed stock has committed.
+ */
+public record StockChangedEvent(Set<Long> productIds) {
+}
@@ -0,0 +1,234 @@
+package com.bookstore.inventory.hotsku;
+
+import com.bookstore.inventory.entity.Inventory;
+import com.bookstore.inventory.entity.InventoryMovement;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.journal.JournalEntry;
+import com.bookstore.inventory.repository.InventoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Background side of the hot SKU ledger. Every instance publishes its per-product
+ * reservation attempt counts; the instance holding the coordinator lock turns products
+ * whose attempt rate crosses the threshold into ledger products, keeps their buckets
+ * topped up from the database, and hands quiet products back by draining the buckets and
+ * releasing exactly the drained units from {@code reserved_quantity}.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.hot-sku.enabled", havingValue = "true")
+@Slf4j
+public class HotSkuCoordinator {
+
+    private static final String LOCK_KEY = "inventory:hot:coordinator";
+    private static final String ATTEMPTS_KEY_PREFIX = "inventory:hot:attempts:";
+
+    private final HotSkuLedger ledger;
+    private final HotSkuProperties properties;
+    private final StringRedisTemplate redisTemplate;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJournal inventoryJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, Integer> quietWindows = new HashMap<>();
+    private long lastEvaluatedWindow = -1;
+
+    public HotSkuCoordinator(HotSkuLedger ledger, HotSkuProperties properties, StringRedisTemplate redisTemplate,
+                             InventoryRepository inventoryRepository, InventoryJournal inventoryJournal,
+                             PlatformTransactionManager transactionManager) {
+        this.ledger = ledger;
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.inventoryRepository = inventoryRepository;
+        this.inventoryJournal = inventoryJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // releaseEscrow also runs from afterCompletion of a failed reservation
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot-sku.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        try {
+            ledger.refreshActive();
+            long window = Instant.now().getEpochSecond() / properties.getWindowSeconds();
+            publishAttempts(window);
+            if (!acquireLock()) {
+                return;
+            }
+            if (window != lastEvaluatedWindow) {
+                evaluate(window - 1);
+                lastEvaluatedWindow = window;
+            }
+            refillActive();
+            drainDeactivated();
+        } catch (Exception e) {
+            log.error("Hot SKU reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void publishAttempts(long window) {
+        Map<Long, Long> counts = ledger.drainAttempts();
+        if (counts.isEmpty()) {
+            return;
+        }
+        String key = ATTEMPTS_KEY_PREFIX + window;
+        counts.forEach((productId, count) -> redisTemplate.opsForHash().increment(key, productId.toString(), count));
+        redisTemplate.expire(key, Duration.ofSeconds(properties.getWindowSeconds() * 4));
+    }
+
+    private boolean acquireLock() {
+        Duration ttl = Duration.ofMillis(properties.getReconcileIntervalMs() * 3);
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, instanceId, ttl);
+        if (Boolean.TRUE.equals(acquired)) {
+            return true;
+        }
+        if (instanceId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+            redisTemplate.expire(LOCK_KEY, ttl);
+            return true;
+        }
+        return false;
+    }
+
+    private void evaluate(long window) {
+        Map<Long, Double> rates = new HashMap<>();
+        redisTemplate.opsForHash().entries(ATTEMPTS_KEY_PREFIX + window).forEach((productId, count) ->
+                rates.put(Long.valueOf(productId.toString()),
+                        Long.parseLong(count.toString()) / (double) properties.getWindowSeconds()));
+
+        Map<Long, Long> active = ledger.getActive();
+        Map<Long, String> draining = ledger.getDraining();
+        rates.forEach((productId, rate) -> {
+            if (rate >= properties.getActivationRate() && !active.containsKey(productId)
+                    && !draining.containsKey(productId)) {
+                activate(productId);
+            }
+        });
+
+        active.forEach((productId, inventoryId) -> {
+            double rate = rates.getOrDefault(productId, 0.0);
+            if (rate >= properties.getDeactivationRate()) {
+                quietWindows.remove(productId);
+                return;
+            }
+            int quiet = quietWindows.merge(productId, 1, Integer::sum);
+            if (quiet >= properties.getCooldownWindows()) {
+                quietWindows.remove(productId);
+                ledger.deactivate(productId, inventoryId);
+            }
+        });
+        ledger.refreshActive();
+    }
+
+    private void activate(Long productId) {
+        inventoryRepository.findByProductIdIn(List.of(productId)).stream()
+                .max(Comparator.comparingInt(Inventory::getSellableQuantity))
+                .filter(inventory -> inventory.getSellableQuantity() > 0)
+                .ifPresent(inventory -> ledger.activate(productId, inventory.getId()));
+    }
+
+    private void refillActive() {
+        ledger.getActive().forEach((productId, inventoryId) -> {
+            if (ledger.remaining(productId) >= properties.getLowWatermark()) {
+                return;
+            }
+            int claimed = claimEscrow(inventoryId, properties.getRefillChunk());
+            if (claimed > 0) {
+                ledger.deposit(productId, claimed);
+            }
+        });
+    }
+
+    /**
+     * Moves up to {@code chunk} sellable units into reserved_quantity; the ledger may only
+     * hand out units after this has committed.
+     */
+    private int claimEscrow(Long inventoryId, int chunk) {
+        Integer claimed = transactionTemplate.execute(status -> {
+            int quantity = chunk;
+            if (inventoryRepository.reserveIfAvailable(inventoryId, quantity) != 1) {
+                quantity = inventoryRepository.findById(inventoryId)
+                        .map(Inventory::getSellableQuantity)
+                        .orElse(0);
+                if (quantity <= 0 || inventoryRepository.reserveIfAvailable(inventoryId, quantity) != 1) {
+                    return 0;
+                }
+            }
+            inventoryJournal.record(inventoryId, InventoryMovement.MovementType.RESERVED, quantity,
+                    JournalEntry.REFERENCE_HOT_SKU, null, "Hot SKU escrow refill");
+            return quantity;
+        });
+        return claimed != null ? claimed : 0;
+    }
+
+    private void drainDeactivated() {
+        long now = System.currentTimeMillis();
+        ledger.getDraining().forEach((productId, value) -> {
+            String[] parts = value.split(":");
+            Long inventoryId = Long.valueOf(parts[0]);
+            long deactivatedAt = Long.parseLong(parts[1]);
+            if (now - deactivatedAt < properties.getDrainGraceMs()) {
+                return;
+            }
+            long drained = ledger.drain(productId);
+            // Only the units that were still in the buckets go back. Draws taken just before
+            // the drain may not have committed their reservation rows yet, so recounting the
+            // pending rows here would hand their units out a second time.
+            if (drained > 0) {
+                releaseEscrow(inventoryId, (int) drained, "Hot SKU drained");
+            }
+            ledger.clearDraining(productId);
+            log.info("Drained {} unreserved units of product {} back to inventory {}", drained, productId, inventoryId);
+        });
+    }
+
+    /**
+     * Releases escrowed units the ledger no longer holds, for a drain or for a give-back that
+     * arrived after the product left the ledger.
+     */
+    public void releaseEscrow(Long inventoryId, int quantity, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (inventoryRepository.releaseReservedById(inventoryId, quantity) != 1) {
+                log.error("Could not release {} escrowed units on inventory {}; run the reserved quantity repair",
+                        quantity, inventoryId);
+                return;
+            }
+            inventoryJournal.record(inventoryId, InventoryMovement.MovementType.RELEASED, -quantity,
+                    JournalEntry.REFERENCE_HOT_SKU, null, reason);
+        });
+    }
+
+    /**
+     * Offline repair for escrow lost to a crash between a claim and its deposit, or between a
+     * drain and its release: resets reserved_quantity to the committed pending reservations.
+     * Only safe while no draw can be in flight, i.e. with the product out of the ledger and
+     * reservations stopped for it; refuses while the product is active or draining.
+     */
+    public boolean repair(Long productId, Long inventoryId) {
+        if (ledger.getActive().containsKey(productId) || ledger.getDraining().containsKey(productId)) {
+            return false;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            int reservedBefore = inventoryRepository.findAllByIdInWithLock(List.of(inventoryId)).stream()
+                    .mapToInt(Inventory::getReservedQuantity)
+                    .sum();
+            inventoryRepository.recomputeReservedQuantity(inventoryId);
+            inventoryJournal.recordReservedReset(inventoryId, reservedBefore, JournalEntry.REFERENCE_HOT_SKU,
+                    productId, "Hot SKU escrow repair");
+        });
+        return true;
+    }
+}
@@ -0,0 +1,205 @@
+package com.bookstore.inventory.hotsku;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Redis-held stock for flash-sale products. A hot product's sellable units are escrowed out
+ * of the database (counted in {@code inventory.reserved_quantity}) and split over N bucket
+ * keys; a reservation takes units from one bucket with an atomic Lua check-and-decrement,
+ * so buyers of the same SKU never touch its inventory row. Units only enter a bucket after
+ * the database escrow has committed, which is why the ledger cannot oversell.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.hot-sku.enabled", havingValue = "true")
+@Slf4j
+public class HotSkuLedger {
+
+    static final String ACTIVE_KEY = "inventory:hot:active";
+    static final String DRAINING_KEY = "inventory:hot:draining";
+
+    private static final RedisScript<Long> TAKE_SCRIPT = new DefaultRedisScript<>(
+            "local available = tonumber(redis.call('GET', KEYS[1]) or '0') "
+                    + "local quantity = tonumber(ARGV[1]) "
+                    + "if available >= quantity then return redis.call('DECRBY', KEYS[1], quantity) end "
+                    + "return -1", Long.class);
+
+    // Returns units to a bucket only while the product is still in the active hash; once it has
+    // been deactivated the bucket may already be drained, so the caller releases them in the database.
+    private static final RedisScript<Long> GIVE_BACK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then return 0 end "
+                    + "redis.call('INCRBY', KEYS[2], ARGV[2]) "
+                    + "return 1", Long.class);
+
+    private static final RedisScript<Long> DRAIN_SCRIPT = new DefaultRedisScript<>(
+            "local total = 0 "
+                    + "for _, key in ipairs(KEYS) do "
+                    + "total = total + tonumber(redis.call('GET', key) or '0') "
+                    + "redis.call('DEL', key) end "
+                    + "return total", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final HotSkuProperties properties;
+    private final Map<Long, LongAdder> attempts = new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter stealCounter;
+    private volatile Map<Long, Long> activeInventoryIds = Map.of();
+
+    public HotSkuLedger(StringRedisTemplate redisTemplate, HotSkuProperties properties, MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.hitCounter = Counter.builder("inventory.hot_sku.draws").tag("result", "hit").register(meterRegistry);
+        this.missCounter = Counter.builder("inventory.hot_sku.draws").tag("result", "miss").register(meterRegistry);
+        this.stealCounter = Counter.builder("inventory.hot_sku.steals")
+                .description("Draws served by a bucket other than the first one tried")
+                .register(meterRegistry);
+        Gauge.builder("inventory.hot_sku.active", this, ledger -> ledger.activeInventoryIds.size())
+                .description("Products currently reserved through the ledger")
+                .register(meterRegistry);
+    }
+
+    public void recordAttempt(Long productId) {
+        attempts.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Returns and resets the attempts counted on this instance since the last call.
+     */
+    Map<Long, Long> drainAttempts() {
+        Map<Long, Long> snapshot = new HashMap<>();
+        attempts.forEach((productId, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                snapshot.put(productId, count);
+            }
+        });
+        attempts.entrySet().removeIf(entry -> entry.getValue().sum() == 0);
+        return snapshot;
+    }
+
+    public Optional<Long> activeInventoryId(Long productId) {
+        return Optional.ofNullable(activeInventoryIds.get(productId));
+    }
+
+    /**
+     * Takes {@code quantity} units from a single bucket, starting at a random one and moving
+     * on to the next when a bucket runs dry. Returns false when no bucket can cover it; the
+     * caller then falls back to the database path.
+     */
+    public boolean tryTake(Long productId, int quantity) {
+        int buckets = properties.getBuckets();
+        int start = ThreadLocalRandom.current().nextInt(buckets);
+        for (int i = 0; i < buckets; i++) {
+            Long remaining = redisTemplate.execute(TAKE_SCRIPT,
+                    List.of(bucketKey(productId, (start + i) % buckets)), String.valueOf(quantity));
+            if (remaining != null && remaining >= 0) {
+                hitCounter.increment();
+                if (i > 0) {
+                    stealCounter.increment();
+                }
+                return true;
+            }
+        }
+        missCounter.increment();
+        return false;
+    }
+
+    /**
+     * Returns units taken by a reservation whose transaction did not commit. Returns false
+     * when the product has left the ledger; the units are then still escrowed in
+     * reserved_quantity and the caller must release them there.
+     */
+    public boolean giveBack(Long productId, int quantity) {
+        int bucket = ThreadLocalRandom.current().nextInt(properties.getBuckets());
+        Long returned = redisTemplate.execute(GIVE_BACK_SCRIPT,
+                List.of(ACTIVE_KEY, bucketKey(productId, bucket)), productId.toString(), String.valueOf(quantity));
+        return returned != null && returned == 1;
+    }
+
+    public long remaining(Long productId) {
+        List<String> values = redisTemplate.opsForValue().multiGet(bucketKeys(productId));
+        if (values == null) {
+            return 0;
+        }
+        return values.stream().filter(value -> value != null).mapToLong(Long::parseLong).sum();
+    }
+
+    void deposit(Long productId, int quantity) {
+        int buckets = properties.getBuckets();
+        for (int i = 0; i < buckets; i++) {
+            int share = quantity / buckets + (i < quantity % buckets ? 1 : 0);
+            if (share > 0) {
+                redisTemplate.opsForValue().increment(bucketKey(productId, i), share);
+            }
+        }
+    }
+
+    long drain(Long productId) {
+        Long drained = redisTemplate.execute(DRAIN_SCRIPT, bucketKeys(productId));
+        return drained != null ? drained : 0;
+    }
+
+    void refreshActive() {
+        Map<Object, Object> entries = redisTemplate.opsForHash().entries(ACTIVE_KEY);
+        Map<Long, Long> active = new HashMap<>();
+        entries.forEach((productId, inventoryId) ->
+                active.put(Long.valueOf(productId.toString()), Long.valueOf(inventoryId.toString())));
+        activeInventoryIds = Map.copyOf(active);
+    }
+
+    Map<Long, Long> getActive() {
+        return activeInventoryIds;
+    }
+
+    void activate(Long productId, Long inventoryId) {
+        // The last drain left the buckets empty; clear anything a crash in between left behind.
+        redisTemplate.delete(bucketKeys(productId));
+        redisTemplate.opsForHash().put(ACTIVE_KEY, productId.toString(), inventoryId.toString());
+        log.info("Product {} switched to the hot SKU ledger (inventory {})", productId, inventoryId);
+    }
+
+    void deactivate(Long productId, Long inventoryId) {
+        redisTemplate.opsForHash().delete(ACTIVE_KEY, productId.toString());
+        redisTemplate.opsForHash().put(DRAINING_KEY, productId.toString(),
+                inventoryId + ":" + System.currentTimeMillis());
+        log.info("Product {} left the hot SKU ledger", productId);
+    }
+
+    Map<Long, String> getDraining() {
+        Map<Long, String> draining = new HashMap<>();
+        redisTemplate.opsForHash().entries(DRAINING_KEY)
+                .forEach((productId, value) -> draining.put(Long.valueOf(productId.toString()), value.toString()));
+        return draining;
+    }
+
+    void clearDraining(Long productId) {
+        redisTemplate.opsForHash().delete(DRAINING_KEY, productId.toString());
+    }
+
+    private List<String> bucketKeys(Long productId) {
+        return IntStream.range(0, properties.getBuckets())
+                .mapToObj(i -> bucketKey(productId, i))
+                .toList();
+    }
+
+    private static String bucketKey(Long productId, int bucket) {
+        return "inventory:hot:" + productId + ":bucket:" + bucket;
+    }
+}
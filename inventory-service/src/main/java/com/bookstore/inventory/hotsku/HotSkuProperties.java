@@ -0,0 +1,29 @@
+package com.bookstore.inventory.hotsku;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.hot-sku")
+public class HotSkuProperties {
+
+    private boolean enabled = false;
+    // Sub-buckets per hot product; draws start at a random bucket and steal from the others
+    private int buckets = 8;
+    // Reservation attempts are counted per window across all instances
+    private long windowSeconds = 5;
+    // Attempts per second on one product that switch it to the ledger
+    private double activationRate = 50;
+    // Below this rate for cooldownWindows consecutive windows the product goes back to the database path
+    private double deactivationRate = 10;
+    private int cooldownWindows = 3;
+    // Units moved from the database into the ledger per refill
+    private int refillChunk = 200;
+    // Refill when the ledger holds fewer units than this
+    private int lowWatermark = 50;
+    private long reconcileIntervalMs = 1000;
+    // Wait after deactivation before draining, so in-flight ledger draws can commit
+    private long drainGraceMs = 5000;
+}
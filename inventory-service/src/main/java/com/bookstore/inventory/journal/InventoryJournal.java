@@ -0,0 +1,206 @@
+package com.bookstore.inventory.journal;
+
+import com.bookstore.inventory.entity.InventoryMovement.MovementType;
+import com.bookstore.inventory.event.StockChangedEvent;
+import com.bookstore.inventory.repository.InventoryCounters;
+import com.bookstore.inventory.repository.InventoryMovementJdbcRepository;
+import com.bookstore.inventory.repository.ReservationRow;
+import com.bookstore.inventory.repository.StockChangeOutboxJdbcRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Records a movement for every stock mutation. Callers only state the change; the
+ * movements of one transaction are collected and resolved just before commit, while the
+ * transaction still holds the row locks: one SELECT reads the final counters and version
+ * of every touched row and the before/after values are worked back from there. After
+ * commit, once the row locks are released, the movements go to the JournalWriter, so
+ * rolled-back changes are never journaled and the request does not wait for the inserts.
+ * Being the one place every stock change passes through, it also writes the changed
+ * products to the stock change outbox inside the transaction and announces them
+ * in-process with a StockChangedEvent.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryJournal {
+
+    private final InventoryMovementJdbcRepository movementRepository;
+    private final StockChangeOutboxJdbcRepository stockChangeOutboxRepository;
+    private final JournalWriter journalWriter;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param quantity signed change: reserved quantity for RESERVED/RELEASED, on-hand
+     *                 quantity otherwise
+     */
+    public void record(Long inventoryId, MovementType type, int quantity, String referenceType, Object referenceId,
+                       String reason) {
+        pending().add(new PendingMovement(inventoryId, type, quantity, null, referenceType,
+                referenceId != null ? referenceId.toString() : null, reason, LocalDateTime.now()));
+    }
+
+    public void recordReleased(List<ReservationRow> rows, String reason) {
+        for (ReservationRow row : rows) {
+            record(row.inventoryId(), MovementType.RELEASED, -row.quantity(), JournalEntry.REFERENCE_ORDER,
+                    row.orderId(), reason);
+        }
+    }
+
+    /**
+     * For statements that set reserved_quantity outright: the change is taken from the
+     * value at commit, as RESERVED or RELEASED depending on its sign.
+     */
+    public void recordReservedReset(Long inventoryId, int reservedBefore, String referenceType, Object referenceId,
+                                    String reason) {
+        pending().add(new PendingMovement(inventoryId, null, null, reservedBefore, referenceType,
+                referenceId != null ? referenceId.toString() : null, reason, LocalDateTime.now()));
+    }
+
+    /**
+     * For changes that move sellable units without touching an inventory row, such as draws
+     * from the hot SKU ledger: the products still go to the stock change outbox and get a
+     * StockChangedEvent once the transaction commits.
+     */
+    public void recordLevelChanged(Collection<Long> productIds) {
+        collector().levelChanged.addAll(productIds);
+    }
+
+    private List<PendingMovement> pending() {
+        return collector().movements;
+    }
+
+    private TransactionMovements collector() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Inventory movements must be recorded inside a transaction");
+        }
+        // Looked up among the current synchronizations rather than bound as a resource, so a
+        // REQUIRES_NEW transaction gets its own collector.
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionMovements movements && movements.owner() == this) {
+                return movements;
+            }
+        }
+        TransactionMovements movements = new TransactionMovements();
+        TransactionSynchronizationManager.registerSynchronization(movements);
+        return movements;
+    }
+
+    private List<JournalEntry> resolve(List<PendingMovement> movements) {
+        Map<Long, List<PendingMovement>> byInventory = new LinkedHashMap<>();
+        for (PendingMovement movement : movements) {
+            byInventory.computeIfAbsent(movement.inventoryId(), id -> new ArrayList<>()).add(movement);
+        }
+        Map<Long, InventoryCounters> counters = movementRepository.findCounters(byInventory.keySet());
+
+        List<JournalEntry> entries = new ArrayList<>(movements.size());
+        byInventory.forEach((inventoryId, rowMovements) -> {
+            InventoryCounters row = counters.get(inventoryId);
+            if (row == null) {
+                log.warn("Inventory {} vanished before its {} movements could be journaled", inventoryId, rowMovements.size());
+                return;
+            }
+            // Walk back from the committed values to the value before each change.
+            int onHand = row.quantity();
+            int reserved = row.reservedQuantity();
+            JournalEntry[] resolved = new JournalEntry[rowMovements.size()];
+            for (int i = rowMovements.size() - 1; i >= 0; i--) {
+                PendingMovement movement = rowMovements.get(i);
+                MovementType type = movement.type();
+                int quantity;
+                if (type == null) {
+                    quantity = reserved - movement.reservedBefore();
+                    if (quantity == 0) {
+                        continue;
+                    }
+                    type = quantity > 0 ? MovementType.RESERVED : MovementType.RELEASED;
+                } else {
+                    quantity = movement.quantity();
+                }
+
+                int after;
+                if (JournalEntry.tracksReserved(type)) {
+                    after = reserved;
+                    reserved -= quantity;
+                } else {
+                    after = onHand;
+                    onHand -= quantity;
+                    if (JournalEntry.consumesReservation(type, movement.referenceType())) {
+                        reserved -= quantity;
+                    }
+                }
+                resolved[i] = new JournalEntry(inventoryId, row.productId(), row.warehouseId(), type, quantity,
+                        after - quantity, after, movement.referenceType(), movement.referenceId(),
+                        movement.reason(), row.version(), movement.createdAt());
+            }
+            for (JournalEntry entry : resolved) {
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        });
+        return entries;
+    }
+
+    private record PendingMovement(
+            Long inventoryId,
+            MovementType type,
+            Integer quantity,
+            Integer reservedBefore,
+            String referenceType,
+            String referenceId,
+            String reason,
+            LocalDateTime createdAt) {
+    }
+
+    private final class TransactionMovements implements TransactionSynchronization {
+
+        private final List<PendingMovement> movements = new ArrayList<>();
+        private final Set<Long> levelChanged = new TreeSet<>();
+        private List<JournalEntry> entries = List.of();
+
+        private InventoryJournal owner() {
+            return InventoryJournal.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Push pending entity updates first so the counters read back are the final ones.
+            entityManager.flush();
+            entries = resolve(movements);
+            stockChangeOutboxRepository.append(productIds());
+        }
+
+        private Set<Long> productIds() {
+            Set<Long> productIds = entries.stream().map(JournalEntry::productId)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            productIds.addAll(levelChanged);
+            return productIds;
+        }
+
+        @Override
+        public void afterCommit() {
+            journalWriter.publish(entries);
+            Set<Long> productIds = productIds();
+            if (!productIds.isEmpty()) {
+                eventPublisher.publishEvent(new StockChangedEvent(productIds));
+            }
+        }
+    }
+}
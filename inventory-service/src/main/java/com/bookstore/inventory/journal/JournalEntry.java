@@ -0,0 +1,38 @@
+package com.bookstore.inventory.journal;
+
+import com.bookstore.inventory.entity.InventoryMovement.MovementType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resolved inventory_movements row waiting for the batch writer. {@code quantity} is the
+ * signed change; before/after are the reserved quantity for RESERVED/RELEASED and the
+ * on-hand quantity for every other type. {@code inventoryVersion} is the row version the
+ * change committed with and orders movements per row on replay.
+ */
+public record JournalEntry(
+        Long inventoryId,
+        Long productId,
+        Long warehouseId,
+        MovementType movementType,
+        int quantity,
+        int quantityBefore,
+        int quantityAfter,
+        String referenceType,
+        String referenceId,
+        String reason,
+        long inventoryVersion,
+        LocalDateTime createdAt) {
+
+    public static final String REFERENCE_ORDER = "ORDER";
+    public static final String REFERENCE_HOT_SKU = "HOT_SKU";
+
+    public static boolean tracksReserved(MovementType type) {
+        return type == MovementType.RESERVED || type == MovementType.RELEASED;
+    }
+
+    // Confirming an order takes its units out of both on-hand and reserved stock.
+    public static boolean consumesReservation(MovementType type, String referenceType) {
+        return type == MovementType.STOCK_OUT && REFERENCE_ORDER.equals(referenceType);
+    }
+}
@@ -0,0 +1,26 @@
+package com.bookstore.inventory.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.journal")
+public class JournalProperties {
+
+    // Movements buffered in memory between commit and the batch insert
+    private int bufferSize = 65536;
+    private int batchSize = 500;
+    // Longest a movement waits in the buffer before a partial batch is written
+    private long flushIntervalMs = 200;
+    // How long a committing thread waits for buffer space before writing its movements itself
+    private long publishTimeoutMs = 50;
+    private long retryBackoffMs = 1000;
+    // Time the writer gets to empty the buffer on shutdown
+    private long shutdownTimeoutMs = 10000;
+    // Committed movements not yet inserted are kept here and replayed on startup; one directory per instance
+    private String spoolDir = "./data/journal-spool";
+    // A spool segment is closed at this size and deleted once all its movements are inserted
+    private long segmentBytes = 16 * 1024 * 1024;
+}
@@ -0,0 +1,115 @@
+package com.bookstore.inventory.journal;
+
+import com.bookstore.inventory.dto.JournalReplayReport;
+import com.bookstore.inventory.entity.InventoryMovement.MovementType;
+import com.bookstore.inventory.repository.InventoryCounters;
+import com.bookstore.inventory.repository.InventoryMovementJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Rebuilds inventory quantities from the movement journal and compares them with the
+ * inventory table. Each row starts from the before value of its first journaled movement
+ * and applies every change in commit order; a movement whose before value does not match
+ * the running value is counted as a gap (a change made outside the journal, or one lost
+ * between commit and the spool append). Read-only: it
+ * reports differences and leaves fixing them to an operator.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalReplay {
+
+    private static final int COMPARE_CHUNK = 1000;
+    private static final int MAX_REPORTED = 500;
+
+    private final InventoryMovementJdbcRepository movementRepository;
+
+    /**
+     * @param inventoryId a single inventory row, or null for all of them
+     */
+    public JournalReplayReport replay(Long inventoryId) {
+        Map<Long, RebuiltCounters> rebuilt = new TreeMap<>();
+        long[] movements = {0};
+        movementRepository.scanForReplay(inventoryId, rs -> {
+            movements[0]++;
+            RebuiltCounters counters = rebuilt.computeIfAbsent(rs.getLong("inventory_id"), id -> new RebuiltCounters());
+            counters.productId = rs.getLong("product_id");
+            counters.apply(MovementType.valueOf(rs.getString("movement_type")), rs.getInt("quantity"),
+                    rs.getInt("quantity_before"), rs.getString("reference_type"));
+        });
+
+        List<JournalReplayReport.Discrepancy> discrepancies = new ArrayList<>();
+        int inconsistent = 0;
+        List<Long> ids = new ArrayList<>(rebuilt.keySet());
+        for (int from = 0; from < ids.size(); from += COMPARE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + COMPARE_CHUNK, ids.size()));
+            Map<Long, InventoryCounters> actual = movementRepository.findCounters(chunk);
+            for (Long id : chunk) {
+                RebuiltCounters counters = rebuilt.get(id);
+                InventoryCounters row = actual.get(id);
+                Integer actualQuantity = row != null ? row.quantity() : null;
+                Integer actualReserved = row != null ? row.reservedQuantity() : null;
+                boolean consistent = counters.gaps == 0
+                        && (counters.onHand == null || Objects.equals(counters.onHand, actualQuantity))
+                        && (counters.reserved == null || Objects.equals(counters.reserved, actualReserved));
+                if (consistent) {
+                    continue;
+                }
+                inconsistent++;
+                if (discrepancies.size() < MAX_REPORTED) {
+                    discrepancies.add(JournalReplayReport.Discrepancy.builder()
+                            .inventoryId(id)
+                            .productId(counters.productId)
+                            .journalQuantity(counters.onHand)
+                            .actualQuantity(actualQuantity)
+                            .journalReservedQuantity(counters.reserved)
+                            .actualReservedQuantity(actualReserved)
+                            .gaps(counters.gaps)
+                            .build());
+                }
+            }
+        }
+
+        return JournalReplayReport.builder()
+                .movementsReplayed(movements[0])
+                .inventoriesChecked(rebuilt.size())
+                .inconsistentInventories(inconsistent)
+                .discrepancies(discrepancies)
+                .build();
+    }
+
+    private static final class RebuiltCounters {
+        private Long productId;
+        // Null until the first movement on that counter sets the starting point
+        private Integer onHand;
+        private Integer reserved;
+        private int gaps;
+
+        void apply(MovementType type, int quantity, int before, String referenceType) {
+            if (JournalEntry.tracksReserved(type)) {
+                reserved = follow(reserved, before) + quantity;
+                return;
+            }
+            onHand = follow(onHand, before) + quantity;
+            if (reserved != null && JournalEntry.consumesReservation(type, referenceType)) {
+                reserved += quantity;
+            }
+        }
+
+        private int follow(Integer running, int before) {
+            if (running == null) {
+                return before;
+            }
+            if (running != before) {
+                gaps++;
+            }
+            return running;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bookstore.inventory.journal;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Durable handoff between a committed transaction and the JournalWriter. Resolved
+ * movements are appended to a local segment file before they enter the in-memory buffer,
+ * and a segment is deleted once every movement in it has been inserted. Segments left by
+ * a process that died are read back on the next start. Appends are flushed to the
+ * operating system but not fsynced: they survive a process crash, not a host crash. The
+ * directory is locked, so two instances cannot share it.
+ */
+@Component
+@Slf4j
+public class JournalSpool {
+
+    private static final String SEGMENT_PREFIX = "movements-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final JournalProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private Path directory;
+    private FileChannel lockChannel;
+    private Segment current;
+    private long segmentSequence;
+
+    public JournalSpool(JournalProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Locks the spool directory and returns the segments a previous process left behind,
+     * oldest first.
+     */
+    public synchronized List<Path> open() throws IOException {
+        directory = Path.of(properties.getSpoolDir());
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("spool.lock"), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE);
+        if (lockChannel.tryLock() == null) {
+            throw new IllegalStateException("Journal spool " + directory + " is used by another process");
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalSpool::isSegment).sorted().toList();
+        }
+    }
+
+    /**
+     * Appends the movements of one transaction and returns the segment that holds them;
+     * the writer acknowledges them there once they are inserted.
+     */
+    public synchronized Segment append(List<JournalEntry> entries) throws IOException {
+        if (current == null || current.bytes >= properties.getSegmentBytes()) {
+            rotate();
+        }
+        for (JournalEntry entry : entries) {
+            byte[] line = objectMapper.writeValueAsBytes(entry);
+            current.out.write(line);
+            current.out.write('\n');
+            current.bytes += line.length + 1;
+        }
+        current.out.flush();
+        current.outstanding.addAndGet(entries.size());
+        return current;
+    }
+
+    /**
+     * A line torn by a crash mid-append is skipped; the transaction it belonged to shows up
+     * as a gap in JournalReplay.
+     */
+    public List<JournalEntry> read(Path segment) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(objectMapper.readValue(line, JournalEntry.class));
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable line in journal spool {}: {}", segment, e.getOriginalMessage());
+            }
+        }
+        return entries;
+    }
+
+    public void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+    }
+
+    public synchronized void close() {
+        try {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+            if (lockChannel != null) {
+                lockChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to close journal spool: {}", e.getMessage());
+        }
+    }
+
+    private void rotate() throws IOException {
+        Path path = directory.resolve(String.format("%s%013d-%06d%s", SEGMENT_PREFIX, System.currentTimeMillis(),
+                segmentSequence++, SEGMENT_SUFFIX));
+        Segment previous = current;
+        current = new Segment(path, new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)));
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    /**
+     * One spool file. It is deleted when it no longer takes appends and every movement in
+     * it has been acknowledged; whichever of the two happens last deletes it.
+     */
+    static final class Segment {
+
+        private final Path path;
+        private final OutputStream out;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private long bytes;
+        private volatile boolean closed;
+
+        private Segment(Path path, OutputStream out) {
+            this.path = path;
+            this.out = out;
+        }
+
+        void acknowledge(int count) {
+            if (outstanding.addAndGet(-count) == 0 && closed) {
+                delete();
+            }
+        }
+
+        private void close() throws IOException {
+            out.close();
+            closed = true;
+            if (outstanding.get() == 0) {
+                delete();
+            }
+        }
+
+        private void delete() {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete journal spool segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.bookstore.inventory.journal;
+
+import com.bookstore.inventory.repository.InventoryMovementJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background side of the movement journal. Committed movements are appended to the
+ * JournalSpool, then go into a bounded ring buffer, and one writer thread inserts them in
+ * JDBC batches of up to batch-size rows, so a committing request pays for a file append
+ * and an in-memory offer after its row locks are released, never for the inserts.
+ * Nothing is dropped: a failed batch is retried until it is written, a publisher that
+ * finds the buffer full writes its own movements, and on shutdown the writer empties the
+ * buffer before the data source closes. Movements still buffered when the process dies
+ * are in the spool and are inserted on the next start, skipping those already written.
+ */
+@Component
+@Slf4j
+public class JournalWriter implements SmartLifecycle {
+
+    private final InventoryMovementJdbcRepository movementRepository;
+    private final JournalSpool spool;
+    private final JournalProperties properties;
+    private final BlockingQueue<Spooled> buffer;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter writtenCounter;
+    private final Counter overflowCounter;
+    private final Timer flushTimer;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public JournalWriter(InventoryMovementJdbcRepository movementRepository, JournalSpool spool,
+                         JournalProperties properties, PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        this.movementRepository = movementRepository;
+        this.spool = spool;
+        this.properties = properties;
+        this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        // Publishers may call in from afterCommit, where the finished transaction is still bound.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writtenCounter = Counter.builder("inventory.journal.written")
+                .description("Inventory movements written to the journal")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("inventory.journal.overflow")
+                .description("Inventory movements written by the publisher because the buffer was full")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("inventory.journal.flush")
+                .description("Duration of one journal batch insert")
+                .register(meterRegistry);
+        Gauge.builder("inventory.journal.buffered", buffer, BlockingQueue::size)
+                .description("Inventory movements waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void publish(List<JournalEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        JournalSpool.Segment segment;
+        try {
+            segment = spool.append(entries);
+        } catch (Exception e) {
+            // Without a spooled copy the movements are only safe once inserted.
+            log.error("Failed to spool {} inventory movements, writing them now: {}", entries.size(), e.getMessage());
+            overflowCounter.increment(entries.size());
+            try {
+                write(entries);
+            } catch (Exception writeFailure) {
+                log.error("Lost {} inventory movements: {}", entries.size(), writeFailure.getMessage());
+            }
+            return;
+        }
+        List<JournalEntry> overflow = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            if (!running || !offer(new Spooled(entry, segment))) {
+                overflow.add(entry);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            overflowCounter.increment(overflow.size());
+            try {
+                write(overflow);
+                segment.acknowledge(overflow.size());
+            } catch (Exception e) {
+                log.error("Failed to write {} inventory movements, left in the spool for the next start: {}",
+                        overflow.size(), e.getMessage());
+            }
+        }
+    }
+
+    private boolean offer(Spooled entry) {
+        try {
+            return buffer.offer(entry) || buffer.offer(entry, properties.getPublishTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drainLoop() {
+        List<Spooled> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !buffer.isEmpty()) {
+            try {
+                Spooled first = buffer.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, properties.getBatchSize() - 1);
+                writeWithRetry(batch.stream().map(Spooled::entry).toList());
+                acknowledge(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+    }
+
+    private static void acknowledge(List<Spooled> batch) {
+        Map<JournalSpool.Segment, Integer> written = new IdentityHashMap<>();
+        for (Spooled spooled : batch) {
+            written.merge(spooled.segment(), 1, Integer::sum);
+        }
+        written.forEach(JournalSpool.Segment::acknowledge);
+    }
+
+    private void writeWithRetry(List<JournalEntry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                write(batch);
+                return;
+            } catch (Exception e) {
+                log.error("Failed to write {} inventory movements, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(properties.getRetryBackoffMs());
+            }
+        }
+    }
+
+    private void write(List<JournalEntry> entries) {
+        flushTimer.record(() -> transactionTemplate.executeWithoutResult(status ->
+                movementRepository.insertAll(entries)));
+        writtenCounter.increment(entries.size());
+    }
+
+    /**
+     * Inserts what a previous process spooled but did not write, then starts the writer.
+     * Runs before the web server and message listeners start taking work.
+     */
+    @Override
+    public void start() {
+        try {
+            recover(spool.open());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open the inventory journal spool: " + e.getMessage(), e);
+        }
+        running = true;
+        writerThread = new Thread(this::drainLoop, "inventory-journal-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(properties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!buffer.isEmpty()) {
+            log.error("Inventory journal stopped with {} movements unwritten; they stay in the spool", buffer.size());
+        }
+        spool.close();
+    }
+
+    private void recover(List<Path> segments) throws IOException {
+        for (Path segment : segments) {
+            List<JournalEntry> spooled = spool.read(segment);
+            List<JournalEntry> unwritten = movementRepository.findUnwritten(spooled);
+            for (int from = 0; from < unwritten.size(); from += properties.getBatchSize()) {
+                write(unwritten.subList(from, Math.min(unwritten.size(), from + properties.getBatchSize())));
+            }
+            log.info("Recovered {} of {} spooled inventory movements from {}", unwritten.size(), spooled.size(),
+                    segment.getFileName());
+            spool.delete(segment);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server and message listeners, which are still publishing movements.
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private record Spooled(JournalEntry entry, JournalSpool.Segment segment) {
+    }
+}
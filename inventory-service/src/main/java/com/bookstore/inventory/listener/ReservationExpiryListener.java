@@ -0,0 +1,25 @@
+package com.bookstore.inventory.listener;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.inventory.dto.ReservationExpiryMessage;
+import com.bookstore.inventory.service.IInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExpiryListener {
+
+    private final IInventoryService inventoryService;
+
+    @RabbitListener(queues = RabbitMQConstants.INVENTORY_RESERVATION_EXPIRED_QUEUE)
+    public void onReservationExpired(ReservationExpiryMessage message) {
+        int released = inventoryService.expireReservations(message.getOrderId());
+        if (released > 0) {
+            log.debug("Expired {} reservations of order {}", released, message.getOrderId());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.bookstore.inventory.listener;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.saga.ReserveStockCommand;
+import com.bookstore.common.messaging.saga.SagaRouting;
+import com.bookstore.common.messaging.saga.StockReservedEvent;
+import com.bookstore.common.outbox.OutboxPublisher;
+import com.bookstore.inventory.dto.StockReservationRequest;
+import com.bookstore.inventory.dto.StockReservationResponse;
+import com.bookstore.inventory.service.IInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves stock for orders placed asynchronously and replies to the order's saga shard. The
+ * command carries the order's idempotency key, so a redelivered command replays the stored
+ * result and the reply is simply sent again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReserveStockListener {
+
+    private final IInventoryService inventoryService;
+    private final OutboxPublisher outboxPublisher;
+
+    @RabbitListener(queues = RabbitMQConstants.INVENTORY_RESERVE_QUEUE)
+    public void onReserveStock(ReserveStockCommand command) {
+        List<StockReservationRequest.ReservationItem> items = command.getItems().stream()
+                .map(item -> StockReservationRequest.ReservationItem.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+        StockReservationRequest request = StockReservationRequest.builder()
+                .orderId(command.getOrderId())
+                .userId(command.getUserId())
+                .shippingProvince(command.getShippingProvince())
+                .items(items)
+                .build();
+
+        StockReservationResponse response = inventoryService.reserveStock(request, command.getIdempotencyKey());
+        if (!response.isSuccess()) {
+            log.info("Stock reservation failed for order {}: {}", command.getOrderId(), response.getMessage());
+        }
+
+        StockReservedEvent event = StockReservedEvent.builder()
+                .sagaId(command.getSagaId())
+                .orderId(command.getOrderId())
+                .success(response.isSuccess())
+                .reservationId(response.isSuccess() ? command.getOrderId().toString() : null)
+                .failureReason(response.isSuccess() ? null : failureReason(response))
+                .expiresAt(response.getExpiresAt() != null
+                        ? response.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                        : null)
+                .build();
+        // Written after the reservation committed; a crash before this line leaves the command
+        // unacknowledged, and its redelivery replays the stored result.
+        outboxPublisher.publish(RabbitMQConstants.SAGA_EXCHANGE, SagaRouting.routingKey(command.getOrderId()), event);
+    }
+
+    private String failureReason(StockReservationResponse response) {
+        if (response.getFailedItems() == null || response.getFailedItems().isEmpty()) {
+            return response.getMessage();
+        }
+        return response.getFailedItems().stream()
+                .map(item -> "product " + item.getProductId() + ": " + item.getReason())
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,54 @@
+package com.bookstore.inventory.listener;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.saga.ConfirmStockCommand;
+import com.bookstore.common.messaging.saga.ReleaseStockCommand;
+import com.bookstore.common.messaging.saga.SagaCompensationEvent;
+import com.bookstore.common.messaging.saga.SagaRouting;
+import com.bookstore.common.messaging.saga.StockConfirmedEvent;
+import com.bookstore.common.outbox.OutboxPublisher;
+import com.bookstore.inventory.service.IInventoryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confirms or releases an order's reservation on behalf of the order saga and replies to
+ * its shard. Both operations are idempotent per order, so the saga may re-send a command
+ * after a timeout and gets the same answer.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockCommandListener {
+
+    private final IInventoryService inventoryService;
+    private final OutboxPublisher outboxPublisher;
+
+    @RabbitListener(queues = RabbitMQConstants.INVENTORY_CONFIRM_QUEUE)
+    public void onConfirmStock(ConfirmStockCommand command) {
+        boolean confirmed = inventoryService.confirmReservation(command.getOrderId());
+        StockConfirmedEvent event = StockConfirmedEvent.builder()
+                .sagaId(command.getSagaId())
+                .orderId(command.getOrderId())
+                .success(confirmed)
+                .failureReason(confirmed ? null : "No active reservation for order " + command.getOrderId())
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.SAGA_EXCHANGE, SagaRouting.routingKey(command.getOrderId()), event);
+    }
+
+    @RabbitListener(queues = RabbitMQConstants.INVENTORY_RELEASE_QUEUE)
+    public void onReleaseStock(ReleaseStockCommand command) {
+        log.info("Releasing stock for order {}: {}", command.getOrderId(), command.getReason());
+        boolean released = inventoryService.releaseReservation(command.getOrderId());
+        SagaCompensationEvent event = SagaCompensationEvent.builder()
+                .sagaId(command.getSagaId())
+                .orderId(command.getOrderId())
+                .compensatedStep("RESERVE_STOCK")
+                .success(released)
+                .failureReason(released ? null : "No pending reservation for order " + command.getOrderId())
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.SAGA_EXCHANGE, SagaRouting.routingKey(command.getOrderId()), event);
+    }
+}
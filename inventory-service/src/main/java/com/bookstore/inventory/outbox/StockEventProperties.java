@@ -0,0 +1,18 @@
+package com.bookstore.inventory.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "inventory.stock-events")
+public class StockEventProperties {
+
+    private long pollIntervalMs = 500;
+    // At most one message per product per debounce window, across all instances
+    private long debounceMs = 1000;
+    // Outbox rows claimed per relay transaction
+    private int batchSize = 1000;
+    private int maxBatchesPerRun = 10;
+}
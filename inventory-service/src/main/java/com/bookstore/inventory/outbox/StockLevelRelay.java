@@ -0,0 +1,128 @@
+package com.bookstore.inventory.outbox;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.inventory.StockLevelMessage;
+import com.bookstore.inventory.entity.StockLevelPublication;
+import com.bookstore.inventory.hotsku.HotSkuLedger;
+import com.bookstore.inventory.repository.StockChangeOutboxJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Publishes stock level messages from the stock change outbox. Each relay transaction
+ * claims a batch of outbox rows with SKIP LOCKED, so several instances share the work,
+ * and collapses them to one message per product carrying the current level rather than
+ * one per change. A product published less than debounce-ms ago is held back: its
+ * newest outbox row is kept for a later run and the rest are deleted, so a flash sale
+ * produces at most one message per product per window and a backlog never grows past
+ * one row per product. Each message carries the product's last published version plus
+ * one, issued under the publication row lock, so versions strictly increase even when
+ * inventory rows are deleted. Messages are sent before the rows are deleted, so delivery
+ * is at least once; consumers drop anything not newer than what they hold.
+ */
+@Component
+@Slf4j
+public class StockLevelRelay {
+
+    private final StockChangeOutboxJdbcRepository outboxRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final Optional<HotSkuLedger> hotSkuLedger;
+    private final StockEventProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter coalescedCounter;
+
+    public StockLevelRelay(StockChangeOutboxJdbcRepository outboxRepository, RabbitTemplate rabbitTemplate,
+                           Optional<HotSkuLedger> hotSkuLedger, StockEventProperties properties,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.hotSkuLedger = hotSkuLedger;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("inventory.stock_level.published")
+                .description("Stock level messages published")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("inventory.stock_level.coalesced")
+                .description("Outbox rows folded into another product's message")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-events.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+                Integer claimed = transactionTemplate.execute(status -> relayBatch(LocalDateTime.now()));
+                if (claimed == null || claimed < properties.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Stock level relay failed: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch(LocalDateTime now) {
+        Map<Long, Long> pending = outboxRepository.lockPending(properties.getBatchSize());
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, StockLevelPublication> lastPublished =
+                outboxRepository.lockLastPublished(new HashSet<>(pending.values()));
+        LocalDateTime debounceStart = now.minusNanos(properties.getDebounceMs() * 1_000_000);
+        Set<Long> due = new HashSet<>();
+        Map<Long, Long> keptByProduct = new HashMap<>();
+        pending.forEach((outboxId, productId) -> {
+            StockLevelPublication published = lastPublished.get(productId);
+            if (!published.getPublishedAt().isAfter(debounceStart)) {
+                due.add(productId);
+            } else {
+                keptByProduct.merge(productId, outboxId, Math::max);
+            }
+        });
+
+        List<StockLevelMessage> messages = due.isEmpty() ? List.of() : outboxRepository.findStockLevels(due);
+        Set<Long> unstocked = new HashSet<>(due);
+        for (StockLevelMessage message : messages) {
+            unstocked.remove(message.getProductId());
+            hotSkuLedger.filter(ledger -> ledger.activeInventoryId(message.getProductId()).isPresent())
+                    .ifPresent(ledger -> message.setAvailable(message.getAvailable()
+                            + (int) ledger.remaining(message.getProductId())));
+        }
+        // Products whose inventory rows were deleted: announce zero.
+        List<StockLevelMessage> all = new ArrayList<>(messages);
+        unstocked.forEach(productId -> all.add(new StockLevelMessage(productId, 0, null)));
+
+        for (StockLevelMessage message : all) {
+            message.setVersion(lastPublished.get(message.getProductId()).getVersion() + 1);
+            rabbitTemplate.convertAndSend(RabbitMQConstants.INVENTORY_STOCK_LEVEL_EXCHANGE, "", message);
+        }
+        outboxRepository.recordPublished(all, now);
+
+        Set<Long> kept = new HashSet<>(keptByProduct.values());
+        List<Long> processed = pending.keySet().stream()
+                .filter(outboxId -> !kept.contains(outboxId))
+                .toList();
+        outboxRepository.delete(processed);
+
+        publishedCounter.increment(all.size());
+        coalescedCounter.increment(processed.size() - all.size());
+        return pending.size();
+    }
+}
@@ -0,0 +1,8 @@
+package com.bookstore.inventory.repository;
+
+/**
+ * Current stock counters of an inventory row, read without loading the entity.
+ */
+public record InventoryCounters(Long id, Long productId, Long warehouseId, int quantity, int reservedQuantity,
+                                long version) {
+}
@@ -0,0 +1,143 @@
+package com.bookstore.inventory.repository;
+
+import com.bookstore.inventory.journal.JournalEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * JDBC access for the movement journal: batch inserts from the journal writer, counter
+ * reads for resolving before/after values, the lookup that skips movements already
+ * written when a spool is recovered, and the ordered scan used by replay.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryMovementJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO inventory_movements "
+            + "(inventory_id, product_id, warehouse_id, movement_type, quantity, quantity_before, quantity_after, "
+            + "reference_type, reference_id, reason, inventory_version, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String REPLAY_SQL = "SELECT inventory_id, product_id, movement_type, quantity, "
+            + "quantity_before, quantity_after, reference_type FROM inventory_movements";
+
+    private static final RowMapper<InventoryCounters> COUNTERS_ROW_MAPPER = (rs, rowNum) -> new InventoryCounters(
+            rs.getLong("id"),
+            rs.getLong("product_id"),
+            rs.getLong("warehouse_id"),
+            rs.getInt("quantity"),
+            rs.getInt("reserved_quantity"),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<JournalEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                JournalEntry entry = entries.get(i);
+                ps.setLong(1, entry.inventoryId());
+                ps.setLong(2, entry.productId());
+                ps.setLong(3, entry.warehouseId());
+                ps.setString(4, entry.movementType().name());
+                ps.setInt(5, entry.quantity());
+                ps.setInt(6, entry.quantityBefore());
+                ps.setInt(7, entry.quantityAfter());
+                ps.setString(8, entry.referenceType());
+                ps.setString(9, entry.referenceId());
+                ps.setString(10, entry.reason());
+                ps.setLong(11, entry.inventoryVersion());
+                ps.setTimestamp(12, Timestamp.valueOf(entry.createdAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    public Map<Long, InventoryCounters> findCounters(Collection<Long> inventoryIds) {
+        if (inventoryIds.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(inventoryIds.size(), "?"));
+        Map<Long, InventoryCounters> counters = new HashMap<>();
+        jdbcTemplate.query("SELECT id, product_id, warehouse_id, quantity, reserved_quantity, version "
+                        + "FROM inventory WHERE id IN (" + placeholders + ")",
+                COUNTERS_ROW_MAPPER, inventoryIds.toArray())
+                .forEach(row -> counters.put(row.id(), row));
+        return counters;
+    }
+
+    /**
+     * Returns the entries not yet in the journal. A movement is matched on its row, the row
+     * version it committed with, type, quantity and reference; identical entries are
+     * counted, so a transaction's repeated movements are all kept.
+     */
+    public List<JournalEntry> findUnwritten(List<JournalEntry> entries) {
+        Map<Long, List<JournalEntry>> byInventory = new LinkedHashMap<>();
+        for (JournalEntry entry : entries) {
+            byInventory.computeIfAbsent(entry.inventoryId(), id -> new ArrayList<>()).add(entry);
+        }
+        List<JournalEntry> unwritten = new ArrayList<>();
+        byInventory.forEach((inventoryId, rowEntries) -> {
+            long fromVersion = rowEntries.stream().mapToLong(JournalEntry::inventoryVersion).min().orElse(0);
+            Map<String, Integer> written = new HashMap<>();
+            jdbcTemplate.query("SELECT inventory_version, movement_type, quantity, reference_type, reference_id "
+                            + "FROM inventory_movements WHERE inventory_id = ? AND inventory_version >= ?",
+                    (RowCallbackHandler) rs -> written.merge(matchKey(rs.getLong("inventory_version"),
+                            rs.getString("movement_type"), rs.getInt("quantity"), rs.getString("reference_type"),
+                            rs.getString("reference_id")), 1, Integer::sum),
+                    inventoryId, fromVersion);
+            for (JournalEntry entry : rowEntries) {
+                String key = matchKey(entry.inventoryVersion(), entry.movementType().name(), entry.quantity(),
+                        entry.referenceType(), entry.referenceId());
+                if (written.merge(key, -1, Integer::sum) < 0) {
+                    unwritten.add(entry);
+                }
+            }
+        });
+        return unwritten;
+    }
+
+    private static String matchKey(long version, String type, int quantity, String referenceType,
+                                   String referenceId) {
+        return version + "|" + type + "|" + quantity + "|" + Objects.toString(referenceType, "") + "|"
+                + Objects.toString(referenceId, "");
+    }
+
+    /**
+     * Streams movements row by row in replay order: per inventory row, by the version each
+     * change committed with, then by insertion order within one transaction.
+     */
+    public void scanForReplay(Long inventoryId, RowCallbackHandler handler) {
+        String sql = REPLAY_SQL + (inventoryId != null ? " WHERE inventory_id = ?" : "")
+                + " ORDER BY inventory_id, inventory_version, id";
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            // MySQL Connector/J only streams results with this fetch size.
+            ps.setFetchSize(Integer.MIN_VALUE);
+            if (inventoryId != null) {
+                ps.setLong(1, inventoryId);
+            }
+            return ps;
+        }, handler);
+    }
+}
@@ -1,5 +1,6 @@
 package com.bookstore.inventory.repository;
 
+import com.bookstore.inventory.allocation.InventoryCandidate;
 import com.bookstore.inventory.entity.Inventory;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,22 +10,58 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
+    // Locks every row of an order in one statement, always in the same order, so concurrent
+    // carts with overlapping products wait on each other instead of deadlocking.
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT i FROM Inventory i WHERE i.productId = :productId")
-    Optional<Inventory> findByProductIdWithLock(@Param("productId") Long productId);
+    @Query("SELECT i FROM Inventory i WHERE i.productId IN :productIds ORDER BY i.productId, i.id")
+    List<Inventory> findAllByProductIdInWithLock(@Param("productIds") Collection<Long> productIds);
 
+    // Same ordering rule for locking rows by id.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id IN :ids ORDER BY i.productId, i.id")
+    List<Inventory> findAllByIdInWithLock(@Param("ids") Collection<Long> ids);
+
+    List<Inventory> findByProductIdIn(Collection<Long> productIds);
+
+    // Unlocked planning snapshot over active warehouses; no entities are loaded.
+    @Query("SELECT new com.bookstore.inventory.allocation.InventoryCandidate(i.id, i.productId, w.id, w.province, w.city, " +
+            "i.quantity - i.reservedQuantity - i.reorderLevel) " +
+            "FROM Inventory i JOIN i.warehouse w WHERE i.productId IN :productIds AND w.isActive = true")
+    List<InventoryCandidate> findCandidates(@Param("productIds") Collection<Long> productIds);
+
+    // Check-and-reserve in one statement: no lock is taken before the decision and the
+    // affected-row count (0 or 1) says whether the row had enough sellable stock.
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity + :quantity, i.version = i.version + 1 " +
+            "WHERE i.id = :id AND i.quantity - i.reservedQuantity - i.reorderLevel >= :quantity")
+    int reserveIfAvailable(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    // Hands an exact number of escrowed units back to the row, e.g. what a drained ledger held.
+    @Modifying
+    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity, i.version = i.version + 1 " +
+            "WHERE i.id = :id AND i.reservedQuantity >= :quantity")
+    int releaseReservedById(@Param("id") Long id, @Param("quantity") Integer quantity);
 
+    // Resets reserved_quantity to the sum of the row's pending reservations, under the row lock.
+    // Only correct while nothing else reserves against the row; see HotSkuCoordinator#repair.
     @Modifying
-    @Query("UPDATE Inventory i SET i.reservedQuantity = i.reservedQuantity - :quantity " +
-            "WHERE i.productId = :productId AND i.reservedQuantity >= :quantity")
-    int releaseReservedStock(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+    @Query(value = "UPDATE inventory i SET i.reserved_quantity = (SELECT COALESCE(SUM(r.quantity), 0) " +
+            "FROM stock_reservations r WHERE r.inventory_id = i.id AND r.status = 'PENDING'), " +
+            "i.version = i.version + 1 WHERE i.id = :id", nativeQuery = true)
+    int recomputeReservedQuantity(@Param("id") Long id);
 
-    @Query("SELECT (i.quantity - i.reservedQuantity) FROM Inventory i WHERE i.productId = :productId")
-    Integer getAvailableQuantity(@Param("productId") Long productId);
+    // Same measure the reservation strategies allocate from: sellable units in active warehouses.
+    @Query("SELECT new com.bookstore.inventory.repository.ProductAvailability(i.productId, " +
+            "SUM(CASE WHEN i.quantity - i.reservedQuantity - i.reorderLevel > 0 " +
+            "THEN i.quantity - i.reservedQuantity - i.reorderLevel ELSE 0 END)) " +
+            "FROM Inventory i JOIN i.warehouse w WHERE i.productId IN :productIds AND w.isActive = true " +
+            "GROUP BY i.productId")
+    List<ProductAvailability> sumAvailableByProductIds(@Param("productIds") Collection<Long> productIds);
 
 }
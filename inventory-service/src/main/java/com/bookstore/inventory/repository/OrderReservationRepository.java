@@ -0,0 +1,74 @@
+package com.bookstore.inventory.repository;
+
+import com.bookstore.inventory.entity.OrderReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface OrderReservationRepository extends JpaRepository<OrderReservation, Long> {
+
+    /**
+     * Claims the header for an order. Returns 0 when a header (or the idempotency key)
+     * already exists; if another transaction is still inserting it, this waits for that
+     * transaction to finish first.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO order_reservations "
+            + "(order_id, idempotency_key, request_hash, status, response, created_at, updated_at) "
+            + "VALUES (:orderId, :idempotencyKey, :requestHash, :status, :response, :now, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") Long orderId,
+                       @Param("idempotencyKey") String idempotencyKey,
+                       @Param("requestHash") String requestHash,
+                       @Param("status") String status,
+                       @Param("response") String response,
+                       @Param("now") LocalDateTime now);
+
+    // Locking read: sees a header committed after this transaction's snapshot was taken
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT h FROM OrderReservation h WHERE h.orderId = :orderId")
+    Optional<OrderReservation> findByOrderIdForShare(@Param("orderId") Long orderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM OrderReservation h WHERE h.orderId = :orderId")
+    Optional<OrderReservation> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+
+    @Modifying
+    @Query("UPDATE OrderReservation h SET h.response = :response, h.expiresAt = :expiresAt, h.updatedAt = :now "
+            + "WHERE h.orderId = :orderId")
+    int storeResponse(@Param("orderId") Long orderId,
+                      @Param("response") String response,
+                      @Param("expiresAt") LocalDateTime expiresAt,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OrderReservation h SET h.status = :to, h.updatedAt = :now "
+            + "WHERE h.orderId = :orderId AND h.status = :from")
+    int transition(@Param("orderId") Long orderId,
+                   @Param("from") OrderReservation.Status from,
+                   @Param("to") OrderReservation.Status to,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM OrderReservation h WHERE h.orderId = :orderId AND h.status = 'FAILED'")
+    int deleteFailed(@Param("orderId") Long orderId);
+
+    /**
+     * Marks headers EXPIRED once none of their lines is still pending. Run after the expiry
+     * sweep commits, so the sweep never holds reservation rows while waiting on a header.
+     */
+    @Modifying
+    @Query(value = "UPDATE order_reservations h SET h.status = 'EXPIRED', h.updated_at = :now "
+            + "WHERE h.order_id IN (:orderIds) AND h.status = 'RESERVED' "
+            + "AND NOT EXISTS (SELECT 1 FROM stock_reservations r WHERE r.order_id = h.order_id AND r.status = 'PENDING')",
+            nativeQuery = true)
+    int markExpired(@Param("orderIds") Collection<Long> orderIds, @Param("now") LocalDateTime now);
+}
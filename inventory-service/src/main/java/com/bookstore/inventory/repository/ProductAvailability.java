@@ -0,0 +1,7 @@
+package com.bookstore.inventory.repository;
+
+/**
+ * Units of a product a reservation could take right now, summed over active warehouses.
+ */
+public record ProductAvailability(Long productId, Long available) {
+}
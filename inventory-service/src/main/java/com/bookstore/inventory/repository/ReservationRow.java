@@ -0,0 +1,8 @@
+package com.bookstore.inventory.repository;
+
+/**
+ * Projection of a stock_reservations row for set-based updates that do not need the
+ * entity graph.
+ */
+public record ReservationRow(Long id, Long inventoryId, Long productId, Long orderId, int quantity) {
+}
@@ -0,0 +1,131 @@
+package com.bookstore.inventory.repository;
+
+import com.bookstore.common.messaging.inventory.StockLevelMessage;
+import com.bookstore.inventory.entity.StockLevelPublication;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access for the stock change outbox and the per-product publication state.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockChangeOutboxJdbcRepository {
+
+    private static final String APPEND_SQL = "INSERT INTO stock_change_outbox (product_id, created_at) VALUES (?, ?)";
+
+    private static final String LOCK_PENDING_SQL = "SELECT id, product_id FROM stock_change_outbox "
+            + "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // A no-op upsert: creates the row if missing, and on a duplicate key takes the exclusive
+    // lock straight away, where INSERT IGNORE would take a shared one that FOR UPDATE must upgrade.
+    private static final String ENSURE_PUBLICATION_SQL = "INSERT INTO stock_level_publications "
+            + "(product_id, available, version, published_at) VALUES (?, 0, 0, ?) "
+            + "ON DUPLICATE KEY UPDATE product_id = product_id";
+
+    private static final String UPSERT_PUBLICATION_SQL = "INSERT INTO stock_level_publications "
+            + "(product_id, available, version, published_at) VALUES (?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE available = VALUES(available), version = VALUES(version), "
+            + "published_at = VALUES(published_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void append(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(APPEND_SQL, productIds.stream()
+                .map(productId -> new Object[]{productId, now})
+                .toList());
+    }
+
+    /**
+     * Locks up to {@code limit} outbox rows, oldest first, returning outbox id to product
+     * id. Rows held by another relay are skipped.
+     */
+    public Map<Long, Long> lockPending(int limit) {
+        Map<Long, Long> rows = new HashMap<>();
+        jdbcTemplate.query(LOCK_PENDING_SQL, rs -> {
+            rows.put(rs.getLong("id"), rs.getLong("product_id"));
+        }, limit);
+        return rows;
+    }
+
+    /**
+     * Locks the publication rows of these products in product id order, creating a version 0
+     * row for any product never published, so relays holding outbox rows of the same product
+     * take turns and each one issues the next version. Every row is exclusively locked by the
+     * upsert itself, so the locking read that follows never has to upgrade a lock.
+     */
+    public Map<Long, StockLevelPublication> lockLastPublished(Collection<Long> productIds) {
+        Timestamp neverPublished = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+        jdbcTemplate.batchUpdate(ENSURE_PUBLICATION_SQL, productIds.stream()
+                .sorted()
+                .map(productId -> new Object[]{productId, neverPublished})
+                .toList());
+        Map<Long, StockLevelPublication> published = new HashMap<>();
+        jdbcTemplate.query("SELECT product_id, available, version, published_at FROM stock_level_publications "
+                        + "WHERE product_id IN (" + placeholders(productIds.size()) + ") ORDER BY product_id FOR UPDATE",
+                rs -> {
+                    published.put(rs.getLong("product_id"), StockLevelPublication.builder()
+                            .productId(rs.getLong("product_id"))
+                            .available(rs.getInt("available"))
+                            .version(rs.getLong("version"))
+                            .publishedAt(rs.getTimestamp("published_at").toLocalDateTime())
+                            .build());
+                }, productIds.toArray());
+        return published;
+    }
+
+    /**
+     * Sellable units over active warehouses. The version is left unset; the relay issues it
+     * from the product's locked publication row.
+     */
+    public List<StockLevelMessage> findStockLevels(Collection<Long> productIds) {
+        List<Object> args = new ArrayList<>(productIds);
+        return jdbcTemplate.query("SELECT i.product_id, "
+                        + "SUM(CASE WHEN w.is_active THEN GREATEST(0, i.quantity - i.reserved_quantity - i.reorder_level) "
+                        + "ELSE 0 END) AS available "
+                        + "FROM inventory i JOIN warehouses w ON w.id = i.warehouse_id "
+                        + "WHERE i.product_id IN (" + placeholders(productIds.size()) + ") "
+                        + "GROUP BY i.product_id",
+                (rs, rowNum) -> new StockLevelMessage(rs.getLong("product_id"), rs.getInt("available"), null),
+                args.toArray());
+    }
+
+    public void recordPublished(List<StockLevelMessage> messages, LocalDateTime publishedAt) {
+        Timestamp timestamp = Timestamp.valueOf(publishedAt);
+        jdbcTemplate.batchUpdate(UPSERT_PUBLICATION_SQL, messages.stream()
+                .map(message -> new Object[]{message.getProductId(), message.getAvailable(), message.getVersion(),
+                        timestamp})
+                .toList());
+    }
+
+    public int delete(Collection<Long> outboxIds) {
+        if (outboxIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update("DELETE FROM stock_change_outbox WHERE id IN (" + placeholders(outboxIds.size()) + ")",
+                outboxIds.toArray());
+    }
+
+    public long countPending() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM stock_change_outbox", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
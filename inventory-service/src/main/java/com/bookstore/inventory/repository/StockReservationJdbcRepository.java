@@ -0,0 +1,221 @@
+package com.bookstore.inventory.repository;
+
+import com.bookstore.inventory.entity.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC batch writes for stock reservations. StockReservation uses IDENTITY ids, which
+ * Hibernate cannot batch-insert, so an order's rows are written here in one batch.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockReservationJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO stock_reservations "
+            + "(inventory_id, product_id, order_id, quantity, status, expires_at, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LOCK_EXPIRED_ORDERS_SQL = "SELECT h.order_id FROM order_reservations h "
+            + "WHERE h.status = 'RESERVED' AND h.order_id IN (SELECT r.order_id FROM stock_reservations r "
+            + "WHERE r.status = 'PENDING' AND r.expires_at < ?) ORDER BY h.order_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String FIND_EXPIRED_HEADERLESS_ORDERS_SQL = "SELECT DISTINCT r.order_id "
+            + "FROM stock_reservations r WHERE r.status = 'PENDING' AND r.expires_at < ? "
+            + "AND NOT EXISTS (SELECT 1 FROM order_reservations h WHERE h.order_id = r.order_id) "
+            + "ORDER BY r.order_id LIMIT ?";
+
+    private static final String COUNT_EXPIRED_LINES_FOR_ORDER_SQL = "SELECT COUNT(*) FROM stock_reservations "
+            + "WHERE order_id = ? AND (status = 'EXPIRED' OR (status = 'PENDING' AND expires_at <= ?))";
+
+    private static final String LOCK_EXPIRED_FOR_ORDER_SQL = "SELECT id, inventory_id, product_id, order_id, quantity "
+            + "FROM stock_reservations WHERE order_id = ? AND status = 'PENDING' AND expires_at <= ? "
+            + "ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_PENDING_FOR_ORDER_SQL = "SELECT id, inventory_id, product_id, order_id, quantity "
+            + "FROM stock_reservations WHERE order_id = ? AND status = 'PENDING' ORDER BY id FOR UPDATE";
+
+    private static final String CONFIRM_INVENTORY_SQL = "UPDATE inventory "
+            + "SET quantity = quantity - ?, reserved_quantity = GREATEST(0, reserved_quantity - ?), "
+            + "version = version + 1 WHERE id = ?";
+
+    private static final String RELEASE_INVENTORY_SQL = "UPDATE inventory "
+            + "SET reserved_quantity = GREATEST(0, reserved_quantity - ?), version = version + 1 WHERE id = ?";
+
+    private static final RowMapper<ReservationRow> RESERVATION_ROW_MAPPER = (rs, rowNum) -> new ReservationRow(
+            rs.getLong("id"),
+            rs.getLong("inventory_id"),
+            rs.getLong("product_id"),
+            rs.getLong("order_id"),
+            rs.getInt("quantity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the reservations in one batch and sets their generated ids.
+     */
+    public void insertAll(List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (StockReservation reservation : reservations) {
+                    ps.setLong(1, reservation.getInventory().getId());
+                    ps.setLong(2, reservation.getProductId());
+                    ps.setLong(3, reservation.getOrderId());
+                    ps.setInt(4, reservation.getQuantity());
+                    ps.setString(5, reservation.getStatus().name());
+                    ps.setTimestamp(6, Timestamp.valueOf(reservation.getExpiresAt()));
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < reservations.size()) {
+                        reservations.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Locks the headers of up to {@code limit} orders with an expired pending line. Headers
+     * locked by another sweep or by a confirm or release in progress are skipped rather than
+     * waited on, so concurrent sweeps split the backlog by order.
+     */
+    public List<Long> lockExpiredOrders(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(LOCK_EXPIRED_ORDERS_SQL, Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Orders with expired lines but no header, reserved before headers existed; there is no
+     * order-level row to lock, so their lines are locked directly.
+     */
+    public List<Long> findExpiredHeaderlessOrders(LocalDateTime now, int limit) {
+        return jdbcTemplate.queryForList(FIND_EXPIRED_HEADERLESS_ORDERS_SQL, Long.class, Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Locks every expired pending line of the given orders, in order id then row id order.
+     */
+    public List<ReservationRow> lockExpiredForOrders(Collection<Long> orderIds, LocalDateTime now) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(orderIds.size(), "?"));
+        List<Object> args = new ArrayList<>(orderIds);
+        args.add(Timestamp.valueOf(now));
+        return jdbcTemplate.query("SELECT id, inventory_id, product_id, order_id, quantity FROM stock_reservations "
+                + "WHERE order_id IN (" + placeholders + ") AND status = 'PENDING' AND expires_at < ? "
+                + "ORDER BY order_id, id FOR UPDATE", RESERVATION_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * True when any line of the order has expired or is past its expiry; such an order can no
+     * longer be confirmed as a whole.
+     */
+    public boolean hasExpiredLines(Long orderId, LocalDateTime now) {
+        Long count = jdbcTemplate.queryForObject(COUNT_EXPIRED_LINES_FOR_ORDER_SQL, Long.class, orderId,
+                Timestamp.valueOf(now));
+        return count != null && count > 0;
+    }
+
+    public List<ReservationRow> lockExpiredForOrder(Long orderId, LocalDateTime now) {
+        return jdbcTemplate.query(LOCK_EXPIRED_FOR_ORDER_SQL, RESERVATION_ROW_MAPPER, orderId, Timestamp.valueOf(now));
+    }
+
+    public List<ReservationRow> lockPendingForOrder(Long orderId) {
+        return jdbcTemplate.query(LOCK_PENDING_FOR_ORDER_SQL, RESERVATION_ROW_MAPPER, orderId);
+    }
+
+    /**
+     * Moves locked PENDING reservations to CONFIRMED and takes their units out of both
+     * quantity and reserved_quantity, one summed UPDATE per inventory row.
+     */
+    public void confirmRows(List<ReservationRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        updateStatus(rows.stream().map(ReservationRow::id).toList(),
+                StockReservation.ReservationStatus.PENDING, StockReservation.ReservationStatus.CONFIRMED);
+        List<Object[]> batch = rows.stream()
+                .collect(Collectors.groupingBy(ReservationRow::inventoryId, TreeMap::new,
+                        Collectors.summingInt(ReservationRow::quantity)))
+                .entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(CONFIRM_INVENTORY_SQL, batch);
+    }
+
+    /**
+     * Moves locked PENDING reservations to {@code to} and returns their units to the
+     * inventory rows they were taken from.
+     */
+    public void releaseRows(List<ReservationRow> rows, StockReservation.ReservationStatus to) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        updateStatus(rows.stream().map(ReservationRow::id).toList(), StockReservation.ReservationStatus.PENDING, to);
+        releaseReserved(rows.stream().collect(Collectors.groupingBy(ReservationRow::inventoryId,
+                Collectors.summingInt(ReservationRow::quantity))));
+    }
+
+    public int updateStatus(Collection<Long> ids, StockReservation.ReservationStatus from,
+                            StockReservation.ReservationStatus to) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>();
+        args.add(to.name());
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+        args.add(from.name());
+        return jdbcTemplate.update("UPDATE stock_reservations SET status = ?, updated_at = ? WHERE id IN ("
+                + placeholders + ") AND status = ?", args.toArray());
+    }
+
+    /**
+     * Returns reserved units to their inventory rows: one UPDATE per row with the summed
+     * quantity, sent as one batch in inventory id order so concurrent sweeps lock rows in
+     * the same order.
+     */
+    public void releaseReserved(Map<Long, Integer> quantityByInventoryId) {
+        if (quantityByInventoryId.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new TreeMap<>(quantityByInventoryId).entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(RELEASE_INVENTORY_SQL, batch);
+    }
+
+    public long countExpired(LocalDateTime now) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservations WHERE status = 'PENDING' AND expires_at < ?",
+                Long.class, Timestamp.valueOf(now));
+        return count != null ? count : 0;
+    }
+}
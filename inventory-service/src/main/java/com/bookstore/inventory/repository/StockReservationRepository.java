@@ -8,12 +8,11 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
 
-    Optional<StockReservation> findByOrderId(Long orderId);
+    List<StockReservation> findByOrderId(Long orderId);
 
     List<StockReservation> findByOrderIdAndStatus(Long orderId, StockReservation.ReservationStatus status);
 
@@ -29,6 +28,9 @@ public interface StockReservationRepository extends JpaRepository<StockReservati
     @Query("SELECT r FROM StockReservation r WHERE r.orderId = :orderId AND r.status = 'PENDING'")
     List<StockReservation> findPendingByOrderId(@Param("orderId") Long orderId);
 
+    @Query("SELECT MIN(r.expiresAt) FROM StockReservation r WHERE r.orderId = :orderId AND r.status = 'PENDING'")
+    LocalDateTime findNextPendingExpiry(@Param("orderId") Long orderId);
+
     // Đếm số lượng đã reserve cho một product
     @Query("SELECT COALESCE(SUM(r.quantity), 0) FROM StockReservation r " +
             "WHERE r.inventory.productId = :productId AND r.status = 'PENDING'")
@@ -0,0 +1,102 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.allocation.Allocation;
+import com.bookstore.inventory.allocation.AllocationEngine;
+import com.bookstore.inventory.allocation.AllocationPlan;
+import com.bookstore.inventory.allocation.AllocationPolicy;
+import com.bookstore.inventory.allocation.InventoryCandidate;
+import com.bookstore.inventory.dto.StockReservationResponse;
+import com.bookstore.inventory.entity.InventoryMovement;
+import com.bookstore.inventory.entity.StockReservation;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.journal.JournalEntry;
+import com.bookstore.inventory.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves each allocation with an atomic conditional UPDATE instead of SELECT ... FOR UPDATE.
+ * Buyers of the same SKU no longer queue behind a lock held while the application
+ * validates; the database decides per statement. The split across warehouses is planned
+ * from an unlocked snapshot, and a row that turns out short is dropped from the snapshot
+ * and the rest of that line re-planned over the remaining warehouses.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.reservation.strategy", havingValue = "conditional-update")
+@RequiredArgsConstructor
+public class ConditionalUpdateReservationStrategy implements StockReservationStrategy {
+
+    private static final int MAX_PLANNING_ROUNDS = 3;
+
+    private final InventoryRepository inventoryRepository;
+    private final AllocationEngine allocationEngine;
+    private final InventoryJournal inventoryJournal;
+
+    @Override
+    public ReservationOutcome reserve(Long orderId, SortedMap<Long, Integer> requested, AllocationPolicy policy,
+                                      String shippingProvince, LocalDateTime expiresAt) {
+        Map<Long, InventoryCandidate> candidates = inventoryRepository.findCandidates(requested.keySet()).stream()
+                .collect(Collectors.toMap(InventoryCandidate::inventoryId, candidate -> candidate,
+                        (a, b) -> a, LinkedHashMap::new));
+
+        SortedMap<Long, Integer> remaining = new TreeMap<>(requested);
+        List<StockReservation> reservations = new ArrayList<>();
+        Map<Long, Long> warehouseIds = new HashMap<>();
+        AllocationPlan plan = allocationEngine.plan(remaining, List.copyOf(candidates.values()), policy, shippingProvince);
+
+        for (int round = 0; round < MAX_PLANNING_ROUNDS && plan.isComplete() && !remaining.isEmpty(); round++) {
+            // Product id, then row id order keeps the row locks taken by the UPDATEs deadlock-free across orders.
+            List<Allocation> allocations = plan.allocations().stream()
+                    .sorted(Comparator.comparing(Allocation::productId).thenComparing(Allocation::inventoryId))
+                    .toList();
+            for (Allocation allocation : allocations) {
+                InventoryCandidate candidate = candidates.get(allocation.inventoryId());
+                if (inventoryRepository.reserveIfAvailable(allocation.inventoryId(), allocation.quantity()) == 1) {
+                    reservations.add(ReservationSupport.pending(
+                            inventoryRepository.getReferenceById(allocation.inventoryId()),
+                            allocation.productId(), orderId, allocation.quantity(), expiresAt));
+                    warehouseIds.put(allocation.inventoryId(), allocation.warehouseId());
+                    inventoryJournal.record(allocation.inventoryId(), InventoryMovement.MovementType.RESERVED,
+                            allocation.quantity(), JournalEntry.REFERENCE_ORDER, orderId, "Stock reserved");
+                    candidates.put(candidate.inventoryId(), candidate.withSellable(candidate.sellable() - allocation.quantity()));
+                    remaining.computeIfPresent(allocation.productId(),
+                            (productId, quantity) -> quantity == allocation.quantity() ? null : quantity - allocation.quantity());
+                } else {
+                    candidates.put(candidate.inventoryId(), candidate.withSellable(0));
+                }
+            }
+            if (!remaining.isEmpty()) {
+                plan = allocationEngine.plan(remaining, List.copyOf(candidates.values()), policy, shippingProvince);
+            }
+        }
+
+        if (!remaining.isEmpty()) {
+            // Undo the rows already reserved by rolling the transaction back.
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            if (!plan.isComplete()) {
+                // Report the quantity the buyer asked for, not what was left after partial reservations.
+                plan.failedItems().forEach(item -> item.setRequestedQuantity(requested.get(item.getProductId())));
+                return new ReservationOutcome(List.of(), plan.failedItems(), plan.outOfStock());
+            }
+            // Still short after the last round: every row tried for these lines came up empty.
+            List<StockReservationResponse.FailedItem> failedItems = remaining.keySet().stream()
+                    .map(productId -> ReservationSupport.insufficient(productId, requested.get(productId), 0))
+                    .toList();
+            return new ReservationOutcome(List.of(), failedItems, true);
+        }
+        return new ReservationOutcome(reservations, List.of(), false, warehouseIds);
+    }
+}
@@ -0,0 +1,92 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.allocation.Allocation;
+import com.bookstore.inventory.allocation.AllocationEngine;
+import com.bookstore.inventory.allocation.AllocationPlan;
+import com.bookstore.inventory.allocation.AllocationPolicy;
+import com.bookstore.inventory.allocation.InventoryCandidate;
+import com.bookstore.inventory.entity.Inventory;
+import com.bookstore.inventory.entity.InventoryMovement;
+import com.bookstore.inventory.entity.StockReservation;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.journal.JournalEntry;
+import com.bookstore.inventory.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the order against an unlocked snapshot first, so a sold-out order is refused
+ * without taking any lock. Otherwise every row of the order's products is locked with one
+ * SELECT ... FOR UPDATE in (product id, id) order and the split across warehouses is
+ * planned on the locked values. The lock set is taken whole and never grown afterwards:
+ * adding rows to an arbitrary subset already held would break the global lock order and
+ * let overlapping carts deadlock. The reserved_quantity updates are flushed by Hibernate
+ * as one batch.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.reservation.strategy", havingValue = "pessimistic", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PessimisticReservationStrategy implements StockReservationStrategy {
+
+    private final InventoryRepository inventoryRepository;
+    private final AllocationEngine allocationEngine;
+    private final InventoryJournal inventoryJournal;
+
+    @Override
+    public ReservationOutcome reserve(Long orderId, SortedMap<Long, Integer> requested, AllocationPolicy policy,
+                                      String shippingProvince, LocalDateTime expiresAt) {
+        Map<Long, InventoryCandidate> candidates = inventoryRepository.findCandidates(requested.keySet()).stream()
+                .collect(Collectors.toMap(InventoryCandidate::inventoryId, candidate -> candidate,
+                        (a, b) -> a, LinkedHashMap::new));
+        Map<Long, Inventory> locked = new HashMap<>();
+
+        AllocationPlan plan = allocationEngine.plan(requested, List.copyOf(candidates.values()), policy, shippingProvince);
+        if (plan.isComplete()) {
+            refresh(inventoryRepository.findAllByProductIdInWithLock(requested.keySet()), candidates, locked);
+            // Rows deleted since the snapshot are gone from the locked set and must not be planned.
+            candidates.keySet().retainAll(locked.keySet());
+            plan = allocationEngine.plan(requested, List.copyOf(candidates.values()), policy, shippingProvince);
+        }
+
+        if (!plan.isComplete()) {
+            // Nothing has been written yet, so there is nothing to roll back.
+            return new ReservationOutcome(List.of(), plan.failedItems(), plan.outOfStock());
+        }
+
+        // Managed rows: the reserved_quantity updates are flushed as one JDBC batch on commit.
+        List<StockReservation> reservations = new ArrayList<>();
+        for (Allocation allocation : plan.allocations()) {
+            Inventory inventory = locked.get(allocation.inventoryId());
+            inventory.setReservedQuantity(inventory.getReservedQuantity() + allocation.quantity());
+            inventoryJournal.record(inventory.getId(), InventoryMovement.MovementType.RESERVED, allocation.quantity(),
+                    JournalEntry.REFERENCE_ORDER, orderId, "Stock reserved");
+            reservations.add(ReservationSupport.pending(inventory, allocation.productId(), orderId,
+                    allocation.quantity(), expiresAt));
+        }
+        return new ReservationOutcome(reservations, List.of(), false, warehouseIds(plan));
+    }
+
+    private Map<Long, Long> warehouseIds(AllocationPlan plan) {
+        return plan.allocations().stream()
+                .collect(Collectors.toMap(Allocation::inventoryId, Allocation::warehouseId, (a, b) -> a));
+    }
+
+    private void refresh(List<Inventory> lockedRows, Map<Long, InventoryCandidate> candidates,
+                         Map<Long, Inventory> locked) {
+        for (Inventory inventory : lockedRows) {
+            locked.put(inventory.getId(), inventory);
+            candidates.computeIfPresent(inventory.getId(),
+                    (id, candidate) -> candidate.withSellable(inventory.getSellableQuantity()));
+        }
+    }
+}
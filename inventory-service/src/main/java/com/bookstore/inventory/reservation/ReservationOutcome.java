@@ -0,0 +1,33 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.dto.StockReservationResponse;
+import com.bookstore.inventory.entity.StockReservation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of applying an order's lines to inventory. When {@code failedItems} is non-empty
+ * the strategy has already made sure no stock stays held for the order.
+ *
+ * @param reservations reservation rows to persist, one per allocated inventory row
+ * @param failedItems  lines that could not be reserved
+ * @param outOfStock   whether any line failed for lack of stock rather than a missing product
+ * @param warehouseIds warehouse of each inventory row used, keyed by inventory id
+ */
+public record ReservationOutcome(
+        List<StockReservation> reservations,
+        List<StockReservationResponse.FailedItem> failedItems,
+        boolean outOfStock,
+        Map<Long, Long> warehouseIds) {
+
+    public ReservationOutcome(List<StockReservation> reservations,
+                              List<StockReservationResponse.FailedItem> failedItems,
+                              boolean outOfStock) {
+        this(reservations, failedItems, outOfStock, Map.of());
+    }
+
+    public boolean isSuccess() {
+        return failedItems.isEmpty();
+    }
+}
@@ -0,0 +1,43 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.dto.StockReservationResponse;
+import com.bookstore.inventory.entity.Inventory;
+import com.bookstore.inventory.entity.StockReservation;
+
+import java.time.LocalDateTime;
+
+final class ReservationSupport {
+
+    private ReservationSupport() {
+    }
+
+    static StockReservationResponse.FailedItem notFound(Long productId, int quantity) {
+        return StockReservationResponse.FailedItem.builder()
+                .productId(productId)
+                .requestedQuantity(quantity)
+                .availableQuantity(0)
+                .reason("Product not found in inventory")
+                .build();
+    }
+
+    static StockReservationResponse.FailedItem insufficient(Long productId, int quantity, int available) {
+        return StockReservationResponse.FailedItem.builder()
+                .productId(productId)
+                .requestedQuantity(quantity)
+                .availableQuantity(Math.max(0, available))
+                .reason("Insufficient stock")
+                .build();
+    }
+
+    static StockReservation pending(Inventory inventory, Long productId, Long orderId, int quantity,
+                                    LocalDateTime expiresAt) {
+        return StockReservation.builder()
+                .inventory(inventory)
+                .orderId(orderId)
+                .quantity(quantity)
+                .status(StockReservation.ReservationStatus.PENDING)
+                .expiresAt(expiresAt)
+                .productId(productId)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.allocation.AllocationPolicy;
+
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+
+/**
+ * Moves stock from available to reserved for every line of an order, or for none of them.
+ * Selected with {@code inventory.reservation.strategy}; always called inside the
+ * reservation transaction.
+ */
+public interface StockReservationStrategy {
+
+    /**
+     * @param requested        quantity per product id, in ascending product id order
+     * @param policy           how a line is split across warehouses
+     * @param shippingProvince buyer's province, used by distance-aware policies; may be null
+     */
+    ReservationOutcome reserve(Long orderId, SortedMap<Long, Integer> requested, AllocationPolicy policy,
+                               String shippingProvince, LocalDateTime expiresAt);
+}
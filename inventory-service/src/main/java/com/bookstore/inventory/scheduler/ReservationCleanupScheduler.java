@@ -1,51 +1,119 @@
 package com.bookstore.inventory.scheduler;
 
-import com.bookstore.inventory.entity.Inventory;
 import com.bookstore.inventory.entity.StockReservation;
-import com.bookstore.inventory.repository.InventoryRepository;
-import com.bookstore.inventory.repository.StockReservationRepository;
-import lombok.RequiredArgsConstructor;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.repository.OrderReservationRepository;
+import com.bookstore.inventory.repository.ReservationRow;
+import com.bookstore.inventory.repository.StockReservationJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Backstop for reservations whose expiry message was lost; expiry normally fires from the
+ * delay queue (see ReservationExpiryScheduler). Expired reservations are released by whole
+ * orders in bounded chunks, each its own short transaction: lock the headers of up to
+ * chunk-size orders with SKIP LOCKED, lock all of their expired lines, mark them EXPIRED
+ * with one UPDATE, return the stock with one summed UPDATE per inventory row and mark the
+ * headers EXPIRED. Locking the header first, as confirm and release do, means an order is
+ * never left half expired for a confirm to pick up. A sweep stops when the backlog is empty
+ * or its time budget is used up, so a post-outage backlog drains over several runs instead
+ * of in one long transaction.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class ReservationCleanupScheduler {
 
-    private final StockReservationRepository stockReservationRepository;
-    private final InventoryRepository inventoryRepository;
+    private final StockReservationJdbcRepository stockReservationJdbcRepository;
+    private final InventoryJournal inventoryJournal;
+    private final OrderReservationRepository orderReservationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer sweepTimer;
+    private final Counter expiredCounter;
+    private final AtomicLong backlog = new AtomicLong();
 
-    @Scheduled(fixedRate = 60000)
-    @Transactional
-    public void releaseExpiredReservations() {
-        List<StockReservation> expiredReservations = stockReservationRepository
-                .findExpiredReservations(StockReservation.ReservationStatus.PENDING, LocalDateTime.now());
-
-        if (expiredReservations.isEmpty()) {
-            return;
-        }
+    // Orders per chunk
+    @Value("${inventory.reservation.sweep.chunk-size:500}")
+    private int chunkSize;
 
-        for (StockReservation reservation : expiredReservations) {
-            try {
-                Inventory inventory = reservation.getInventory();
+    @Value("${inventory.reservation.sweep.max-duration-ms:5000}")
+    private long maxDurationMs;
 
-                inventory.setReservedQuantity(
-                        Math.max(0, inventory.getReservedQuantity() - reservation.getQuantity()));
-                inventoryRepository.save(inventory);
+    public ReservationCleanupScheduler(StockReservationJdbcRepository stockReservationJdbcRepository,
+                                       InventoryJournal inventoryJournal,
+                                       OrderReservationRepository orderReservationRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.stockReservationJdbcRepository = stockReservationJdbcRepository;
+        this.inventoryJournal = inventoryJournal;
+        this.orderReservationRepository = orderReservationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepTimer = Timer.builder("inventory.reservation.sweep")
+                .description("Duration of one expired reservation sweep")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("inventory.reservation.expired")
+                .description("Reservations released by the expiry sweep")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservation.expired_backlog", backlog, AtomicLong::get)
+                .description("Expired reservations still pending after the last sweep")
+                .register(meterRegistry);
+    }
 
-                reservation.setStatus(StockReservation.ReservationStatus.EXPIRED);
-                stockReservationRepository.save(reservation);
+    @Scheduled(fixedDelayString = "${inventory.reservation.sweep.interval-ms:300000}")
+    public void releaseExpiredReservations() {
+        sweepTimer.record(this::sweep);
+    }
 
-            } catch (Exception e) {
-                log.error("Failed to release expired reservation {}: {}",
-                        reservation.getId(), e.getMessage());
+    private void sweep() {
+        long deadline = System.currentTimeMillis() + maxDurationMs;
+        int released = 0;
+        try {
+            while (System.currentTimeMillis() < deadline) {
+                Chunk chunk = transactionTemplate.execute(status -> expireChunk(LocalDateTime.now()));
+                if (chunk == null) {
+                    break;
+                }
+                released += chunk.reservations();
+                if (chunk.orders() < chunkSize) {
+                    break;
+                }
             }
+        } catch (Exception e) {
+            log.error("Expired reservation sweep failed after {} reservations: {}", released, e.getMessage());
+        }
+        backlog.set(stockReservationJdbcRepository.countExpired(LocalDateTime.now()));
+        if (released > 0) {
+            log.info("Released {} expired reservations, {} still expired", released, backlog.get());
         }
     }
+
+    private Chunk expireChunk(LocalDateTime now) {
+        List<Long> orderIds = stockReservationJdbcRepository.lockExpiredOrders(now, chunkSize);
+        if (orderIds.isEmpty()) {
+            orderIds = stockReservationJdbcRepository.findExpiredHeaderlessOrders(now, chunkSize);
+        }
+        if (orderIds.isEmpty()) {
+            return new Chunk(0, 0);
+        }
+        List<ReservationRow> expired = stockReservationJdbcRepository.lockExpiredForOrders(orderIds, now);
+        stockReservationJdbcRepository.releaseRows(expired, StockReservation.ReservationStatus.EXPIRED);
+        inventoryJournal.recordReleased(expired, "Reservation expired");
+        orderReservationRepository.markExpired(orderIds, now);
+        expiredCounter.increment(expired.size());
+        return new Chunk(orderIds.size(), expired.size());
+    }
+
+    private record Chunk(int orders, int reservations) {
+    }
 }
@@ -0,0 +1,37 @@
+package com.bookstore.inventory.scheduler;
+
+import com.bookstore.common.outbox.OutboxPublisher;
+import com.bookstore.inventory.dto.ReservationExpiryMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Schedules a reservation's expiry as a RabbitMQ message that sits in a fixed-delay tier
+ * queue (see ReservationExpiryTiers) until the queue's TTL runs out and is then
+ * dead-lettered to the expired queue. Expiry fires at or shortly after expiresAt without
+ * any table polling; the cleanup sweep only catches messages that were never delivered.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationExpiryScheduler {
+
+    // Fire slightly after expiresAt so the listener sees the rows as expired.
+    private static final long EXPIRY_MARGIN_MS = 250;
+
+    private final OutboxPublisher outboxPublisher;
+    private final ReservationExpiryTiers tiers;
+
+    /**
+     * Writes the expiry message to the outbox in the current transaction, so a rolled-back
+     * reservation never schedules an expiry and a committed one always does.
+     */
+    public void schedule(Long orderId, LocalDateTime expiresAt) {
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis()) + EXPIRY_MARGIN_MS;
+        // Default exchange: routed straight to the tier queue named by the routing key
+        outboxPublisher.publish("", ReservationExpiryTiers.queue(tiers.tierFor(delayMs)),
+                new ReservationExpiryMessage(orderId, expiresAt));
+    }
+}
@@ -0,0 +1,54 @@
+package com.bookstore.inventory.scheduler;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Fixed delays available for reservation expiry messages, one delay queue per tier with a
+ * queue-level TTL. RabbitMQ only expires messages at the head of a queue, so every message
+ * in a tier queue has the same TTL and none waits behind a longer one. The reservation
+ * lifetime is always a tier; a delay between tiers takes the largest tier that does not
+ * overshoot it, and the listener schedules the rest when it fires early.
+ */
+@Component
+public class ReservationExpiryTiers {
+
+    private final List<Long> tiersMs;
+
+    public ReservationExpiryTiers(@Value("${inventory.reservation.expiry-tiers:1s,10s,1m}") List<Duration> tiers,
+                                  @Value("${inventory.reservation.expiration-minutes:15}") int expirationMinutes) {
+        TreeSet<Long> sorted = new TreeSet<>();
+        tiers.forEach(tier -> sorted.add(tier.toMillis()));
+        sorted.add(Duration.ofMinutes(expirationMinutes).toMillis());
+        sorted.removeIf(tier -> tier <= 0);
+        this.tiersMs = List.copyOf(sorted);
+    }
+
+    public List<Long> tiersMs() {
+        return tiersMs;
+    }
+
+    /**
+     * The largest tier not longer than {@code delayMs}, or the shortest tier for a delay
+     * below all of them.
+     */
+    public long tierFor(long delayMs) {
+        long chosen = tiersMs.get(0);
+        for (long tier : tiersMs) {
+            if (tier > delayMs) {
+                break;
+            }
+            chosen = tier;
+        }
+        return chosen;
+    }
+
+    public static String queue(long tierMs) {
+        return RabbitMQConstants.INVENTORY_RESERVATION_DELAY_QUEUE + "." + tierMs + "ms";
+    }
+}
@@ -1,17 +1,27 @@
 package com.bookstore.inventory.service;
 
+import com.bookstore.inventory.dto.JournalReplayReport;
+import com.bookstore.inventory.dto.StockAvailability;
 import com.bookstore.inventory.dto.StockReservationRequest;
 import com.bookstore.inventory.dto.StockReservationResponse;
 
+import java.util.List;
+
 public interface IInventoryService {
 
-    StockReservationResponse reserveStock(StockReservationRequest request);
+    StockReservationResponse reserveStock(StockReservationRequest request, String idempotencyKey);
 
     boolean confirmReservation(Long orderId);
 
     boolean releaseReservation(Long orderId);
 
+    int expireReservations(Long orderId);
+
     Integer getAvailableStock(Long productId);
 
+    List<StockAvailability> getAvailability(List<Long> productIds);
+
     boolean isStockAvailable(Long productId, Integer quantity);
+
+    JournalReplayReport verifyJournal(Long inventoryId);
 }
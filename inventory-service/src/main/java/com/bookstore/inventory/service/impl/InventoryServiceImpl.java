@@ -1,24 +1,60 @@
 package com.bookstore.inventory.service.impl;
 
 import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.exception.BusinessException;
 import com.bookstore.common.messaging.order.CancelOrderMessage;
+import com.bookstore.common.outbox.OutboxPublisher;
+import com.bookstore.inventory.allocation.AllocationPolicy;
+import com.bookstore.inventory.allocation.AllocationProperties;
+import com.bookstore.inventory.availability.AvailabilityCache;
+import com.bookstore.inventory.availability.AvailabilityProperties;
+import com.bookstore.inventory.dto.JournalReplayReport;
+import com.bookstore.inventory.dto.StockAvailability;
 import com.bookstore.inventory.dto.StockReservationRequest;
 import com.bookstore.inventory.dto.StockReservationResponse;
-import com.bookstore.inventory.entity.Inventory;
+import com.bookstore.inventory.entity.InventoryMovement;
+import com.bookstore.inventory.entity.OrderReservation;
 import com.bookstore.inventory.entity.StockReservation;
+import com.bookstore.inventory.hotsku.HotSkuCoordinator;
+import com.bookstore.inventory.hotsku.HotSkuLedger;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.journal.JournalEntry;
+import com.bookstore.inventory.journal.JournalReplay;
 import com.bookstore.inventory.repository.InventoryRepository;
+import com.bookstore.inventory.repository.OrderReservationRepository;
+import com.bookstore.inventory.repository.ReservationRow;
+import com.bookstore.inventory.repository.StockReservationJdbcRepository;
 import com.bookstore.inventory.repository.StockReservationRepository;
+import com.bookstore.inventory.reservation.ReservationOutcome;
+import com.bookstore.inventory.reservation.StockReservationStrategy;
+import com.bookstore.inventory.scheduler.ReservationExpiryScheduler;
 import com.bookstore.inventory.service.IInventoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,83 +63,102 @@ public class InventoryServiceImpl implements IInventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final StockReservationRepository stockReservationRepository;
-    private final RabbitTemplate rabbitTemplate;
+    private final StockReservationJdbcRepository stockReservationJdbcRepository;
+    private final StockReservationStrategy reservationStrategy;
+    private final AllocationProperties allocationProperties;
+    private final Optional<HotSkuLedger> hotSkuLedger;
+    private final Optional<HotSkuCoordinator> hotSkuCoordinator;
+    private final OutboxPublisher outboxPublisher;
+    private final ReservationExpiryScheduler reservationExpiryScheduler;
+    private final InventoryJournal inventoryJournal;
+    private final JournalReplay journalReplay;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityProperties availabilityProperties;
+    private final OrderReservationRepository orderReservationRepository;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
 
     @Value("${inventory.reservation.expiration-minutes:15}")
     private int reservationExpirationMinutes;
 
     @Override
     @Transactional
-    public StockReservationResponse reserveStock(StockReservationRequest request) {
-        List<StockReservationResponse.ReservedItem> reservedItems = new ArrayList<>();
-        List<StockReservationResponse.FailedItem> failedItems = new ArrayList<>();
+    public StockReservationResponse reserveStock(StockReservationRequest request, String idempotencyKey) {
         LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(reservationExpirationMinutes);
+        SortedMap<Long, Integer> requested = mergeItems(request.getItems());
+        if (requested.isEmpty()) {
+            return StockReservationResponse.builder()
+                    .success(false)
+                    .message("No items to reserve")
+                    .orderId(request.getOrderId())
+                    .reservedItems(new ArrayList<>())
+                    .failedItems(new ArrayList<>())
+                    .build();
+        }
 
-        for (StockReservationRequest.ReservationItem item : request.getItems()) {
-            Inventory inventory = inventoryRepository.findByProductIdWithLock(item.getProductId())
-                    .orElse(null);
-
-            if (inventory == null) {
-                failedItems.add(StockReservationResponse.FailedItem.builder()
-                        .productId(item.getProductId())
-                        .requestedQuantity(item.getQuantity())
-                        .availableQuantity(0)
-                        .reason("Product not found in inventory")
-                        .build());
-                continue;
+        // A retried request is answered from the header alone: one primary key read, no row locks.
+        String requestHash = DigestUtils.md5DigestAsHex(requested.toString().getBytes(StandardCharsets.UTF_8));
+        Optional<OrderReservation> existing = orderReservationRepository.findById(request.getOrderId());
+        if (existing.isPresent()) {
+            if (!isRetryableFailure(existing.get(), idempotencyKey)) {
+                return replay(existing.get(), request.getOrderId(), idempotencyKey, requestHash);
             }
+            orderReservationRepository.deleteFailed(request.getOrderId());
+        }
+        if (orderReservationRepository.insertIfAbsent(request.getOrderId(), idempotencyKey, requestHash,
+                OrderReservation.Status.RESERVED.name(), null, LocalDateTime.now()) == 0) {
+            // Lost the race to a concurrent duplicate; it has committed by now.
+            return orderReservationRepository.findByOrderIdForShare(request.getOrderId())
+                    .map(header -> replay(header, request.getOrderId(), idempotencyKey, requestHash))
+                    .orElseGet(() -> rejected(request.getOrderId(),
+                            "Idempotency key is already used by another order"));
+        }
 
-            int available = inventory.getQuantity() - inventory.getReorderLevel() - inventory.getReservedQuantity();
-            if (available <= item.getQuantity()) {
-                CancelOrderMessage cancelOrderMessage = CancelOrderMessage
+        AllocationPolicy policy = AllocationPolicy.from(request.getAllocationPolicy(), allocationProperties.getDefaultPolicy());
+        List<StockReservation> reservations = new ArrayList<>(
+                reserveFromHotSkuLedger(request.getOrderId(), requested, expiresAt));
+        ReservationOutcome outcome = requested.isEmpty()
+                ? new ReservationOutcome(List.of(), List.of(), false)
+                : reservationStrategy.reserve(request.getOrderId(), requested, policy,
+                        request.getShippingProvince(), expiresAt);
+
+        if (!outcome.isSuccess()) {
+            // Rolling back also hands units drawn from the hot SKU ledger back to it.
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            CancelOrderMessage cancelOrderMessage = null;
+            if (outcome.outOfStock()) {
+                cancelOrderMessage = CancelOrderMessage
                         .builder()
                         .orderId(request.getOrderId())
                         .userId(request.getUserId())
                         .reason("PRODUCT OUT OF STOCK")
                         .build();
-                rabbitTemplate.convertAndSend(RabbitMQConstants.INVENTORY_EXCHANGE, RabbitMQConstants.INVENTORY_OUT_OF_STOCK_KEY, cancelOrderMessage);
-            } else {
-                inventory.setReservedQuantity(inventory.getReservedQuantity() + item.getQuantity());
-                inventoryRepository.save(inventory);
-
-                StockReservation reservation = StockReservation.builder()
-                        .inventory(inventory)
-                        .orderId(request.getOrderId())
-                        .quantity(item.getQuantity())
-                        .status(StockReservation.ReservationStatus.PENDING)
-                        .expiresAt(expiresAt)
-                        .productId(item.getProductId())
-                        .build();
-                StockReservation savedReservation = stockReservationRepository.save(reservation);
-
-                reservedItems.add(StockReservationResponse.ReservedItem.builder()
-                        .productId(item.getProductId())
-                        .quantity(item.getQuantity())
-                        .reservationId(savedReservation.getId())
-                        .build());
-            }
-        }
-
-        if (!failedItems.isEmpty()) {
-            for (StockReservationResponse.ReservedItem reserved : reservedItems) {
-                inventoryRepository.releaseReservedStock(reserved.getProductId(), reserved.getQuantity());
             }
-            stockReservationRepository.findPendingByOrderId(request.getOrderId())
-                    .forEach(r -> {
-                        r.setStatus(StockReservation.ReservationStatus.CANCELLED);
-                        stockReservationRepository.save(r);
-                    });
-
-            return StockReservationResponse.builder()
+            StockReservationResponse failed = StockReservationResponse.builder()
                     .success(false)
                     .message("Failed to reserve stock for some items")
                     .orderId(request.getOrderId())
                     .reservedItems(new ArrayList<>())
-                    .failedItems(failedItems)
+                    .failedItems(outcome.failedItems())
                     .build();
+            storeFailureAfterRollback(request.getOrderId(), idempotencyKey, requestHash, failed, cancelOrderMessage);
+            return failed;
         }
 
-        return StockReservationResponse.builder()
+        reservations.addAll(outcome.reservations());
+        stockReservationJdbcRepository.insertAll(reservations);
+        reservationExpiryScheduler.schedule(request.getOrderId(), expiresAt);
+
+        List<StockReservationResponse.ReservedItem> reservedItems = reservations.stream()
+                .map(reservation -> StockReservationResponse.ReservedItem.builder()
+                        .productId(reservation.getProductId())
+                        .quantity(reservation.getQuantity())
+                        .reservationId(reservation.getId())
+                        .warehouseId(outcome.warehouseIds().get(reservation.getInventory().getId()))
+                        .build())
+                .collect(Collectors.toList());
+
+        StockReservationResponse response = StockReservationResponse.builder()
                 .success(true)
                 .message("Stock reserved successfully")
                 .orderId(request.getOrderId())
@@ -111,67 +166,284 @@ public class InventoryServiceImpl implements IInventoryService {
                 .failedItems(new ArrayList<>())
                 .expiresAt(expiresAt)
                 .build();
+        orderReservationRepository.storeResponse(request.getOrderId(), toJson(response), expiresAt, LocalDateTime.now());
+        return response;
+    }
+
+    /**
+     * A stored failure is replayed for the request that produced it; a new attempt (new
+     * idempotency key) after the order was rejected for stock may try again.
+     */
+    private boolean isRetryableFailure(OrderReservation header, String idempotencyKey) {
+        return header.getStatus() == OrderReservation.Status.FAILED
+                && idempotencyKey != null
+                && !idempotencyKey.equals(header.getIdempotencyKey());
+    }
+
+    private StockReservationResponse replay(OrderReservation header, Long orderId, String idempotencyKey,
+                                            String requestHash) {
+        if (idempotencyKey != null && header.getIdempotencyKey() != null
+                && !idempotencyKey.equals(header.getIdempotencyKey())) {
+            return rejected(orderId, "Order already has a reservation made with another idempotency key");
+        }
+        if (!requestHash.equals(header.getRequestHash())) {
+            return rejected(orderId, "Order already has a reservation for different items");
+        }
+        log.info("Replaying stored {} reservation for order {}", header.getStatus(), orderId);
+        return fromJson(header.getResponse());
+    }
+
+    private StockReservationResponse rejected(Long orderId, String message) {
+        return StockReservationResponse.builder()
+                .success(false)
+                .message(message)
+                .orderId(orderId)
+                .reservedItems(new ArrayList<>())
+                .failedItems(new ArrayList<>())
+                .build();
+    }
+
+    /**
+     * The rollback discards the header claimed above, so the failure is stored once the
+     * transaction is over, together with the out-of-stock cancellation in the outbox; a
+     * retry then gets the same answer without a second cancellation.
+     */
+    private void storeFailureAfterRollback(Long orderId, String idempotencyKey, String requestHash,
+                                           StockReservationResponse failed, CancelOrderMessage cancelOrderMessage) {
+        String json = toJson(failed);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                try {
+                    TransactionTemplate template = new TransactionTemplate(transactionManager);
+                    template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+                    template.executeWithoutResult(tx -> {
+                        int stored = orderReservationRepository.insertIfAbsent(orderId, idempotencyKey, requestHash,
+                                OrderReservation.Status.FAILED.name(), json, LocalDateTime.now());
+                        if (stored == 1 && cancelOrderMessage != null) {
+                            outboxPublisher.publish(RabbitMQConstants.INVENTORY_EXCHANGE,
+                                    RabbitMQConstants.INVENTORY_OUT_OF_STOCK_KEY, cancelOrderMessage);
+                        }
+                    });
+                } catch (Exception e) {
+                    log.warn("Could not store failed reservation for order {}: {}", orderId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private String toJson(StockReservationResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize reservation response", e);
+        }
+    }
+
+    private StockReservationResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, StockReservationResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored reservation response", e);
+        }
+    }
+
+    /**
+     * Serves lines for products in hot SKU mode from the Redis ledger and removes them from
+     * {@code requested}. The ledger units are already counted in reserved_quantity, so only
+     * the reservation rows are written; if the transaction does not commit they go back.
+     */
+    private List<StockReservation> reserveFromHotSkuLedger(Long orderId, SortedMap<Long, Integer> requested,
+                                                           LocalDateTime expiresAt) {
+        if (hotSkuLedger.isEmpty()) {
+            return List.of();
+        }
+        HotSkuLedger ledger = hotSkuLedger.get();
+        List<StockReservation> drawn = new ArrayList<>();
+        Iterator<Map.Entry<Long, Integer>> lines = requested.entrySet().iterator();
+        while (lines.hasNext()) {
+            Map.Entry<Long, Integer> line = lines.next();
+            Long productId = line.getKey();
+            int quantity = line.getValue();
+            ledger.recordAttempt(productId);
+            Optional<Long> inventoryId = ledger.activeInventoryId(productId);
+            if (inventoryId.isEmpty() || !ledger.tryTake(productId, quantity)) {
+                continue;
+            }
+            drawn.add(StockReservation.builder()
+                    .inventory(inventoryRepository.getReferenceById(inventoryId.get()))
+                    .orderId(orderId)
+                    .quantity(quantity)
+                    .status(StockReservation.ReservationStatus.PENDING)
+                    .expiresAt(expiresAt)
+                    .productId(productId)
+                    .build());
+            lines.remove();
+        }
+        if (!drawn.isEmpty()) {
+            // Draws leave the inventory rows alone, so nothing else would announce the new level.
+            inventoryJournal.recordLevelChanged(drawn.stream().map(StockReservation::getProductId).toList());
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        drawn.forEach(reservation -> giveBack(ledger, reservation));
+                    }
+                }
+            });
+        }
+        return drawn;
+    }
+
+    // Units of a product that left the ledger meanwhile are released from the database escrow
+    private void giveBack(HotSkuLedger ledger, StockReservation reservation) {
+        if (!ledger.giveBack(reservation.getProductId(), reservation.getQuantity())) {
+            hotSkuCoordinator.ifPresent(coordinator -> coordinator.releaseEscrow(
+                    reservation.getInventory().getId(), reservation.getQuantity(), "Hot SKU give-back after drain"));
+        }
+    }
+
+    private SortedMap<Long, Integer> mergeItems(List<StockReservationRequest.ReservationItem> items) {
+        SortedMap<Long, Integer> merged = new TreeMap<>();
+        if (items == null) {
+            return merged;
+        }
+        for (StockReservationRequest.ReservationItem item : items) {
+            merged.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return merged;
     }
 
     @Override
     @Transactional
     public boolean confirmReservation(Long orderId) {
-        List<StockReservation> reservations = stockReservationRepository.findPendingByOrderId(orderId);
+        Optional<OrderReservation.Status> settled = settle(orderId, OrderReservation.Status.CONFIRMED);
+        if (settled.isPresent()) {
+            return settled.get() == OrderReservation.Status.CONFIRMED;
+        }
 
-        if (reservations.isEmpty()) {
+        List<ReservationRow> rows = stockReservationJdbcRepository.lockPendingForOrder(orderId);
+        if (rows.isEmpty()) {
             log.warn("No pending reservations found for order {}", orderId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
-
-        for (StockReservation reservation : reservations) {
-            Inventory inventory = reservation.getInventory();
-
-            inventory.setQuantity(inventory.getQuantity() - reservation.getQuantity());
-            inventory.setReservedQuantity(inventory.getReservedQuantity() - reservation.getQuantity());
-            inventoryRepository.save(inventory);
-
-            reservation.setStatus(StockReservation.ReservationStatus.CONFIRMED);
-            stockReservationRepository.save(reservation);
-
+        // All or nothing: an order with a line that expired, or is past expiry but not yet
+        // swept, is refused; its remaining lines expire with it.
+        if (stockReservationJdbcRepository.hasExpiredLines(orderId, LocalDateTime.now())) {
+            log.warn("Reservation for order {} has expired lines, refusing to confirm", orderId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return false;
         }
 
+        stockReservationJdbcRepository.confirmRows(rows);
+        for (ReservationRow row : rows) {
+            inventoryJournal.record(row.inventoryId(), InventoryMovement.MovementType.STOCK_OUT, -row.quantity(),
+                    JournalEntry.REFERENCE_ORDER, orderId, "Reservation confirmed");
+        }
         return true;
     }
 
     @Override
     @Transactional
     public boolean releaseReservation(Long orderId) {
-        List<StockReservation> reservations = stockReservationRepository.findPendingByOrderId(orderId);
+        Optional<OrderReservation.Status> settled = settle(orderId, OrderReservation.Status.RELEASED);
+        if (settled.isPresent()) {
+            return settled.get() == OrderReservation.Status.RELEASED
+                    || settled.get() == OrderReservation.Status.EXPIRED;
+        }
 
-        if (reservations.isEmpty()) {
+        List<ReservationRow> rows = stockReservationJdbcRepository.lockPendingForOrder(orderId);
+        if (rows.isEmpty()) {
             log.warn("No pending reservations found for order {}", orderId);
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
 
-        for (StockReservation reservation : reservations) {
-            Inventory inventory = reservation.getInventory();
+        stockReservationJdbcRepository.releaseRows(rows, StockReservation.ReservationStatus.RELEASED);
+        inventoryJournal.recordReleased(rows, "Reservation released");
+        return true;
+    }
 
-            inventory.setReservedQuantity(inventory.getReservedQuantity() - reservation.getQuantity());
-            inventoryRepository.save(inventory);
+    /**
+     * Moves the order's header from RESERVED to {@code to}. Empty means this call owns the
+     * transition (or the order predates headers) and must settle the lines; otherwise the
+     * header had already left RESERVED and its status is returned, so a repeated confirm or
+     * release answers without touching reservation or inventory rows. The conditional UPDATE
+     * holds the header lock, which serializes a confirm racing a release for the same order.
+     */
+    private Optional<OrderReservation.Status> settle(Long orderId, OrderReservation.Status to) {
+        Optional<OrderReservation> header = orderReservationRepository.findById(orderId);
+        if (header.isEmpty()) {
+            return Optional.empty();
+        }
+        if (header.get().getStatus() != OrderReservation.Status.RESERVED) {
+            return Optional.of(header.get().getStatus());
+        }
+        if (orderReservationRepository.transition(orderId, OrderReservation.Status.RESERVED, to,
+                LocalDateTime.now()) == 1) {
+            return Optional.empty();
+        }
+        return orderReservationRepository.findByOrderIdForShare(orderId).map(OrderReservation::getStatus);
+    }
 
-            reservation.setStatus(StockReservation.ReservationStatus.RELEASED);
-            stockReservationRepository.save(reservation);
+    @Override
+    @Transactional
+    public int expireReservations(Long orderId) {
+        // Header first, in the same order confirm and release take their locks.
+        Optional<OrderReservation> header = orderReservationRepository.findByOrderIdForUpdate(orderId);
+        List<ReservationRow> expired = stockReservationJdbcRepository.lockExpiredForOrder(orderId, LocalDateTime.now());
+        stockReservationJdbcRepository.releaseRows(expired, StockReservation.ReservationStatus.EXPIRED);
+        inventoryJournal.recordReleased(expired, "Reservation expired");
 
+        // Lines that are not due yet get another expiry message: a delay tier shorter than the
+        // remaining time fires early by design, and clocks may be skewed.
+        LocalDateTime nextExpiry = stockReservationRepository.findNextPendingExpiry(orderId);
+        if (nextExpiry != null) {
+            reservationExpiryScheduler.schedule(orderId, nextExpiry);
+        } else if (header.isPresent() && !expired.isEmpty()) {
+            orderReservationRepository.transition(orderId, OrderReservation.Status.RESERVED,
+                    OrderReservation.Status.EXPIRED, LocalDateTime.now());
         }
-
-        return true;
+        return expired.size();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getAvailableStock(Long productId) {
-        return inventoryRepository.getAvailableQuantity(productId);
+        return availabilityCache.get(productId);
+    }
+
+    @Override
+    public List<StockAvailability> getAvailability(List<Long> productIds) {
+        List<Long> distinctIds = productIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.size() > availabilityProperties.getMaxProductsPerRequest()) {
+            throw new BusinessException("At most " + availabilityProperties.getMaxProductsPerRequest()
+                    + " products can be checked per request");
+        }
+        Map<Long, Integer> available = availabilityCache.getAll(distinctIds);
+        return distinctIds.stream()
+                .map(productId -> {
+                    int quantity = available.getOrDefault(productId, 0);
+                    return StockAvailability.builder()
+                            .productId(productId)
+                            .availableQuantity(quantity)
+                            .inStock(quantity > 0)
+                            .build();
+                })
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
+    public JournalReplayReport verifyJournal(Long inventoryId) {
+        return journalReplay.replay(inventoryId);
+    }
+
+    @Override
     public boolean isStockAvailable(Long productId, Integer quantity) {
-        Integer available = inventoryRepository.getAvailableQuantity(productId);
-        return available != null && available >= quantity;
+        return availabilityCache.get(productId) >= quantity;
     }
 }
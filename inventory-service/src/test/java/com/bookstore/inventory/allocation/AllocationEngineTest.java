@@ -0,0 +1,167 @@
+package com.bookstore.inventory.allocation;
+
+import com.bookstore.inventory.dto.StockReservationResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllocationEngineTest {
+
+    private static final long HA_NOI = 1L;
+    private static final long HAI_PHONG = 2L;
+    private static final long HO_CHI_MINH = 3L;
+
+    private final AllocationEngine engine = new AllocationEngine(new ProvinceDistance(regions()));
+
+    @Test
+    void nearestTakesTheBuyersProvinceThenRegionFirst() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 50),
+                candidate(12, 1, HAI_PHONG, "Hải Phòng", 10),
+                candidate(13, 1, HO_CHI_MINH, "Hồ Chí Minh", 80));
+
+        AllocationPlan plan = engine.plan(lines(1L, 15), candidates, AllocationPolicy.NEAREST, "Thành phố Hải Phòng");
+
+        assertTrue(plan.isComplete());
+        assertEquals(List.of(
+                new Allocation(12L, 1L, HAI_PHONG, 10),
+                new Allocation(11L, 1L, HA_NOI, 5)), plan.allocations());
+    }
+
+    @Test
+    void nearestWithoutAProvinceFallsBackToMostStock() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 5),
+                candidate(13, 1, HO_CHI_MINH, "Hồ Chí Minh", 20));
+
+        AllocationPlan plan = engine.plan(lines(1L, 8), candidates, AllocationPolicy.NEAREST, null);
+
+        assertEquals(List.of(new Allocation(13L, 1L, HO_CHI_MINH, 8)), plan.allocations());
+    }
+
+    @Test
+    void mostStockDrainsTheFullestRowsFirstAndBreaksTiesByInventoryId() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 3),
+                candidate(12, 1, HAI_PHONG, "Hải Phòng", 10),
+                candidate(14, 2, HO_CHI_MINH, "Hồ Chí Minh", 6),
+                candidate(13, 2, HA_NOI, "Hà Nội", 6));
+
+        AllocationPlan plan = engine.plan(lines(1L, 12, 2L, 7), candidates, AllocationPolicy.MOST_STOCK, "Hà Nội");
+
+        assertEquals(List.of(
+                new Allocation(12L, 1L, HAI_PHONG, 10),
+                new Allocation(11L, 1L, HA_NOI, 2),
+                new Allocation(13L, 2L, HA_NOI, 6),
+                new Allocation(14L, 2L, HO_CHI_MINH, 1)), plan.allocations());
+    }
+
+    @Test
+    void fewestShipmentsShipsFromOneWarehouseWhenOneCoversTheOrder() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 100),
+                candidate(12, 2, HAI_PHONG, "Hải Phòng", 100),
+                candidate(21, 1, HO_CHI_MINH, "Hồ Chí Minh", 2),
+                candidate(22, 2, HO_CHI_MINH, "Hồ Chí Minh", 2),
+                candidate(23, 3, HO_CHI_MINH, "Hồ Chí Minh", 1));
+        SortedMap<Long, Integer> order = lines(1L, 2, 2L, 2, 3L, 1);
+
+        AllocationPlan plan = engine.plan(order, candidates, AllocationPolicy.FEWEST_SHIPMENTS, "Hà Nội");
+
+        assertEquals(List.of(
+                new Allocation(21L, 1L, HO_CHI_MINH, 2),
+                new Allocation(22L, 2L, HO_CHI_MINH, 2),
+                new Allocation(23L, 3L, HO_CHI_MINH, 1)), plan.allocations());
+        assertEquals(3, warehouses(engine.plan(order, candidates, AllocationPolicy.MOST_STOCK, "Hà Nội")));
+    }
+
+    @Test
+    void fewestShipmentsPrefersTheCloserWarehouseOnEqualCoverage() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 5),
+                candidate(13, 1, HO_CHI_MINH, "Hồ Chí Minh", 5));
+
+        AllocationPlan south = engine.plan(lines(1L, 4), candidates, AllocationPolicy.FEWEST_SHIPMENTS, "TP. Hồ Chí Minh");
+        AllocationPlan north = engine.plan(lines(1L, 4), candidates, AllocationPolicy.FEWEST_SHIPMENTS, "Hải Phòng");
+
+        assertEquals(List.of(new Allocation(13L, 1L, HO_CHI_MINH, 4)), south.allocations());
+        assertEquals(List.of(new Allocation(11L, 1L, HA_NOI, 4)), north.allocations());
+    }
+
+    @Test
+    void fewestShipmentsSplitsWhenNoWarehouseHasEnough() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 4),
+                candidate(12, 1, HAI_PHONG, "Hải Phòng", 0),
+                candidate(13, 1, HO_CHI_MINH, "Hồ Chí Minh", 3));
+
+        AllocationPlan plan = engine.plan(lines(1L, 6), candidates, AllocationPolicy.FEWEST_SHIPMENTS, null);
+
+        assertEquals(List.of(
+                new Allocation(11L, 1L, HA_NOI, 4),
+                new Allocation(13L, 1L, HO_CHI_MINH, 2)), plan.allocations());
+    }
+
+    @Test
+    void insufficientStockFailsTheWholeOrder() {
+        List<InventoryCandidate> candidates = List.of(
+                candidate(11, 1, HA_NOI, "Hà Nội", 4),
+                candidate(12, 1, HAI_PHONG, "Hải Phòng", -2),
+                candidate(13, 2, HA_NOI, "Hà Nội", 10));
+
+        for (AllocationPolicy policy : AllocationPolicy.values()) {
+            AllocationPlan plan = engine.plan(lines(1L, 5, 2L, 1), candidates, policy, "Hà Nội");
+
+            assertFalse(plan.isComplete());
+            assertTrue(plan.outOfStock());
+            assertTrue(plan.allocations().isEmpty());
+            StockReservationResponse.FailedItem failed = plan.failedItems().get(0);
+            assertEquals(1, plan.failedItems().size());
+            assertEquals(1L, failed.getProductId());
+            assertEquals(5, failed.getRequestedQuantity());
+            assertEquals(4, failed.getAvailableQuantity());
+        }
+    }
+
+    @Test
+    void unknownProductIsNotReportedAsOutOfStock() {
+        AllocationPlan plan = engine.plan(lines(9L, 1), List.of(candidate(11, 1, HA_NOI, "Hà Nội", 4)),
+                AllocationPolicy.NEAREST, "Hà Nội");
+
+        assertFalse(plan.isComplete());
+        assertFalse(plan.outOfStock());
+        assertEquals(9L, plan.failedItems().get(0).getProductId());
+    }
+
+    private static long warehouses(AllocationPlan plan) {
+        return plan.allocations().stream().map(Allocation::warehouseId).distinct().count();
+    }
+
+    private static AllocationProperties regions() {
+        AllocationProperties properties = new AllocationProperties();
+        properties.setRegions(Map.of(
+                "north", List.of("Hà Nội", "Hải Phòng"),
+                "south", List.of("Hồ Chí Minh", "Bình Dương")));
+        return properties;
+    }
+
+    private static InventoryCandidate candidate(long inventoryId, long productId, long warehouseId, String province,
+                                                int sellable) {
+        return new InventoryCandidate(inventoryId, productId, warehouseId, province, null, sellable);
+    }
+
+    private static SortedMap<Long, Integer> lines(Object... productIdAndQuantity) {
+        SortedMap<Long, Integer> lines = new TreeMap<>();
+        for (int i = 0; i < productIdAndQuantity.length; i += 2) {
+            lines.put((Long) productIdAndQuantity[i], (Integer) productIdAndQuantity[i + 1]);
+        }
+        return lines;
+    }
+}
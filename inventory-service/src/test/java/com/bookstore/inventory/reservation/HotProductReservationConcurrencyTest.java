@@ -0,0 +1,50 @@
+package com.bookstore.inventory.reservation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 500 buyers racing for one product stocked in three warehouses, with fewer units than
+ * buyers, under each reservation strategy. Logs how long each strategy took to serve them.
+ */
+@Slf4j
+class HotProductReservationConcurrencyTest extends ReservationConcurrencyTestBase {
+
+    private static final long PRODUCT_ID = 1L;
+    private static final int BUYERS = 500;
+    private static final int UNITS_PER_WAREHOUSE = 100;
+    private static final int THREADS = 32;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"pessimistic", "conditional-update"})
+    void hotProductIsNeverOversold(String strategyName) throws InterruptedException {
+        createInventory(PRODUCT_ID, createWarehouse("Hà Nội"), UNITS_PER_WAREHOUSE);
+        createInventory(PRODUCT_ID, createWarehouse("Đà Nẵng"), UNITS_PER_WAREHOUSE);
+        createInventory(PRODUCT_ID, createWarehouse("Hồ Chí Minh"), UNITS_PER_WAREHOUSE);
+
+        List<SortedMap<Long, Integer>> carts = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            carts.add(new TreeMap<>(Map.of(PRODUCT_ID, 1)));
+        }
+
+        BuyerResults results = runBuyers(strategy(strategyName), carts, THREADS);
+        log.info("{}: {} of {} buyers reserved in {} ms", strategyName, results.succeeded(), BUYERS,
+                results.elapsedMs());
+
+        assertTrue(results.errors().isEmpty(), () -> "buyers failed: " + results.errors());
+        assertTrue(results.succeeded() > 0);
+        assertTrue(results.succeeded() <= 3 * UNITS_PER_WAREHOUSE);
+        assertNoOversell();
+        assertEquals(results.reservedUnits(), totalReserved());
+    }
+}
@@ -0,0 +1,55 @@
+package com.bookstore.inventory.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carts that share products, each product stocked in two warehouses, reserved all at once
+ * under the pessimistic strategy. Rows are locked in ascending id order, so overlapping
+ * carts wait on each other instead of deadlocking.
+ */
+class OrderedReservationConcurrencyTest extends ReservationConcurrencyTestBase {
+
+    private static final int PRODUCTS = 6;
+    private static final int CARTS = 200;
+    private static final int THREADS = 32;
+
+    @Test
+    void overlappingCartsNeitherDeadlockNorOversell() throws InterruptedException {
+        long hanoi = createWarehouse("Hà Nội");
+        long hcm = createWarehouse("Hồ Chí Minh");
+        List<Long> products = new ArrayList<>();
+        for (long productId = 1; productId <= PRODUCTS; productId++) {
+            createInventory(productId, hanoi, 40);
+            createInventory(productId, hcm, 40);
+            products.add(productId);
+        }
+
+        Random random = new Random(42);
+        List<SortedMap<Long, Integer>> carts = new ArrayList<>();
+        for (int i = 0; i < CARTS; i++) {
+            Collections.shuffle(products, random);
+            SortedMap<Long, Integer> cart = new TreeMap<>();
+            for (Long productId : products.subList(0, 2 + random.nextInt(3))) {
+                cart.put(productId, 1 + random.nextInt(3));
+            }
+            carts.add(cart);
+        }
+
+        BuyerResults results = runBuyers(strategy("pessimistic"), carts, THREADS);
+
+        assertTrue(results.errors().isEmpty(), () -> "buyers failed: " + results.errors());
+        assertTrue(results.succeeded() > 0);
+        assertNoOversell();
+        assertEquals(results.reservedUnits(), totalReserved());
+    }
+}
@@ -0,0 +1,176 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.allocation.AllocationEngine;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.repository.InventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs many buyers against a MySQL container at once, each in its own transaction, and
+ * checks the inventory rows afterwards. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = ReservationTestConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+abstract class ReservationConcurrencyTestBase {
+
+    @Container
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected InventoryRepository inventoryRepository;
+
+    @Autowired
+    protected AllocationEngine allocationEngine;
+
+    @Autowired
+    protected InventoryJournal inventoryJournal;
+
+    @Autowired
+    protected ReservationTestConfiguration.Reservations reservations;
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @BeforeEach
+    void cleanTables() {
+        for (String table : List.of("stock_reservations", "inventory_movements", "stock_change_outbox",
+                "inventory", "warehouses")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    protected StockReservationStrategy strategy(String name) {
+        return switch (name) {
+            case "pessimistic" -> new PessimisticReservationStrategy(inventoryRepository, allocationEngine,
+                    inventoryJournal);
+            case "conditional-update" -> new ConditionalUpdateReservationStrategy(inventoryRepository,
+                    allocationEngine, inventoryJournal);
+            default -> throw new IllegalArgumentException(name);
+        };
+    }
+
+    protected long createWarehouse(String province) {
+        long id = nextId.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO warehouses (id, code, name, province, is_active, is_default, created_at) "
+                        + "VALUES (?, ?, ?, ?, true, false, ?)",
+                id, "WH" + id, "Warehouse " + id, province, Timestamp.valueOf(LocalDateTime.now()));
+        return id;
+    }
+
+    // No reorder level, so every unit on hand is sellable
+    protected long createInventory(long productId, long warehouseId, int quantity) {
+        long id = nextId.incrementAndGet();
+        jdbcTemplate.update("INSERT INTO inventory (id, product_id, warehouse_id, sku, quantity, reserved_quantity, "
+                        + "reorder_level, reorder_quantity, version) VALUES (?, ?, ?, ?, ?, 0, 0, 0, 0)",
+                id, productId, warehouseId, "SKU-" + productId, quantity);
+        return id;
+    }
+
+    /**
+     * Places every cart from its own task, all released at once, and waits for them.
+     */
+    protected BuyerResults runBuyers(StockReservationStrategy strategy, List<SortedMap<Long, Integer>> carts,
+                                     int threads) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger reservedUnits = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < carts.size(); i++) {
+            long orderId = 1000 + i;
+            SortedMap<Long, Integer> cart = carts.get(i);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    if (reservations.reserve(strategy, orderId, cart)) {
+                        succeeded.incrementAndGet();
+                        reservedUnits.addAndGet(cart.values().stream().mapToInt(Integer::intValue).sum());
+                    }
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            });
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        boolean finished = executor.awaitTermination(2, TimeUnit.MINUTES);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(finished, "buyers still running after 2 minutes");
+        return new BuyerResults(succeeded.get(), reservedUnits.get(), List.copyOf(errors), elapsedMs);
+    }
+
+    /**
+     * No row promises more than it has, and reserved_quantity is exactly what its pending
+     * reservations hold.
+     */
+    protected void assertNoOversell() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT i.id, i.quantity, i.reserved_quantity, i.reorder_level, "
+                        + "COALESCE(SUM(r.quantity), 0) AS pending FROM inventory i "
+                        + "LEFT JOIN stock_reservations r ON r.inventory_id = i.id AND r.status = 'PENDING' "
+                        + "GROUP BY i.id, i.quantity, i.reserved_quantity, i.reorder_level");
+        for (Map<String, Object> row : rows) {
+            int quantity = ((Number) row.get("quantity")).intValue();
+            int reserved = ((Number) row.get("reserved_quantity")).intValue();
+            int reorderLevel = ((Number) row.get("reorder_level")).intValue();
+            int pending = ((Number) row.get("pending")).intValue();
+            assertTrue(reserved >= 0 && reserved <= quantity - reorderLevel,
+                    "inventory " + row.get("id") + " reserved " + reserved + " of " + quantity);
+            assertEquals(pending, reserved, "inventory " + row.get("id") + " reserved vs pending reservations");
+        }
+    }
+
+    protected int totalReserved() {
+        Integer total = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(reserved_quantity), 0) FROM inventory",
+                Integer.class);
+        return total != null ? total : 0;
+    }
+
+    protected record BuyerResults(int succeeded, int reservedUnits, List<Throwable> errors, long elapsedMs) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.bookstore.inventory.reservation;
+
+import com.bookstore.inventory.allocation.AllocationEngine;
+import com.bookstore.inventory.allocation.AllocationPolicy;
+import com.bookstore.inventory.allocation.AllocationProperties;
+import com.bookstore.inventory.allocation.ProvinceDistance;
+import com.bookstore.inventory.entity.Inventory;
+import com.bookstore.inventory.journal.InventoryJournal;
+import com.bookstore.inventory.repository.InventoryMovementJdbcRepository;
+import com.bookstore.inventory.repository.InventoryRepository;
+import com.bookstore.inventory.repository.StockChangeOutboxJdbcRepository;
+import com.bookstore.inventory.repository.StockReservationJdbcRepository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.time.LocalDateTime;
+import java.util.SortedMap;
+
+/**
+ * Only the reservation path: strategies, allocation, journal and the JDBC repositories.
+ * The application class is left out because it pulls in Feign clients and the outbox.
+ */
+@Configuration
+@EntityScan(basePackageClasses = Inventory.class)
+@EnableJpaRepositories(basePackageClasses = InventoryRepository.class)
+@Import({AllocationEngine.class, ProvinceDistance.class, AllocationProperties.class, InventoryJournal.class,
+        InventoryMovementJdbcRepository.class, StockChangeOutboxJdbcRepository.class,
+        StockReservationJdbcRepository.class, ReservationTestConfiguration.Reservations.class})
+class ReservationTestConfiguration {
+
+    /**
+     * The transactional part of InventoryServiceImpl#reserveStock: reserve, then write the
+     * reservation rows, or roll back when the strategy could not cover the order.
+     */
+    public static class Reservations {
+
+        private final StockReservationJdbcRepository stockReservationJdbcRepository;
+
+        public Reservations(StockReservationJdbcRepository stockReservationJdbcRepository) {
+            this.stockReservationJdbcRepository = stockReservationJdbcRepository;
+        }
+
+        @Transactional
+        public boolean reserve(StockReservationStrategy strategy, Long orderId, SortedMap<Long, Integer> lines) {
+            ReservationOutcome outcome = strategy.reserve(orderId, lines, AllocationPolicy.MOST_STOCK, null,
+                    LocalDateTime.now().plusMinutes(15));
+            if (!outcome.isSuccess()) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return false;
+            }
+            stockReservationJdbcRepository.insertAll(outcome.reservations());
+            return true;
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.bookstore.media;
 
+import com.bookstore.common.messaging.listener.EnableListenerContainers;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableListenerContainers
 public class MediaServiceApplication {
 
     public static void main(String[] args) {
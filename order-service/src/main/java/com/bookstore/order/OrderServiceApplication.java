@@ -1,5 +1,7 @@
 package com.bookstore.order;
 
+import com.bookstore.common.messaging.listener.EnableListenerContainers;
+import com.bookstore.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
@@ -8,6 +10,8 @@ import org.springframework.cloud.openfeign.EnableFeignClients;
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableOutbox
+@EnableListenerContainers
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
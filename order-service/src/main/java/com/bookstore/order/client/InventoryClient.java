@@ -15,7 +15,8 @@ import java.util.List;
 public interface InventoryClient {
 
     @PostMapping("/inventory/reserve")
-    ServiceResponse reserveStock(@RequestBody StockReservationRequest request);
+    ServiceResponse reserveStock(@RequestHeader("Idempotency-Key") String idempotencyKey,
+                                 @RequestBody StockReservationRequest request);
 
     @PostMapping("/inventory/confirm/{orderId}")
     ServiceResponse confirmReservation(@PathVariable("orderId") Long orderId);
@@ -23,6 +24,9 @@ public interface InventoryClient {
     @PostMapping("/inventory/release/{orderId}")
     ServiceResponse releaseReservation(@PathVariable("orderId") Long orderId);
 
+    @GetMapping("/inventory/availability")
+    ServiceResponse getAvailability(@RequestParam("productIds") List<Long> productIds);
+
     @Data
     @Builder
     @NoArgsConstructor
@@ -31,6 +35,7 @@ public interface InventoryClient {
         private Long orderId;
         private List<ReservationItem> items;
         private Long userId;
+        private String shippingProvince;
 
         @Data
         @Builder
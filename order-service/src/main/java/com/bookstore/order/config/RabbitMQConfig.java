@@ -43,6 +43,21 @@ public class RabbitMQConfig {
     public Queue orderCreateFailQueue(){
         return QueueBuilder.durable(RabbitMQConstants.ORDER_CREATED_FAIL_QUEUE).build();
     }
+    @Bean
+    public DirectExchange sagaExchange() {
+        return new DirectExchange(RabbitMQConstants.SAGA_EXCHANGE);
+    }
+
+    @Bean
+    public Queue orderSagaCompletedQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.ORDER_SAGA_COMPLETED_QUEUE).build();
+    }
+
+    @Bean
+    public Queue orderStockResultQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.ORDER_STOCK_RESULT_QUEUE).build();
+    }
+
     @Bean
     public Binding orderCreatedBinding(Queue orderCreatedQueue, DirectExchange orderExchange) {
         return BindingBuilder.bind(orderCreatedQueue)
@@ -55,4 +70,18 @@ public class RabbitMQConfig {
                 .to(orderExchange)
                 .with(RabbitMQConstants.ORDER_CREATE_FAIL);
     }
+
+    @Bean
+    public Binding orderStockResultBinding(Queue orderStockResultQueue, DirectExchange orderExchange) {
+        return BindingBuilder.bind(orderStockResultQueue)
+                .to(orderExchange)
+                .with(RabbitMQConstants.ORDER_STOCK_RESULT_KEY);
+    }
+
+    @Bean
+    public Binding orderSagaCompletedBinding(Queue orderSagaCompletedQueue, DirectExchange orderExchange) {
+        return BindingBuilder.bind(orderSagaCompletedQueue)
+                .to(orderExchange)
+                .with(RabbitMQConstants.ORDER_SAGA_COMPLETED_KEY);
+    }
 }
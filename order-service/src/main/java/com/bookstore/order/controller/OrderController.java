@@ -12,9 +12,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/orders")
@@ -34,7 +36,8 @@ public class OrderController {
 
         request.setUserId(userId);
         ServiceResponse response = orderService.createOrder(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        // The order stays PENDING until stock is reserved; follow it on /status or /events.
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
     }
 
     @GetMapping("/{id}")
@@ -43,6 +46,19 @@ public class OrderController {
         return new ResponseEntity<>(response, HttpStatusCode.valueOf(response.getStatusCode()));
     }
 
+    @GetMapping("/{id}/status")
+    @Operation(summary = "Poll the status of an order")
+    public ResponseEntity<ServiceResponse> getOrderStatus(@PathVariable(name = "id") Long id) {
+        ServiceResponse response = orderService.getOrderStatus(id);
+        return new ResponseEntity<>(response, HttpStatusCode.valueOf(response.getStatusCode()));
+    }
+
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Receive one event when the order leaves PENDING")
+    public SseEmitter subscribeOrderStatus(@PathVariable(name = "id") Long id) {
+        return orderService.subscribeOrderStatus(id);
+    }
+
     @PostMapping("/cancel")
     public ResponseEntity<?> orderCreateFail(@RequestBody CancelOrderMessage orderMessage) {
         ServiceResponse response = orderService.cancelOrder(orderMessage.getOrderId(), orderMessage.getUserId(),
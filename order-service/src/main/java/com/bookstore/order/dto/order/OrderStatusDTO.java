@@ -0,0 +1,18 @@
+package com.bookstore.order.dto.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusDTO {
+
+    private Long orderId;
+    private String orderNumber;
+    private String status;
+    private String reason;
+}
@@ -1,15 +1,15 @@
 package com.bookstore.order.listener;
 
-import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.exception.BusinessException;
 import com.bookstore.common.messaging.order.CancelOrderMessage;
+import com.bookstore.common.messaging.saga.OrderSagaCompletedEvent;
+import com.bookstore.common.messaging.saga.StockReservedEvent;
 import com.bookstore.order.service.IOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -21,9 +21,23 @@ public class OrderListener {
     private final IOrderService iOrderService;
 
     @RabbitListener(queues = RabbitMQConstants.ORDER_CREATED_FAIL_QUEUE)
-    public ResponseEntity<?> orderCreateFail(CancelOrderMessage orderMessage) {
-        ServiceResponse response = iOrderService.cancelOrder(orderMessage.getOrderId(), orderMessage.getUserId(),
-                orderMessage.getReason());
-        return new ResponseEntity<>(response, HttpStatus.valueOf(response.getStatus()));
+    public void orderCreateFail(CancelOrderMessage orderMessage) {
+        // No return value: the message has no reply-to, so a reply would fail the delivery.
+        try {
+            iOrderService.cancelOrder(orderMessage.getOrderId(), orderMessage.getUserId(), orderMessage.getReason());
+        } catch (BusinessException e) {
+            // The stock reservation result usually cancels the order first.
+            log.info("Skipping cancel for order {}: {}", orderMessage.getOrderId(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(queues = RabbitMQConstants.ORDER_STOCK_RESULT_QUEUE)
+    public void onStockReserved(StockReservedEvent event) {
+        iOrderService.applyStockReservation(event);
+    }
+
+    @RabbitListener(queues = RabbitMQConstants.ORDER_SAGA_COMPLETED_QUEUE)
+    public void onSagaCompleted(OrderSagaCompletedEvent event) {
+        iOrderService.applySagaCompletion(event);
     }
 }
@@ -1,15 +1,26 @@
 package com.bookstore.order.service;
 
 import com.bookstore.common.dto.response.ServiceResponse;
+import com.bookstore.common.messaging.saga.OrderSagaCompletedEvent;
+import com.bookstore.common.messaging.saga.StockReservedEvent;
 import com.bookstore.order.dto.order.OrderRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface IOrderService {
 
     ServiceResponse createOrder(OrderRequest orderRequest);
 
+    void applyStockReservation(StockReservedEvent event);
+
+    void applySagaCompletion(OrderSagaCompletedEvent event);
+
     ServiceResponse getOrderById(Long id);
 
+    ServiceResponse getOrderStatus(Long id);
+
+    SseEmitter subscribeOrderStatus(Long id);
+
     ServiceResponse getOrderByOrderNumber(String orderNumber);
 
     ServiceResponse getOrdersByUser(Long userId, Pageable pageable);
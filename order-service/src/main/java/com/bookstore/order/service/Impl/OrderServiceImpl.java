@@ -4,27 +4,35 @@ import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.common.exception.BusinessException;
 import com.bookstore.common.messaging.OrderMessage;
 import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.saga.OrderSagaCompletedEvent;
+import com.bookstore.common.messaging.saga.OrderSagaStartEvent;
+import com.bookstore.common.messaging.saga.SagaRouting;
+import com.bookstore.common.messaging.saga.StockReservedEvent;
+import com.bookstore.common.outbox.OutboxPublisher;
 import com.bookstore.order.client.InventoryClient;
 import com.bookstore.order.dto.order.OrderDTO;
 import com.bookstore.order.dto.order.OrderRequest;
+import com.bookstore.order.dto.order.OrderStatusDTO;
 import com.bookstore.order.dto.orderItem.OrderItemDTO;
 import com.bookstore.order.dto.orderItem.OrderItemRequest;
 import com.bookstore.order.entity.Order;
 import com.bookstore.order.entity.OrderItem;
 import com.bookstore.order.repository.OrderRepository;
 import com.bookstore.order.service.IOrderService;
+import com.bookstore.order.status.OrderStatusNotifier;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,7 +43,8 @@ public class OrderServiceImpl implements IOrderService {
 
     private final OrderRepository orderRepository;
     private final InventoryClient inventoryClient;
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxPublisher outboxPublisher;
+    private final OrderStatusNotifier orderStatusNotifier;
 
     @Override
     @Transactional
@@ -80,39 +89,136 @@ public class OrderServiceImpl implements IOrderService {
                 .subtotal(order.getSubtotal())
                 .shippingFee(order.getShippingFee())
                 .build();
-        rabbitTemplate.convertAndSend(RabbitMQConstants.INVENTORY_EXCHANGE, "inventory.stock", orderMessage);
 
-        try {
-            List<InventoryClient.StockReservationRequest.ReservationItem> reservationItems = request.getItems().stream()
-                    .map(item -> InventoryClient.StockReservationRequest.ReservationItem.builder()
-                            .productId(item.getProductId()).quantity(item.getQuantity()).build())
-                    .collect(Collectors.toList());
+        List<OrderSagaStartEvent.SagaOrderItem> sagaItems = request.getItems().stream()
+                .map(item -> OrderSagaStartEvent.SagaOrderItem.builder()
+                        .productId(item.getProductId())
+                        .sku(item.getProductSku())
+                        .quantity(item.getQuantity())
+                        .unitPrice(item.getUnitPrice())
+                        .build())
+                .collect(Collectors.toList());
+        OrderSagaStartEvent sagaStartEvent = OrderSagaStartEvent.builder()
+                .sagaId(UUID.randomUUID().toString())
+                .orderId(savedOrder.getId())
+                .userId(savedOrder.getUserId())
+                .orderNumber(savedOrder.getOrderNumber())
+                .items(sagaItems)
+                .totalAmount(savedOrder.getTotalAmount())
+                .shippingAddress(savedOrder.getShippingAddress())
+                .shippingProvince(savedOrder.getShippingProvince())
+                .paymentMethod(savedOrder.getPaymentMethod().name())
+                .build();
 
-            InventoryClient.StockReservationRequest reservationRequest = InventoryClient.StockReservationRequest
-                    .builder()
-                    .orderId(savedOrder.getId())
-                    .userId(savedOrder.getUserId())
-                    .items(reservationItems).build();
-
-            ServiceResponse reserveResponse = inventoryClient.reserveStock(reservationRequest);
-            Map<String, Object> stockData = (Map<String, Object>) reserveResponse.getData();
-            boolean stockSuccess = stockData != null && Boolean.TRUE.equals(stockData.get("success"));
-            String stockMessage = stockData != null ? (String) stockData.get("message") : "Unknown error";
-
-            if (!stockSuccess) {
-                orderRepository.delete(savedOrder);
-                throw new BusinessException("Failed to reserve stock: " + stockMessage);
+        // Both messages commit with the order row. The order saga reserves stock and forwards
+        // the result, which moves the order out of PENDING (see applyStockReservation); clients
+        // poll or subscribe for it. Payment and the final stock confirmation follow in
+        // applySagaCompletion.
+        outboxPublisher.publish(RabbitMQConstants.INVENTORY_EXCHANGE, "inventory.stock", orderMessage);
+        outboxPublisher.publish(RabbitMQConstants.SAGA_EXCHANGE, SagaRouting.routingKey(savedOrder.getId()),
+                sagaStartEvent);
+
+        return ServiceResponse.RESPONSE_SUCCESS("Order accepted, reserving stock", mapToDTO(savedOrder));
+    }
+
+    @Override
+    @Transactional
+    public void applyStockReservation(StockReservedEvent event) {
+        Order order = orderRepository.findByIdForUpdate(event.getOrderId()).orElse(null);
+        if (order == null) {
+            log.warn("Stock reservation result for unknown order {}", event.getOrderId());
+            return;
+        }
+
+        if (order.getStatus() != Order.OrderStatus.PENDING) {
+            // Duplicate result, or the order was cancelled while stock was being reserved.
+            if (event.isSuccess() && order.getStatus() == Order.OrderStatus.CANCELLED) {
+                Long orderId = order.getId();
+                afterCommit(() -> releaseQuietly(orderId));
+            }
+            return;
+        }
+
+        if (event.isSuccess()) {
+            order.updateStatus(Order.OrderStatus.CONFIRMED, "Stock reserved", null);
+        } else {
+            order.cancel("Failed to reserve stock: " + event.getFailureReason(), null);
+        }
+        orderRepository.save(order);
+
+        OrderStatusDTO status = mapToStatusDTO(order);
+        afterCommit(() -> orderStatusNotifier.publish(status));
+    }
+
+    @Override
+    @Transactional
+    public void applySagaCompletion(OrderSagaCompletedEvent event) {
+        Order order = orderRepository.findByIdForUpdate(event.getOrderId()).orElse(null);
+        if (order == null) {
+            log.warn("Saga completion for unknown order {}", event.getOrderId());
+            return;
+        }
+
+        if (event.isSuccess()) {
+            if (order.getStatus() != Order.OrderStatus.CONFIRMED) {
+                log.info("Ignoring saga completion for order {} in status {}", order.getId(), order.getStatus());
+                return;
+            }
+            if ("PAID".equals(event.getFinalStatus())) {
+                order.markAsPaid();
+                order.updateStatus(Order.OrderStatus.PROCESSING, "Payment confirmed", null);
+            } else {
+                order.updateStatus(Order.OrderStatus.PROCESSING, "Stock confirmed", null);
+            }
+        } else {
+            if (!order.isCancellable()) {
+                // Already cancelled, by the user or by the failed reservation result.
+                return;
             }
-        } catch (BusinessException e) {
-            throw e;
+            // The saga has already released the stock.
+            order.cancel(event.getFailureReason(), null);
+        }
+        orderRepository.save(order);
+
+        OrderStatusDTO status = mapToStatusDTO(order);
+        afterCommit(() -> orderStatusNotifier.publish(status));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ServiceResponse getOrderStatus(Long id) {
+        Order order = orderRepository.findById(id).orElseThrow(() -> new BusinessException("Order not found: " + id));
+        return ServiceResponse.RESPONSE_SUCCESS(mapToStatusDTO(order));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter subscribeOrderStatus(Long id) {
+        // Subscribe before reading, so a change committed in between is not missed.
+        SseEmitter emitter = orderStatusNotifier.subscribe(id);
+        Order order = orderRepository.findById(id).orElseThrow(() -> new BusinessException("Order not found: " + id));
+        if (order.getStatus() != Order.OrderStatus.PENDING) {
+            orderStatusNotifier.complete(mapToStatusDTO(order));
+        }
+        return emitter;
+    }
+
+    private void releaseQuietly(Long orderId) {
+        try {
+            inventoryClient.releaseReservation(orderId);
         } catch (Exception e) {
-            orderRepository.delete(savedOrder);
-            throw new BusinessException("Failed to reserve stock: " + e.getMessage());
+            // The reservation still expires on its own.
+            log.error("Failed to release stock reservation for cancelled order {}: {}", orderId, e.getMessage());
         }
-        savedOrder.updateStatus(Order.OrderStatus.CONFIRMED, "Stock reserved", null);
-        orderRepository.save(savedOrder);
+    }
 
-        return ServiceResponse.RESPONSE_SUCCESS("Order created successfully", mapToDTO(savedOrder));
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     private BigDecimal calculateSubtotal(List<OrderItemRequest> items) {
@@ -168,6 +274,8 @@ public class OrderServiceImpl implements IOrderService {
 
         order.cancel(reason, userId);
         orderRepository.save(order);
+        OrderStatusDTO status = mapToStatusDTO(order);
+        afterCommit(() -> orderStatusNotifier.publish(status));
 
         return ServiceResponse.RESPONSE_SUCCESS("Order cancelled successfully", mapToDTO(order));
     }
@@ -196,6 +304,15 @@ public class OrderServiceImpl implements IOrderService {
         return ServiceResponse.RESPONSE_SUCCESS("Payment confirmed", mapToDTO(order));
     }
 
+    private OrderStatusDTO mapToStatusDTO(Order order) {
+        return OrderStatusDTO.builder()
+                .orderId(order.getId())
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus().name())
+                .reason(order.getCancelReason())
+                .build();
+    }
+
     private OrderDTO mapToDTO(Order order) {
         List<OrderItemDTO> itemDTOs = order.getItems().stream()
                 .map(item -> OrderItemDTO.builder().id(item.getId()).productId(item.getProductId())
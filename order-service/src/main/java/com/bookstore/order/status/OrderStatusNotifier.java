@@ -0,0 +1,81 @@
+package com.bookstore.order.status;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.order.dto.order.OrderStatusDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-sent event subscriptions for orders waiting on their stock reservation. A status
+ * change is broadcast on a fanout exchange, because the client may be connected to a
+ * different instance than the one that consumed the reservation result; each instance
+ * completes the subscriptions it holds for that order.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderStatusNotifier {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ConcurrentMap<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @Value("${order.status.subscription-timeout:30s}")
+    private Duration subscriptionTimeout;
+
+    public SseEmitter subscribe(Long orderId) {
+        SseEmitter emitter = new SseEmitter(subscriptionTimeout.toMillis());
+        subscribers.computeIfAbsent(orderId, id -> new CopyOnWriteArrayList<>()).add(emitter);
+        Runnable unsubscribe = () -> subscribers.computeIfPresent(orderId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+        return emitter;
+    }
+
+    public void publish(OrderStatusDTO status) {
+        rabbitTemplate.convertAndSend(RabbitMQConstants.ORDER_STATUS_EXCHANGE, "", status);
+    }
+
+    @RabbitListener(bindings = @QueueBinding(value = @Queue(exclusive = "true", autoDelete = "true"), exchange = @Exchange(value = RabbitMQConstants.ORDER_STATUS_EXCHANGE, type = ExchangeTypes.FANOUT)))
+    public void onStatusChanged(OrderStatusDTO status) {
+        complete(status);
+    }
+
+    /**
+     * Sends the status to this instance's subscribers of the order and closes them.
+     */
+    public void complete(OrderStatusDTO status) {
+        List<SseEmitter> emitters = subscribers.remove(status.getOrderId());
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(status));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Order {} status subscriber went away: {}", status.getOrderId(), e.getMessage());
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookstore.payment.config;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public DirectExchange paymentExchange() {
+        return new DirectExchange(RabbitMQConstants.PAYMENT_EXCHANGE);
+    }
+
+    @Bean
+    public Queue refundQueue() {
+        return QueueBuilder.durable(RabbitMQConstants.PAYMENT_REFUND_QUEUE).build();
+    }
+
+    @Bean
+    public Binding refundBinding() {
+        return BindingBuilder.bind(refundQueue())
+                .to(paymentExchange())
+                .with(RabbitMQConstants.PAYMENT_REFUND_KEY);
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookstore.payment.listener;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.saga.RefundPaymentCommand;
+import com.bookstore.payment.service.IPaymentService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records the refunds the order saga requests for payments captured on orders it cancelled.
+ */
+@Component
+@RequiredArgsConstructor
+public class RefundListener {
+
+    private final IPaymentService paymentService;
+
+    @RabbitListener(queues = RabbitMQConstants.PAYMENT_REFUND_QUEUE)
+    public void onRefundPayment(RefundPaymentCommand command) {
+        paymentService.requestRefund(command);
+    }
+}
@@ -1,9 +1,12 @@
 package com.bookstore.payment.service;
 
 import com.bookstore.common.dto.response.ServiceResponse;
+import com.bookstore.common.messaging.saga.RefundPaymentCommand;
 import com.bookstore.payment.dto.PaymentInput;
 
 public interface IPaymentService {
 
     ServiceResponse createPayment(PaymentInput paymentInput);
+
+    void requestRefund(RefundPaymentCommand command);
 }
@@ -2,13 +2,16 @@ package com.bookstore.payment.service.Impl;
 
 import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.common.exception.BusinessException;
+import com.bookstore.common.messaging.saga.RefundPaymentCommand;
 import com.bookstore.payment.client.OrderClient;
 import com.bookstore.payment.client.UserClient;
 import com.bookstore.payment.dto.PaymentInput;
 import com.bookstore.payment.entity.Payment;
+import com.bookstore.payment.entity.Refund;
 import com.bookstore.payment.repository.PaymentRepository;
 import com.bookstore.payment.service.IPaymentService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +20,7 @@ import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class PaymentServiceImpl implements IPaymentService {
 
     private final PaymentRepository paymentRepository;
@@ -68,4 +72,38 @@ public class PaymentServiceImpl implements IPaymentService {
         Payment p = paymentRepository.save(payment);
         return ServiceResponse.RESPONSE_SUCCESS(p);
     }
+
+    /**
+     * Opens a PENDING refund for the order's captured payment; the gateway refund is then
+     * processed like any other. A refund that is already open or done makes a redelivered
+     * command a no-op.
+     */
+    @Transactional
+    @Override
+    public void requestRefund(RefundPaymentCommand command) {
+        Payment payment = paymentRepository.findByOrderId(command.getOrderId()).orElse(null);
+        if (payment == null || !payment.isRefundable()) {
+            log.warn("No refundable payment for order {} (transaction {})",
+                    command.getOrderId(), command.getTransactionId());
+            return;
+        }
+        boolean requested = payment.getRefunds().stream()
+                .anyMatch(refund -> refund.getStatus() != Refund.RefundStatus.FAILED
+                        && refund.getStatus() != Refund.RefundStatus.REJECTED);
+        if (requested) {
+            return;
+        }
+        String reason = command.getReason() != null ? command.getReason() : "Order cancelled";
+        Refund refund = Refund.builder()
+                .refundCode(Refund.generateRefundCode())
+                .payment(payment)
+                .orderId(payment.getOrderId())
+                .amount(payment.getRefundableAmount())
+                .reason(reason.length() > 255 ? reason.substring(0, 255) : reason)
+                .build();
+        payment.getRefunds().add(refund);
+        paymentRepository.save(payment);
+        log.info("Refund {} of {} requested for order {}", refund.getRefundCode(), refund.getAmount(),
+                payment.getOrderId());
+    }
 }
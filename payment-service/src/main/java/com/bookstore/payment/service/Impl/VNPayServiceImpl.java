@@ -2,8 +2,9 @@ package com.bookstore.payment.service.Impl;
 
 import com.bookstore.common.exception.BusinessException;
 import com.bookstore.common.messaging.RabbitMQConstants;
-import com.bookstore.common.messaging.order.CancelOrderMessage;
-import com.bookstore.payment.client.OrderClient;
+import com.bookstore.common.messaging.saga.PaymentProcessedEvent;
+import com.bookstore.common.messaging.saga.SagaRouting;
+import com.bookstore.common.outbox.OutboxPublisher;
 import com.bookstore.payment.config.VNPayConfig;
 import com.bookstore.payment.dto.VNPayRequest;
 import com.bookstore.payment.dto.VNPayResponse;
@@ -32,7 +33,7 @@ public class VNPayServiceImpl implements IVNPayService {
 
     private final VNPayConfig vnPayConfig;
     private final PaymentRepository paymentRepository;
-    private final OrderClient orderClient;
+    private final OutboxPublisher outboxPublisher;
 
     private static final DateTimeFormatter VNPAY_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
 
@@ -138,14 +139,19 @@ public class VNPayServiceImpl implements IVNPayService {
             response = VNPayResponse.failed(responseCode, errorMessage);
             response.setOrderId(orderId);
             response.setTxnRef(txnRef);
-            CancelOrderMessage cancelOrderMessage = CancelOrderMessage.builder()
-                    .orderId(orderId)
-                    .userId(payment.getUserId())
-                    .reason("TRANSACTION ERROR")
-                    .build();
-            orderClient.cancelOrder(cancelOrderMessage);
         }
         paymentRepository.save(payment);
+
+        // The order saga confirms the stock or releases it and cancels the order. VNPay calls
+        // both the return URL and the IPN, so the saga sees this event twice and ignores the second.
+        PaymentProcessedEvent event = PaymentProcessedEvent.builder()
+                .orderId(orderId)
+                .success(response.isSuccess())
+                .transactionId(transactionNo)
+                .failureReason(response.isSuccess() ? null : response.getMessage())
+                .paymentStatus(payment.getStatus().name())
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.SAGA_EXCHANGE, SagaRouting.routingKey(orderId), event);
         return response;
     }
 
@@ -0,0 +1,17 @@
+package com.bookstore.product.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage implements Serializable {
+    private String originInstanceId;
+    private String cacheName;
+    // null means the whole cache was cleared
+    private String key;
+}
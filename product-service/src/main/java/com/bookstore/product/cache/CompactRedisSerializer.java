@@ -0,0 +1,88 @@
+package com.bookstore.product.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes cache values as Smile (binary JSON with back-referenced property names),
+ * LZ4-compressing payloads above a size threshold. Values written by the JSON
+ * serializer are still readable, so the switch needs no cache flush.
+ * <p>
+ * Wire format: a Smile document (starts with {@code ":)\n"}), or
+ * {@code 0x01 | original length (4 bytes) | LZ4 block}.
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte LZ4_MARKER = 0x01;
+    private static final byte SMILE_HEADER = ':';
+    private static final int LZ4_HEADER_LENGTH = 5;
+
+    private final ObjectMapper smileMapper;
+    private final RedisSerializer<Object> legacySerializer;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+
+    public CompactRedisSerializer(ObjectMapper smileMapper, RedisSerializer<Object> legacySerializer,
+                                  int compressionThreshold) {
+        this.smileMapper = smileMapper;
+        this.legacySerializer = legacySerializer;
+        this.compressionThreshold = compressionThreshold;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] smile;
+        try {
+            smile = smileMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+        if (compressionThreshold <= 0 || smile.length < compressionThreshold) {
+            return smile;
+        }
+
+        byte[] compressed = compressor.compress(smile);
+        if (compressed.length + LZ4_HEADER_LENGTH >= smile.length) {
+            return smile;
+        }
+        return ByteBuffer.allocate(LZ4_HEADER_LENGTH + compressed.length)
+                .put(LZ4_MARKER)
+                .putInt(smile.length)
+                .put(compressed)
+                .array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != LZ4_MARKER && bytes[0] != SMILE_HEADER) {
+            return legacySerializer.deserialize(bytes);
+        }
+        try {
+            byte[] smile = bytes;
+            if (bytes[0] == LZ4_MARKER) {
+                int originalLength = ByteBuffer.wrap(bytes, 1, 4).getInt();
+                smile = decompressor.decompress(bytes, LZ4_HEADER_LENGTH,
+                        bytes.length - LZ4_HEADER_LENGTH, originalLength);
+            }
+            return smileMapper.readValue(smile, Object.class);
+        } catch (Exception e) {
+            throw new SerializationException("Could not read Smile: " + e.getMessage(), e);
+        }
+    }
+}
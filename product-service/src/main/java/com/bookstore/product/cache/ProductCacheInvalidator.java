@@ -0,0 +1,48 @@
+package com.bookstore.product.cache;
+
+import com.bookstore.product.event.ProductChangedEvent;
+import com.bookstore.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the product detail caches (by id and by slug) once a product change has
+ * committed, so a concurrent reader cannot re-cache the pre-commit row.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidator {
+
+    public static final String PRODUCT_CACHE = "product";
+    public static final String PRODUCT_BY_SLUG_CACHE = "productBySlug";
+
+    private final CacheManager cacheManager;
+    private final ProductRepository productRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        try {
+            evict(PRODUCT_CACHE, event.getProductId());
+            productRepository.findSlugById(event.getProductId())
+                    .ifPresent(slug -> evict(PRODUCT_BY_SLUG_CACHE, slug));
+            if (event.getPreviousSlug() != null) {
+                evict(PRODUCT_BY_SLUG_CACHE, event.getPreviousSlug());
+            }
+        } catch (Exception e) {
+            log.error("Failed to evict cache for product {}: {}", event.getProductId(), e.getMessage());
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.bookstore.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine near-cache (L1) in front of a shared Redis cache (L2). Reads hit L1 first;
+ * writes and evictions go to both tiers and are broadcast so other replicas drop their
+ * L1 copy. L1 values are shared instances and must be treated as read-only.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> localCache;
+    private final org.springframework.cache.Cache redisCache;
+    private final TwoLevelCacheManager cacheManager;
+
+    public TwoLevelCache(String name, Cache<String, Object> localCache,
+                         org.springframework.cache.Cache redisCache, TwoLevelCacheManager cacheManager) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public Cache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    public org.springframework.cache.Cache getRedisCache() {
+        return redisCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = localCache.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper wrapper = redisCache.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            return null;
+        }
+        localCache.put(localKey, wrapper.get());
+        return wrapper.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) value;
+        }
+        T loaded = redisCache.get(key, valueLoader);
+        if (loaded != null) {
+            localCache.put(localKey(key), loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            return;
+        }
+        redisCache.put(key, value);
+        localCache.put(localKey(key), value);
+        cacheManager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        localCache.invalidate(localKey(key));
+        cacheManager.publishInvalidation(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(localKey);
+        }
+    }
+
+    // Keys travel between replicas as strings; each cache uses a single key type,
+    // so the string form is unambiguous within a cache.
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
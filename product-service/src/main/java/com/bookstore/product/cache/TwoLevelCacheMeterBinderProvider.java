@@ -0,0 +1,37 @@
+package com.bookstore.product.cache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes hit/miss metrics for both tiers of a {@link TwoLevelCache}, tagged tier=l1/l2.
+ */
+@Component
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName(), withTier(tags, "l1"))
+                    .bindTo(registry);
+            if (cache.getRedisCache() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, withTier(tags, "l2")).bindTo(registry);
+            }
+        };
+    }
+
+    private static List<Tag> withTier(Iterable<Tag> tags, String tier) {
+        List<Tag> result = new ArrayList<>();
+        tags.forEach(result::add);
+        result.add(Tag.of("tier", tier));
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package com.bookstore.product.category;
+
+import com.bookstore.product.dto.category.CategoryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One category in a {@link CategoryTree} with its precomputed relatives.
+ * The DTO is shared between requests and must not be modified.
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryNode {
+    private final Long id;
+    private final Long parentId;
+    private final CategoryDTO dto;
+    private final List<Long> childIds;
+    private final Set<Long> ancestorIds;
+    // This category and all of its descendants
+    private final Set<Long> subtreeIds;
+}
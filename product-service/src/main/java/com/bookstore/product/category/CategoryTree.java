@@ -0,0 +1,196 @@
+package com.bookstore.product.category;
+
+import com.bookstore.product.dto.category.CategoryDTO;
+import com.bookstore.product.entity.Category;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the whole category hierarchy, built from one query.
+ * Navigation and subtree lookups are served from memory; a new snapshot is built
+ * whenever categories change.
+ */
+public final class CategoryTree {
+
+    private static final Comparator<Category> DISPLAY_ORDER = Comparator
+            .comparing((Category c) -> c.getDisplayOrder() != null ? c.getDisplayOrder() : 0)
+            .thenComparing(Category::getId);
+
+    private final Map<Long, CategoryNode> nodesById;
+    private final Map<String, CategoryNode> nodesBySlug;
+    private final List<CategoryDTO> roots;
+    private final List<CategoryDTO> activeCategories;
+    private final List<CategoryDTO> tree;
+
+    private CategoryTree(Map<Long, CategoryNode> nodesById, Map<String, CategoryNode> nodesBySlug,
+                         List<CategoryDTO> roots, List<CategoryDTO> activeCategories, List<CategoryDTO> tree) {
+        this.nodesById = nodesById;
+        this.nodesBySlug = nodesBySlug;
+        this.roots = roots;
+        this.activeCategories = activeCategories;
+        this.tree = tree;
+    }
+
+    public static CategoryTree empty() {
+        return new CategoryTree(Map.of(), Map.of(), List.of(), List.of(), List.of());
+    }
+
+    public static CategoryTree build(List<Category> categories) {
+        List<Category> sorted = new ArrayList<>(categories);
+        sorted.sort(DISPLAY_ORDER);
+
+        Map<Long, Category> byId = new HashMap<>();
+        Map<Long, List<Long>> childIds = new HashMap<>();
+        for (Category category : sorted) {
+            byId.put(category.getId(), category);
+        }
+        for (Category category : sorted) {
+            Long parentId = parentId(category);
+            if (parentId != null && byId.containsKey(parentId)) {
+                childIds.computeIfAbsent(parentId, id -> new ArrayList<>()).add(category.getId());
+            }
+        }
+
+        Map<Long, CategoryNode> nodesById = new HashMap<>();
+        Map<String, CategoryNode> nodesBySlug = new HashMap<>();
+        List<CategoryDTO> roots = new ArrayList<>();
+        List<CategoryDTO> activeCategories = new ArrayList<>();
+        for (Category category : sorted) {
+            Long parentId = parentId(category);
+            Category parent = parentId != null ? byId.get(parentId) : null;
+            CategoryDTO dto = toDTO(category, parent);
+
+            CategoryNode node = new CategoryNode(
+                    category.getId(),
+                    parentId,
+                    dto,
+                    List.copyOf(childIds.getOrDefault(category.getId(), List.of())),
+                    Collections.unmodifiableSet(ancestors(category.getId(), byId)),
+                    Collections.unmodifiableSet(subtree(category.getId(), childIds)));
+            nodesById.put(node.getId(), node);
+            nodesBySlug.put(category.getSlug(), node);
+
+            if (parentId == null) {
+                roots.add(dto);
+            }
+            if (Boolean.TRUE.equals(category.getIsActive())) {
+                activeCategories.add(dto);
+            }
+        }
+
+        List<CategoryDTO> tree = new ArrayList<>();
+        for (Category category : sorted) {
+            if (parentId(category) == null) {
+                tree.add(toTreeDTO(nodesById.get(category.getId()), nodesById));
+            }
+        }
+
+        return new CategoryTree(Map.copyOf(nodesById), Map.copyOf(nodesBySlug),
+                List.copyOf(roots), List.copyOf(activeCategories), List.copyOf(tree));
+    }
+
+    public Optional<CategoryNode> findById(Long id) {
+        return Optional.ofNullable(nodesById.get(id));
+    }
+
+    public Optional<CategoryNode> findBySlug(String slug) {
+        return Optional.ofNullable(nodesBySlug.get(slug));
+    }
+
+    public List<CategoryDTO> getRoots() {
+        return roots;
+    }
+
+    public List<CategoryDTO> getActiveCategories() {
+        return activeCategories;
+    }
+
+    public List<CategoryDTO> getTree() {
+        return tree;
+    }
+
+    public List<CategoryDTO> getChildren(Long parentId) {
+        CategoryNode parent = nodesById.get(parentId);
+        if (parent == null) {
+            return List.of();
+        }
+        return parent.getChildIds().stream()
+                .map(id -> nodesById.get(id).getDto())
+                .toList();
+    }
+
+    public Set<Long> getSubtreeIds(Long categoryId) {
+        CategoryNode node = nodesById.get(categoryId);
+        return node != null ? node.getSubtreeIds() : Set.of(categoryId);
+    }
+
+    public int size() {
+        return nodesById.size();
+    }
+
+    private static Long parentId(Category category) {
+        return category.getParent() != null ? category.getParent().getId() : null;
+    }
+
+    private static Set<Long> ancestors(Long id, Map<Long, Category> byId) {
+        Set<Long> ancestors = new LinkedHashSet<>();
+        Long current = parentId(byId.get(id));
+        // The visited check guards against a corrupt parent cycle.
+        while (current != null && byId.containsKey(current) && ancestors.add(current)) {
+            current = parentId(byId.get(current));
+        }
+        return ancestors;
+    }
+
+    private static Set<Long> subtree(Long id, Map<Long, List<Long>> childIds) {
+        Set<Long> subtree = new LinkedHashSet<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        stack.push(id);
+        while (!stack.isEmpty()) {
+            Long current = stack.pop();
+            if (subtree.add(current)) {
+                childIds.getOrDefault(current, List.of()).forEach(stack::push);
+            }
+        }
+        return subtree;
+    }
+
+    private static CategoryDTO toTreeDTO(CategoryNode node, Map<Long, CategoryNode> nodesById) {
+        CategoryDTO flat = node.getDto();
+        List<CategoryDTO> children = node.getChildIds().stream()
+                .map(childId -> toTreeDTO(nodesById.get(childId), nodesById))
+                .toList();
+        // The tree view never exposes parent details, matching the previous response.
+        return flat.toBuilder()
+                .parentId(null)
+                .parentName(null)
+                .children(children)
+                .build();
+    }
+
+    private static CategoryDTO toDTO(Category category, Category parent) {
+        return CategoryDTO.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .slug(category.getSlug())
+                .description(category.getDescription())
+                .parentId(parent != null ? parent.getId() : null)
+                .parentName(parent != null ? parent.getName() : null)
+                .imageUrl(category.getImageUrl())
+                .displayOrder(category.getDisplayOrder())
+                .isActive(category.getIsActive())
+                .createdAt(category.getCreatedAt())
+                .updatedAt(category.getUpdatedAt())
+                .build();
+    }
+}
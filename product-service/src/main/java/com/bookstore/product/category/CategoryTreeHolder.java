@@ -0,0 +1,62 @@
+package com.bookstore.product.category;
+
+import com.bookstore.product.event.CategoryChangedEvent;
+import com.bookstore.product.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Holds the current {@link CategoryTree}. The snapshot is swapped atomically after every
+ * committed category change on this instance, and refreshed periodically so changes
+ * made through other replicas show up within the refresh interval.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeHolder {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree tree;
+
+    public CategoryTree get() {
+        CategoryTree current = tree;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${product.category-tree.refresh-interval-ms:30000}",
+            initialDelayString = "${product.category-tree.refresh-interval-ms:30000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    public synchronized CategoryTree rebuild() {
+        try {
+            CategoryTree rebuilt = CategoryTree.build(categoryRepository.findAll());
+            tree = rebuilt;
+            return rebuilt;
+        } catch (Exception e) {
+            log.error("Failed to rebuild category tree: {}", e.getMessage());
+            return tree != null ? tree : CategoryTree.empty();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.bookstore.product.client;
+
+import com.bookstore.common.dto.response.ServiceResponse;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@FeignClient(name = "INVENTORY-SERVICE")
+public interface InventoryClient {
+
+    @GetMapping("/inventory/availability")
+    ServiceResponse getAvailability(@RequestParam("productIds") List<Long> productIds);
+}
@@ -0,0 +1,9 @@
+package com.bookstore.product.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class ProductConfig {
+}
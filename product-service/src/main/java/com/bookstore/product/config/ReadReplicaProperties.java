@@ -0,0 +1,32 @@
+package com.bookstore.product.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+    // Replicas lagging further behind than this are skipped until they catch up
+    private long maxLagSeconds = 5;
+    // Disable for stand-ins that do not support SHOW REPLICA STATUS (e.g. H2); only liveness is checked then
+    private boolean lagCheckEnabled = true;
+    private long healthCheckIntervalMs = 5000;
+    private List<Node> nodes = new ArrayList<>();
+
+    @Data
+    public static class Node {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -1,8 +1,13 @@
 package com.bookstore.product.config;
 
+import com.bookstore.product.cache.CacheInvalidationMessage;
+import com.bookstore.product.cache.CompactRedisSerializer;
+import com.bookstore.product.cache.TwoLevelCacheManager;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -12,11 +17,15 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 @Configuration
@@ -40,7 +49,10 @@ public class RedisConfig {
      * This includes type information for proper deserialization from cache.
      */
     private ObjectMapper createRedisObjectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+        return configureRedisObjectMapper(new ObjectMapper());
+    }
+
+    private ObjectMapper configureRedisObjectMapper(ObjectMapper mapper) {
         mapper.registerModule(new JavaTimeModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         mapper.activateDefaultTyping(
@@ -55,6 +67,23 @@ public class RedisConfig {
         return new GenericJackson2JsonRedisSerializer(createRedisObjectMapper());
     }
 
+    /**
+     * Serializer for cached values, selected by product.cache.serializer.
+     * The RedisTemplate and pub/sub messages keep using JSON.
+     */
+    @Bean
+    public RedisSerializer<Object> cacheValueSerializer(GenericJackson2JsonRedisSerializer redisSerializer,
+            TwoLevelCacheProperties cacheProperties) {
+        if (!"smile".equalsIgnoreCase(cacheProperties.getSerializer())) {
+            return redisSerializer;
+        }
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new CompactRedisSerializer(configureRedisObjectMapper(new ObjectMapper(smileFactory)),
+                redisSerializer, cacheProperties.getCompressionThresholdBytes());
+    }
+
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
             GenericJackson2JsonRedisSerializer redisSerializer) {
@@ -68,22 +97,47 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
-            GenericJackson2JsonRedisSerializer redisSerializer) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            RedisSerializer<Object> cacheValueSerializer,
+            RedisTemplate<String, Object> redisTemplate,
+            TwoLevelCacheProperties cacheProperties) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
+                .entryTtl(cacheProperties.getDefaults().getTtl())
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisSerializer))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer))
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        cacheProperties.getCaches().keySet().forEach(name ->
+                cacheConfigurations.put(name, defaultConfig.entryTtl(cacheProperties.specFor(name).getTtl())));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
-                .withCacheConfiguration("product", defaultConfig.entryTtl(Duration.ofMinutes(10)))
-                .withCacheConfiguration("products", defaultConfig.entryTtl(Duration.ofMinutes(20)))
-                .withCacheConfiguration("category", defaultConfig.entryTtl(Duration.ofMinutes(30)))
-                .withCacheConfiguration("categories", defaultConfig.entryTtl(Duration.ofHours(30)))
-                .withCacheConfiguration("brand", defaultConfig.entryTtl(Duration.ofMinutes(30)))
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, cacheProperties, redisTemplate);
+    }
+
+    /**
+     * Drops L1 entries when another replica writes or evicts the same key.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager,
+            GenericJackson2JsonRedisSerializer redisSerializer,
+            TwoLevelCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            Object payload = redisSerializer.deserialize(message.getBody());
+            if (payload instanceof CacheInvalidationMessage invalidation) {
+                cacheManager.onInvalidation(invalidation);
+            }
+        }, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        return container;
     }
 }
@@ -0,0 +1,48 @@
+package com.bookstore.product.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "product.cache")
+public class TwoLevelCacheProperties {
+
+    private String invalidationChannel = "book_store:cache-invalidation";
+    // Value encoding for the Redis tier: "smile" (binary) or "json"
+    private String serializer = "smile";
+    // Smile payloads at least this large are LZ4-compressed; 0 disables compression
+    private int compressionThresholdBytes = 1024;
+    private CacheSpec defaults = new CacheSpec(Duration.ofMinutes(30), Duration.ofMinutes(1), 1000L);
+    // Per-cache overrides; fields a cache leaves out are taken from defaults
+    private Map<String, CacheSpec> caches = new HashMap<>();
+
+    public CacheSpec specFor(String cacheName) {
+        CacheSpec spec = caches.get(cacheName);
+        if (spec == null) {
+            return defaults;
+        }
+        return new CacheSpec(
+                spec.getTtl() != null ? spec.getTtl() : defaults.getTtl(),
+                spec.getLocalTtl() != null ? spec.getLocalTtl() : defaults.getLocalTtl(),
+                spec.getLocalMaxSize() != null ? spec.getLocalMaxSize() : defaults.getLocalMaxSize());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+        // Redis (L2) entry TTL
+        private Duration ttl;
+        // Caffeine (L1) TTL, kept short since it is only invalidated on a best-effort basis
+        private Duration localTtl;
+        private Long localMaxSize;
+    }
+}
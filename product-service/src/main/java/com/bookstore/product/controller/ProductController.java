@@ -4,8 +4,11 @@ import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.common.service.SharedFileService;
 import com.bookstore.product.dto.product.ProductDTO;
 import com.bookstore.product.dto.request.CreateProductRequest;
+import com.bookstore.product.dto.request.CursorPageRequest;
 import com.bookstore.product.dto.request.ProductSearchCriteria;
+import com.bookstore.product.service.IProductImportService;
 import com.bookstore.product.service.IProductService;
+import com.bookstore.product.stock.StockLevelReplica;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -20,6 +23,8 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+
 import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
 
 @RestController
@@ -31,7 +36,9 @@ import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
 public class ProductController {
 
     private final IProductService productService;
+    private final IProductImportService productImportService;
     private final SharedFileService sharedFileService;
+    private final StockLevelReplica stockLevelReplica;
 
     @PostMapping(consumes = MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
@@ -53,6 +60,27 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/import", consumes = MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Bulk import products from a CSV or JSON file (Seller or Admin)", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ServiceResponse> importProducts(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestHeader("X-User-Id") Long userId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(productImportService.startImport(file, format, userId));
+    }
+
+    @GetMapping("/import/{jobId}")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    @Operation(summary = "Get bulk import progress and row errors", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ServiceResponse> getImportJob(
+            @PathVariable String jobId,
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestHeader(value = "X-User-Roles", required = false) String role) {
+        boolean isAdmin = role != null && role.contains("ADMIN");
+        return ResponseEntity.ok(productImportService.getImportJob(jobId, userId, isAdmin));
+    }
+
     @PutMapping(value = "/{id}", consumes = MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasAnyRole('SELLER', 'ADMIN')")
     @Operation(summary = "Update product (Owner or Admin)", security = @SecurityRequirement(name = "bearerAuth"))
@@ -100,13 +128,26 @@ public class ProductController {
     @GetMapping("/{id}")
     @Operation(summary = "Get product by ID")
     public ResponseEntity<ServiceResponse> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+        ServiceResponse response = productService.getProductById(id);
+        productService.recordView(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/stock")
+    @Operation(summary = "Get available stock for many products from the local stock replica")
+    public ResponseEntity<ServiceResponse> getStockLevels(@RequestParam List<Long> productIds) {
+        return ResponseEntity.ok(ServiceResponse.RESPONSE_SUCCESS(stockLevelReplica.getAvailable(productIds)));
     }
 
     @GetMapping("/slug/{slug}")
     @Operation(summary = "Get product by slug")
     public ResponseEntity<ServiceResponse> getProductBySlug(@PathVariable String slug) {
-        return ResponseEntity.ok(productService.getProductBySlug(slug));
+        ServiceResponse response = productService.getProductBySlug(slug);
+        ProductDTO product = (ProductDTO) response.getData();
+        if (product != null) {
+            productService.recordView(product.getId());
+        }
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/seller/{sellerId}")
@@ -138,8 +179,43 @@ public class ProductController {
     @Operation(summary = "Get products by category")
     public ResponseEntity<ServiceResponse> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
             @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId, pageable));
+        return ResponseEntity.ok(productService.getProductsByCategory(categoryId, includeSubcategories, pageable));
+    }
+
+    @GetMapping("/search/cursor")
+    @Operation(summary = "Advanced product search with cursor (keyset) pagination")
+    public ResponseEntity<ServiceResponse> searchProductsByCursor(
+            @ModelAttribute ProductSearchCriteria criteria,
+            @ModelAttribute CursorPageRequest pageRequest) {
+        return ResponseEntity.ok(productService.searchProductsByCursor(criteria, pageRequest));
+    }
+
+    @GetMapping("/category/{categoryId}/cursor")
+    @Operation(summary = "Get products by category with cursor (keyset) pagination")
+    public ResponseEntity<ServiceResponse> getProductsByCategoryCursor(
+            @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
+            @ModelAttribute CursorPageRequest pageRequest) {
+        return ResponseEntity.ok(productService.getProductsByCategoryCursor(categoryId, includeSubcategories, pageRequest));
+    }
+
+    @GetMapping("/seller/{sellerId}/cursor")
+    @Operation(summary = "Get products by seller with cursor (keyset) pagination")
+    public ResponseEntity<ServiceResponse> getProductsBySellerCursor(
+            @PathVariable Long sellerId,
+            @ModelAttribute CursorPageRequest pageRequest) {
+        return ResponseEntity.ok(productService.getProductsBySellerCursor(sellerId, pageRequest));
+    }
+
+    @GetMapping("/my-products/cursor")
+    @PreAuthorize("hasAnyRole('SELLER', 'ADMIN')")
+    @Operation(summary = "Get my products with cursor (keyset) pagination (Seller or Admin)", security = @SecurityRequirement(name = "bearerAuth"))
+    public ResponseEntity<ServiceResponse> getMyProductsCursor(
+            @RequestHeader("X-User-Id") Long userId,
+            @ModelAttribute CursorPageRequest pageRequest) {
+        return ResponseEntity.ok(productService.getMyProductsCursor(userId, pageRequest));
     }
 
     @DeleteMapping("/{id}")
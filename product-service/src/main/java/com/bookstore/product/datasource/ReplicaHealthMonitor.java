@@ -0,0 +1,123 @@
+package com.bookstore.product.datasource;
+
+import com.bookstore.product.config.ReadReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Owns the replica connection pools and tracks which replicas are reachable and within
+ * the allowed replication lag. Read-only transactions are spread round-robin over the
+ * healthy ones; when none is healthy they fall back to the primary.
+ */
+@Slf4j
+public class ReplicaHealthMonitor implements DisposableBean {
+
+    private final ReadReplicaProperties properties;
+    private final Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+    private final Map<String, Long> lagSeconds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaHealthMonitor(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        for (ReadReplicaProperties.Node node : properties.getNodes()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + node.getName());
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername());
+            dataSource.setPassword(node.getPassword());
+            if (node.getDriverClassName() != null) {
+                dataSource.setDriverClassName(node.getDriverClassName());
+            }
+            dataSource.setMaximumPoolSize(node.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            // Do not fail startup when a replica is down; the health check keeps it out of rotation.
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.put(node.getName(), dataSource);
+
+            Gauge.builder("product.datasource.replica.lag", lagSeconds, m -> m.getOrDefault(node.getName(), -1L))
+                    .description("Replication lag in seconds, -1 when unknown or unreachable")
+                    .tag("replica", node.getName())
+                    .register(meterRegistry);
+            Gauge.builder("product.datasource.replica.healthy", this,
+                            monitor -> monitor.healthyReplicas.contains(node.getName()) ? 1 : 0)
+                    .tag("replica", node.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    public Map<Object, Object> getTargetDataSources() {
+        return new LinkedHashMap<>(replicas);
+    }
+
+    public Optional<String> nextHealthyReplica() {
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return Optional.empty();
+        }
+        int index = Math.floorMod(nextReplica.getAndIncrement(), healthy.size());
+        return Optional.of(healthy.get(index));
+    }
+
+    @Scheduled(fixedDelayString = "${product.datasource.read-replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = replicas.entrySet().stream()
+                .filter(entry -> isHealthy(entry.getKey(), entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!healthy.equals(healthyReplicas)) {
+            log.info("Healthy read replicas: {}", healthy);
+        }
+        healthyReplicas = healthy;
+    }
+
+    private boolean isHealthy(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (!properties.isLagCheckEnabled()) {
+                statement.execute("SELECT 1");
+                lagSeconds.put(name, 0L);
+                return true;
+            }
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (!rs.next()) {
+                    // Not configured as a replica: treat as an up-to-date copy.
+                    lagSeconds.put(name, 0L);
+                    return true;
+                }
+                long lag = rs.getLong("Seconds_Behind_Source");
+                if (rs.wasNull()) {
+                    // Replication threads stopped.
+                    lagSeconds.put(name, -1L);
+                    return false;
+                }
+                lagSeconds.put(name, lag);
+                return lag <= properties.getMaxLagSeconds();
+            }
+        } catch (Exception e) {
+            log.warn("Read replica {} is unavailable: {}", name, e.getMessage());
+            lagSeconds.put(name, -1L);
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.values().forEach(HikariDataSource::close);
+    }
+}
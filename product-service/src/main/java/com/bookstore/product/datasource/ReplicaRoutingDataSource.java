@@ -0,0 +1,37 @@
+package com.bookstore.product.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections for {@code @Transactional(readOnly = true)} work to a healthy replica
+ * and everything else to the primary. Must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is fetched after the transaction's read-only flag is set. Reads that fill a
+ * cache invalidated on commit must not be read-only, or they may cache a lagging row.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaHealthMonitor healthMonitor;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaHealthMonitor healthMonitor) {
+        this.healthMonitor = healthMonitor;
+        Map<Object, Object> targets = healthMonitor.getTargetDataSources();
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return healthMonitor.nextHealthyReplica().orElse(PRIMARY);
+        }
+        return PRIMARY;
+    }
+}
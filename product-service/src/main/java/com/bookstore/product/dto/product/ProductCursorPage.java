@@ -0,0 +1,19 @@
+package com.bookstore.product.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductCursorPage {
+    private List<ProductDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+}
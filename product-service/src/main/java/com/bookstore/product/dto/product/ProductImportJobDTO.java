@@ -0,0 +1,36 @@
+package com.bookstore.product.dto.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJobDTO {
+    private String jobId;
+    private String fileName;
+    private String status;
+    private long processedRows;
+    private long importedRows;
+    private long failedRows;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String failureReason;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RowError {
+        private long row;
+        private String title;
+        private String message;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bookstore.product.dto.request;
+
+import lombok.Data;
+
+@Data
+public class CursorPageRequest {
+    // Opaque value from the previous page's nextCursor; empty for the first page
+    private String cursor;
+    private Integer size = 20;
+    // "<field>,<asc|desc>" where field is createdAt, sellingPrice or id
+    private String sort = "createdAt,desc";
+}
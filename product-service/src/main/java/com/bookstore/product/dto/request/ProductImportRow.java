@@ -0,0 +1,65 @@
+package com.bookstore.product.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One line of a bulk import file. Category, publisher and authors may be given either
+ * by id or by slug/name; they are resolved against maps loaded once per job.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductImportRow {
+
+    @NotBlank(message = "Title is required")
+    @Size(max = 255, message = "Title must be less than 255 characters")
+    private String title;
+
+    @Size(max = 20, message = "ISBN must be less than 20 characters")
+    private String isbn;
+
+    private String description;
+
+    @Size(max = 500, message = "Short description must be less than 500 characters")
+    private String shortDescription;
+
+    @NotNull(message = "Original price is required")
+    @DecimalMin(value = "0.0", inclusive = false, message = "Price must be greater than 0")
+    private BigDecimal originalPrice;
+
+    @DecimalMin(value = "0.0", message = "Discount percent must be >= 0")
+    @DecimalMax(value = "100.0", message = "Discount percent must be <= 100")
+    private BigDecimal discountPercent;
+
+    // Category id or slug
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    // Publisher id, slug or name
+    private String publisher;
+
+    // Author ids, slugs or names; "|"-separated in CSV files
+    private List<String> authors;
+
+    private LocalDate publicationDate;
+    private String language;
+    private Integer pageCount;
+    private Integer weight;
+    private String dimensions;
+    private String coverType;
+
+    private String metaTitle;
+    private String metaDescription;
+    private String metaKeywords;
+}
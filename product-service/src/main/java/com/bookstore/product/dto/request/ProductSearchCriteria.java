@@ -8,6 +8,8 @@ import java.math.BigDecimal;
 public class ProductSearchCriteria {
     private String keyword;
     private Long categoryId;
+    // Also match products in any descendant of categoryId
+    private boolean includeSubcategories;
     private Long publisherId;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
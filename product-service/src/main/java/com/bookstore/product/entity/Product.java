@@ -22,7 +22,13 @@ import java.util.List;
         @Index(name = "idx_products_price", columnList = "selling_price"),
         @Index(name = "idx_products_featured", columnList = "is_featured"),
         @Index(name = "idx_products_bestseller", columnList = "is_bestseller"),
-        @Index(name = "idx_products_seller", columnList = "seller_id")
+        @Index(name = "idx_products_seller", columnList = "seller_id"),
+        @Index(name = "idx_products_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_products_status_price", columnList = "status, selling_price, id"),
+        @Index(name = "idx_products_category_status_created", columnList = "category_id, status, created_at, id"),
+        @Index(name = "idx_products_category_status_price", columnList = "category_id, status, selling_price, id"),
+        @Index(name = "idx_products_seller_status_created", columnList = "seller_id, status, created_at, id"),
+        @Index(name = "idx_products_seller_status_price", columnList = "seller_id, status, selling_price, id")
 })
 @EntityListeners(AuditingEntityListener.class)
 @Data
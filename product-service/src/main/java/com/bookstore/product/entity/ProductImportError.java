@@ -0,0 +1,32 @@
+package com.bookstore.product.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "product_import_errors", indexes = {
+        @Index(name = "idx_product_import_errors_job", columnList = "job_id, source_row")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false, length = 36)
+    private String jobId;
+
+    // Row number in the uploaded file; "row_number" is a reserved word in MySQL 8.
+    @Column(name = "source_row", nullable = false)
+    private long sourceRow;
+
+    @Column(length = 255)
+    private String title;
+
+    @Column(length = 1000)
+    private String message;
+}
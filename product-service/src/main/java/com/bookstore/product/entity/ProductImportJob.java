@@ -0,0 +1,152 @@
+package com.bookstore.product.entity;
+
+import com.bookstore.product.dto.product.ProductImportJobDTO;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Progress of one bulk import. The import thread updates it in memory and saves it after
+ * every batch together with the row errors collected since the last save; status requests
+ * read it from the table, so any instance can answer them. Only the first
+ * {@link #MAX_ERRORS} row errors are kept.
+ */
+@Entity
+@Table(name = "product_import_jobs", indexes = {
+        @Index(name = "idx_product_import_jobs_status_updated", columnList = "status, updated_at"),
+        @Index(name = "idx_product_import_jobs_finished", columnList = "finished_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProductImportJob {
+
+    public static final int MAX_ERRORS = 1000;
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    @Id
+    @Column(name = "job_id", length = 36)
+    private String jobId;
+
+    @Column(name = "seller_id", nullable = false)
+    private Long sellerId;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "processed_rows", nullable = false)
+    private long processedRows;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    @Column(name = "failure_reason", length = 1000)
+    private String failureReason;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Transient
+    private final List<ProductImportError> pendingErrors = new ArrayList<>();
+
+    public ProductImportJob(String jobId, Long sellerId, String fileName) {
+        this.jobId = jobId;
+        this.sellerId = sellerId;
+        this.fileName = fileName;
+        this.status = Status.QUEUED;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(String reason) {
+        failureReason = truncate(reason, 1000);
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public void recordImported(int count) {
+        processedRows += count;
+        importedRows += count;
+    }
+
+    public void recordError(long row, String title, String message) {
+        processedRows++;
+        failedRows++;
+        if (failedRows <= MAX_ERRORS) {
+            pendingErrors.add(ProductImportError.builder()
+                    .jobId(jobId)
+                    .sourceRow(row)
+                    .title(truncate(title, 255))
+                    .message(truncate(message, 1000))
+                    .build());
+        }
+    }
+
+    /**
+     * Row errors recorded since the last call, for saving with the job.
+     */
+    public List<ProductImportError> takePendingErrors() {
+        List<ProductImportError> taken = new ArrayList<>(pendingErrors);
+        pendingErrors.clear();
+        return taken;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public ProductImportJobDTO toDTO(List<ProductImportError> errors) {
+        return ProductImportJobDTO.builder()
+                .jobId(jobId)
+                .fileName(fileName)
+                .status(status.name())
+                .processedRows(processedRows)
+                .importedRows(importedRows)
+                .failedRows(failedRows)
+                .errors(errors.stream()
+                        .map(error -> new ProductImportJobDTO.RowError(error.getSourceRow(), error.getTitle(),
+                                error.getMessage()))
+                        .toList())
+                .errorsTruncated(failedRows > errors.size())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .failureReason(failureReason)
+                .build();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
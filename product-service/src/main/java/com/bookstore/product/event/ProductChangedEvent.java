@@ -0,0 +1,21 @@
+package com.bookstore.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published inside the transaction that created, updated or deleted a product.
+ * Listeners react after commit so they never observe uncommitted rows.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final Long productId;
+
+    // Slug the product was reachable under before this change, when the title changed.
+    private final String previousSlug;
+
+    public ProductChangedEvent(Long productId) {
+        this(productId, null);
+    }
+}
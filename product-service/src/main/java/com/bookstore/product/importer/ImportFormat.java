@@ -0,0 +1,27 @@
+package com.bookstore.product.importer;
+
+import com.bookstore.common.exception.BusinessException;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV, JSON;
+
+    public static ImportFormat detect(String format, String fileName) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Unsupported import format: " + format);
+            }
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+            return JSON;
+        }
+        throw new BusinessException("Cannot detect import format for file: " + fileName);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bookstore.product.importer;
+
+import com.bookstore.product.dto.product.ProductImportJobDTO;
+import com.bookstore.product.entity.ProductImportJob;
+import com.bookstore.product.repository.ProductImportErrorRepository;
+import com.bookstore.product.repository.ProductImportJobRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps import jobs and their row errors in product_import_jobs and product_import_errors.
+ * Reads are not read-only on purpose: a job polled right after it was started may not have
+ * reached a lagging replica yet.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductImportJobStore {
+
+    private static final List<ProductImportJob.Status> ACTIVE =
+            List.of(ProductImportJob.Status.QUEUED, ProductImportJob.Status.RUNNING);
+
+    private final ProductImportJobRepository jobRepository;
+    private final ProductImportErrorRepository errorRepository;
+
+    /**
+     * Saves the job's progress and the row errors recorded since the last save.
+     */
+    @Transactional
+    public void save(ProductImportJob job) {
+        job.setUpdatedAt(LocalDateTime.now());
+        errorRepository.saveAll(job.takePendingErrors());
+        jobRepository.save(job);
+    }
+
+    @Transactional
+    public Optional<ProductImportJob> find(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    @Transactional
+    public ProductImportJobDTO toDTO(ProductImportJob job) {
+        return job.toDTO(errorRepository.findByJobIdOrderBySourceRowAsc(job.getJobId()));
+    }
+
+    /**
+     * Marks jobs this instance is still working on as alive.
+     */
+    @Transactional
+    public void touch(Collection<String> jobIds) {
+        if (!jobIds.isEmpty()) {
+            jobRepository.touch(jobIds, LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Fails unfinished jobs nobody has touched since the cutoff: the instance running them
+     * stopped, and its copy of the upload went with it.
+     */
+    @Transactional
+    public int failStale(LocalDateTime cutoff) {
+        return jobRepository.failStale(ACTIVE, ProductImportJob.Status.FAILED,
+                "Import interrupted: the instance running it stopped", cutoff, LocalDateTime.now());
+    }
+
+    @Transactional
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        List<String> jobIds = jobRepository.findIdsFinishedBefore(cutoff);
+        if (jobIds.isEmpty()) {
+            return 0;
+        }
+        errorRepository.deleteByJobIds(jobIds);
+        jobRepository.deleteAllByIdInBatch(jobIds);
+        return jobIds.size();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bookstore.product.importer;
+
+import com.bookstore.product.dto.request.ProductImportRow;
+import com.bookstore.product.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A validated import row with its references resolved and the generated values that
+ * {@code createProduct} would otherwise compute per request.
+ */
+public record ProductImportRecord(
+        long row,
+        ProductImportRow source,
+        String sku,
+        String slug,
+        BigDecimal discountPercent,
+        BigDecimal sellingPrice,
+        Long categoryId,
+        Long publisherId,
+        List<Long> authorIds,
+        Product.CoverType coverType) {
+}
@@ -0,0 +1,73 @@
+package com.bookstore.product.importer;
+
+import com.bookstore.product.category.CategoryNode;
+import com.bookstore.product.category.CategoryTree;
+import com.bookstore.product.entity.Author;
+import com.bookstore.product.entity.Publisher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Category, publisher and author lookups loaded once at the start of an import job, so
+ * resolving a row's references never touches the database.
+ */
+public class ProductImportReferences {
+
+    private final CategoryTree categories;
+    private final Map<String, Long> publishers = new HashMap<>();
+    private final Map<String, Long> authors = new HashMap<>();
+
+    public ProductImportReferences(CategoryTree categories, List<Publisher> publishers, List<Author> authors) {
+        this.categories = categories;
+        for (Publisher publisher : publishers) {
+            register(this.publishers, publisher.getId(), publisher.getSlug(), publisher.getName());
+        }
+        for (Author author : authors) {
+            register(this.authors, author.getId(), author.getSlug(), author.getName());
+        }
+    }
+
+    public Optional<Long> resolveCategory(String reference) {
+        if (reference == null || reference.isBlank()) {
+            return Optional.empty();
+        }
+        String value = reference.trim();
+        Optional<CategoryNode> node = isNumeric(value)
+                ? categories.findById(Long.valueOf(value))
+                : categories.findBySlug(value.toLowerCase(Locale.ROOT));
+        return node.map(CategoryNode::getId);
+    }
+
+    public Optional<Long> resolvePublisher(String reference) {
+        return resolve(publishers, reference);
+    }
+
+    public Optional<Long> resolveAuthor(String reference) {
+        return resolve(authors, reference);
+    }
+
+    private static void register(Map<String, Long> index, Long id, String slug, String name) {
+        index.put(id.toString(), id);
+        if (slug != null) {
+            index.putIfAbsent(slug.toLowerCase(Locale.ROOT), id);
+        }
+        if (name != null) {
+            index.putIfAbsent(name.trim().toLowerCase(Locale.ROOT), id);
+        }
+    }
+
+    private static Optional<Long> resolve(Map<String, Long> index, String reference) {
+        if (reference == null || reference.isBlank()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(index.get(reference.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    private static boolean isNumeric(String value) {
+        return value.chars().allMatch(Character::isDigit);
+    }
+}
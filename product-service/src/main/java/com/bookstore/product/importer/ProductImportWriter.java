@@ -0,0 +1,128 @@
+package com.bookstore.product.importer;
+
+import com.bookstore.product.dto.request.ProductImportRow;
+import com.bookstore.product.entity.AuthorRole;
+import com.bookstore.product.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes import batches with plain JDBC batch statements instead of one JPA persist per
+ * product. Generated ids are read back by SKU, which the importer generates and which is
+ * unique, so product_authors can be batch-inserted in the same transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductImportWriter {
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products (sku, isbn, title, slug, description, "
+            + "short_description, original_price, selling_price, discount_percent, category_id, publisher_id, "
+            + "seller_id, seller_name, publication_date, language, page_count, weight, dimensions, cover_type, "
+            + "status, is_featured, is_bestseller, is_new_arrival, meta_title, meta_description, meta_keywords, "
+            + "view_count, sold_count, rating_average, rating_count, created_at, updated_at, is_deleted, is_visible) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, 0, 0, ?, ?, ?, ?)";
+
+    private static final String INSERT_PRODUCT_AUTHOR_SQL =
+            "INSERT INTO product_authors (product_id, author_id, author_role) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public Set<String> findExistingIsbns(Collection<String> isbns) {
+        if (isbns.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT isbn FROM products WHERE isbn IN (:values)", Map.of("values", isbns), String.class));
+    }
+
+    public Set<String> findExistingSlugs(Collection<String> slugs) {
+        if (slugs.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT slug FROM products WHERE slug IN (:values)", Map.of("values", slugs), String.class));
+    }
+
+    /**
+     * Inserts the batch and its author links atomically and returns the new product ids.
+     */
+    @Transactional
+    public List<Long> write(List<ProductImportRecord> batch, Long sellerId, String sellerName) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, batch, batch.size(), (ps, record) -> {
+            ProductImportRow row = record.source();
+            int i = 1;
+            ps.setString(i++, record.sku());
+            ps.setString(i++, blankToNull(row.getIsbn()));
+            ps.setString(i++, row.getTitle().trim());
+            ps.setString(i++, record.slug());
+            ps.setString(i++, row.getDescription());
+            ps.setString(i++, row.getShortDescription());
+            ps.setBigDecimal(i++, row.getOriginalPrice());
+            ps.setBigDecimal(i++, record.sellingPrice());
+            ps.setBigDecimal(i++, record.discountPercent());
+            ps.setLong(i++, record.categoryId());
+            ps.setObject(i++, record.publisherId(), Types.BIGINT);
+            ps.setLong(i++, sellerId);
+            ps.setString(i++, sellerName);
+            ps.setDate(i++, row.getPublicationDate() != null ? Date.valueOf(row.getPublicationDate()) : null);
+            ps.setString(i++, row.getLanguage() != null ? row.getLanguage() : "Tiếng Việt");
+            ps.setObject(i++, row.getPageCount(), Types.INTEGER);
+            ps.setObject(i++, row.getWeight(), Types.INTEGER);
+            ps.setString(i++, row.getDimensions());
+            ps.setString(i++, record.coverType().name());
+            ps.setString(i++, Product.ProductStatus.PENDING.name());
+            ps.setBoolean(i++, false);
+            ps.setBoolean(i++, false);
+            ps.setBoolean(i++, true);
+            ps.setString(i++, row.getMetaTitle());
+            ps.setString(i++, row.getMetaDescription());
+            ps.setString(i++, row.getMetaKeywords());
+            ps.setTimestamp(i++, now);
+            ps.setTimestamp(i++, now);
+            ps.setBoolean(i++, false);
+            ps.setBoolean(i, true);
+        });
+
+        Map<String, Long> idsBySku = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, sku FROM products WHERE sku IN (:skus)",
+                Map.of("skus", batch.stream().map(ProductImportRecord::sku).toList()),
+                rs -> {
+                    idsBySku.put(rs.getString("sku"), rs.getLong("id"));
+                });
+
+        List<Object[]> authorLinks = new ArrayList<>();
+        List<Long> productIds = new ArrayList<>(batch.size());
+        for (ProductImportRecord record : batch) {
+            Long productId = idsBySku.get(record.sku());
+            productIds.add(productId);
+            for (Long authorId : record.authorIds()) {
+                authorLinks.add(new Object[]{productId, authorId, AuthorRole.AUTHOR.name()});
+            }
+        }
+        if (!authorLinks.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PRODUCT_AUTHOR_SQL, authorLinks);
+        }
+        return productIds;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
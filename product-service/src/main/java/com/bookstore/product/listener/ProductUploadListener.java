@@ -5,6 +5,7 @@ import com.bookstore.common.messaging.RabbitMQConstants;
 import com.bookstore.product.dto.productImage.ProductImageDTO;
 import com.bookstore.product.entity.Product;
 import com.bookstore.product.entity.ProductImage;
+import com.bookstore.product.event.ProductChangedEvent;
 import com.bookstore.product.repository.ProductRepository;
 import com.bookstore.product.service.IProductImageService;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +14,7 @@ import org.springframework.amqp.rabbit.annotation.Exchange;
 import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.QueueBinding;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +29,7 @@ public class ProductUploadListener {
 
     private final ProductRepository productRepository;
     private final IProductImageService iProductImageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @RabbitListener(bindings = @QueueBinding(value = @Queue(value = RabbitMQConstants.FILE_UPLOAD_RESULT_QUEUE, durable = "true"), exchange = @Exchange(value = RabbitMQConstants.FILE_EXCHANGE), key = RabbitMQConstants.FILE_UPLOAD_RESULT_ROUTING_KEY))
     @Transactional
@@ -48,6 +51,7 @@ public class ProductUploadListener {
                         result.getEntityId(),
                         result.getFileUrl(),
                         Product.ProductStatus.ACTIVE);
+                eventPublisher.publishEvent(new ProductChangedEvent(result.getEntityId()));
 
             } catch (Exception e) {
                 log.error("Error updating product image: {}", e.getMessage());
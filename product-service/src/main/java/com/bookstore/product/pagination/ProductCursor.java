@@ -0,0 +1,86 @@
+package com.bookstore.product.pagination;
+
+import com.bookstore.common.exception.BusinessException;
+import com.bookstore.product.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Position of the last row of a keyset page: the sort key value and the id used as
+ * tie-breaker. Encoded as an opaque URL-safe token for clients.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final SortKey sortKey;
+    private final Sort.Direction direction;
+    private final Comparable<?> keyValue;
+    private final Long id;
+
+    public static ProductCursor after(Product product, SortKey sortKey, Sort.Direction direction) {
+        return new ProductCursor(sortKey, direction, sortKey.extractor.apply(product), product.getId());
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + SEPARATOR + direction.name() + SEPARATOR
+                + (keyValue != null ? keyValue.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token, SortKey expectedKey, Sort.Direction expectedDirection) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            SortKey sortKey = SortKey.valueOf(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            if (sortKey != expectedKey || direction != expectedDirection) {
+                throw new BusinessException("Cursor does not match the requested sort");
+            }
+            Comparable<?> keyValue = parts[2].isEmpty() ? null : sortKey.parser.apply(parts[2]);
+            return new ProductCursor(sortKey, direction, keyValue, Long.valueOf(parts[3]));
+        } catch (BusinessException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+
+    public enum SortKey {
+        CREATED_AT("createdAt", Product::getCreatedAt, LocalDateTime::parse),
+        SELLING_PRICE("sellingPrice", Product::getSellingPrice, BigDecimal::new),
+        ID("id", Product::getId, Long::valueOf);
+
+        private final String property;
+        private final Function<Product, Comparable<?>> extractor;
+        private final Function<String, Comparable<?>> parser;
+
+        SortKey(String property, Function<Product, Comparable<?>> extractor, Function<String, Comparable<?>> parser) {
+            this.property = property;
+            this.extractor = extractor;
+            this.parser = parser;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static SortKey fromProperty(String property) {
+            for (SortKey key : values()) {
+                if (key.property.equals(property)) {
+                    return key;
+                }
+            }
+            throw new BusinessException("Unsupported cursor sort field: " + property);
+        }
+    }
+}
@@ -3,8 +3,11 @@ package com.bookstore.product.repository;
 import com.bookstore.product.entity.ProductAuthor;
 import com.bookstore.product.entity.ProductAuthorId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,6 +15,9 @@ public interface ProductAuthorRepository extends JpaRepository<ProductAuthor, Pr
 
     List<ProductAuthor> findByProductId(Long productId);
 
+    @Query("SELECT pa FROM ProductAuthor pa JOIN FETCH pa.author WHERE pa.id.productId IN :productIds")
+    List<ProductAuthor> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     List<ProductAuthor> findByAuthorId(Long authorId);
 
     void deleteByProductId(Long productId);
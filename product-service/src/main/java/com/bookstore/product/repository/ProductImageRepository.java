@@ -2,13 +2,19 @@ package com.bookstore.product.repository;
 
 import com.bookstore.product.entity.ProductImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductImageRepository extends JpaRepository<ProductImage, Long> {
     List<ProductImage> findByProductId(Long productId);
 
+    @Query("SELECT pi FROM ProductImage pi WHERE pi.product.id IN :productIds ORDER BY pi.displayOrder ASC, pi.id ASC")
+    List<ProductImage> findByProductIdIn(@Param("productIds") Collection<Long> productIds);
+
     void deleteByProductId(Long productId);
 }
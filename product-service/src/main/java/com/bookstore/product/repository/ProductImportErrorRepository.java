@@ -0,0 +1,21 @@
+package com.bookstore.product.repository;
+
+import com.bookstore.product.entity.ProductImportError;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductImportErrorRepository extends JpaRepository<ProductImportError, Long> {
+
+    List<ProductImportError> findByJobIdOrderBySourceRowAsc(String jobId);
+
+    @Modifying
+    @Query("DELETE FROM ProductImportError e WHERE e.jobId IN :jobIds")
+    int deleteByJobIds(@Param("jobIds") Collection<String> jobIds);
+}
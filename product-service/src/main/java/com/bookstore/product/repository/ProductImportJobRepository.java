@@ -0,0 +1,32 @@
+package com.bookstore.product.repository;
+
+import com.bookstore.product.entity.ProductImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProductImportJobRepository extends JpaRepository<ProductImportJob, String> {
+
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.updatedAt = :now WHERE j.jobId IN :jobIds")
+    int touch(@Param("jobIds") Collection<String> jobIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.status = :failed, j.failureReason = :reason, j.finishedAt = :now, "
+            + "j.updatedAt = :now WHERE j.status IN :active AND j.updatedAt < :cutoff")
+    int failStale(@Param("active") Collection<ProductImportJob.Status> active,
+                  @Param("failed") ProductImportJob.Status failed,
+                  @Param("reason") String reason,
+                  @Param("cutoff") LocalDateTime cutoff,
+                  @Param("now") LocalDateTime now);
+
+    @Query("SELECT j.jobId FROM ProductImportJob j WHERE j.finishedAt < :cutoff")
+    List<String> findIdsFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -9,12 +9,15 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
 
     Optional<Product> findBySku(String sku);
 
@@ -22,6 +25,9 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     Optional<Product> findByIsbn(String isbn);
 
+    @Query("SELECT p.slug FROM Product p WHERE p.id = :id")
+    Optional<String> findSlugById(@Param("id") Long id);
+
     boolean existsBySku(String sku);
 
     boolean existsBySlug(String slug);
@@ -39,6 +45,10 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     Page<Product> findByCategoryIdAndStatus(Long categoryId, Product.ProductStatus status, Pageable pageable);
 
+    Page<Product> findByCategoryIdInAndStatus(Collection<Long> categoryIds, Product.ProductStatus status, Pageable pageable);
+
+    List<Product> findByStatusAndIdGreaterThanOrderByIdAsc(Product.ProductStatus status, Long id, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE " +
             "(LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
             "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) " +
@@ -0,0 +1,16 @@
+package com.bookstore.product.repository;
+
+import com.bookstore.product.entity.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Runs the specification with ORDER BY and LIMIT only, without the COUNT query
+     * that {@code findAll(Specification, Pageable)} issues.
+     */
+    List<Product> findAllWithLimit(Specification<Product> spec, Sort sort, int limit);
+}
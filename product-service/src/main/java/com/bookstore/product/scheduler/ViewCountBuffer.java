@@ -0,0 +1,98 @@
+package com.bookstore.product.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects product views in memory and writes the summed deltas back in one JDBC batch,
+ * so product reads never take a row lock. At most one flush interval of views is lost
+ * if the instance dies without a graceful shutdown.
+ */
+@Component
+@Slf4j
+public class ViewCountBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE products SET view_count = view_count + ? WHERE id = ?";
+
+    // Counts updated with merge and taken with remove: both are atomic per key, so every
+    // view is counted either in the map or in the batch being flushed, never lost between them.
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter flushedCounter;
+    private final Counter failedCounter;
+
+    public ViewCountBuffer(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushedCounter = Counter.builder("product.view_count.flushed")
+                .description("Views written back to the products table")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("product.view_count.flush_failures")
+                .description("View count flushes that failed and were re-queued")
+                .register(meterRegistry);
+        Gauge.builder("product.view_count.pending", this, ViewCountBuffer::pendingViews)
+                .description("Views buffered in memory and not yet flushed")
+                .register(meterRegistry);
+        Gauge.builder("product.view_count.pending_products", pending, Map::size)
+                .description("Products with buffered views")
+                .register(meterRegistry);
+    }
+
+    public void record(Long productId) {
+        pending.merge(productId, 1L, Long::sum);
+    }
+
+    @Scheduled(fixedDelayString = "${product.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        long total = 0;
+        // A view recorded after its key was removed starts a new entry for the next flush.
+        for (Long productId : pending.keySet()) {
+            Long removed = pending.remove(productId);
+            long delta = removed != null ? removed : 0;
+            if (delta > 0) {
+                batch.add(new Object[]{delta, productId});
+                total += delta;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Fixed row order keeps concurrent flushes from several replicas deadlock-free.
+        batch.sort((a, b) -> Long.compare((Long) a[1], (Long) b[1]));
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            flushedCounter.increment(total);
+        } catch (Exception e) {
+            log.error("Failed to flush {} product views, re-queueing: {}", total, e.getMessage());
+            failedCounter.increment();
+            for (Object[] row : batch) {
+                pending.merge((Long) row[1], (Long) row[0], Long::sum);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private double pendingViews() {
+        return pending.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
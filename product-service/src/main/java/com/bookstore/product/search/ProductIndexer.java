@@ -0,0 +1,148 @@
+package com.bookstore.product.search;
+
+import com.bookstore.common.messaging.ProductChangedMessage;
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.product.dto.author.AuthorDTO;
+import com.bookstore.product.entity.Product;
+import com.bookstore.product.event.ProductChangedEvent;
+import com.bookstore.product.repository.ProductRepository;
+import com.bookstore.product.service.IProductAuthorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps {@link ProductSearchIndex} in sync with the products table: a full rebuild on
+ * startup, then incremental updates after every committed product change. Changes are
+ * also broadcast on a fanout exchange so every replica refreshes its own local index.
+ * Products reindexed while a rebuild is running are reindexed again once it commits, since
+ * the rebuild may have read them before the change and overwritten the newer document.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductIndexer {
+
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductRepository productRepository;
+    private final IProductAuthorService productAuthorService;
+    private final RabbitTemplate rabbitTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "product-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    @Value("${product.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!rebuildOnStartup) {
+            productSearchIndex.markReady();
+            return;
+        }
+        rebuildExecutor.submit(this::rebuild);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        reindex(event.getProductId());
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConstants.PRODUCT_EXCHANGE, "",
+                    new ProductChangedMessage(event.getProductId(), instanceId));
+        } catch (Exception e) {
+            log.warn("Failed to broadcast index update for product {}: {}", event.getProductId(), e.getMessage());
+        }
+    }
+
+    @RabbitListener(bindings = @QueueBinding(value = @Queue(exclusive = "true", autoDelete = "true"), exchange = @Exchange(value = RabbitMQConstants.PRODUCT_EXCHANGE, type = ExchangeTypes.FANOUT)))
+    public void onPeerProductChanged(ProductChangedMessage message) {
+        if (instanceId.equals(message.getOriginInstanceId())) {
+            return;
+        }
+        reindex(message.getProductId());
+    }
+
+    public void reindex(Long productId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(productId);
+        }
+        try {
+            productRepository.findById(productId).ifPresentOrElse(
+                    product -> productSearchIndex.index(product, productAuthorService.getAuthorsByProductId(productId)),
+                    () -> productSearchIndex.delete(productId));
+            productSearchIndex.commit();
+        } catch (Exception e) {
+            log.error("Failed to reindex product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long lastId = 0L;
+        int indexed = 0;
+        rebuilding = true;
+        try {
+            productSearchIndex.deleteAll();
+            while (true) {
+                List<Product> batch = productRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        Product.ProductStatus.ACTIVE, lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = batch.stream().map(Product::getId).toList();
+                Map<Long, List<AuthorDTO>> authorsByProduct = productAuthorService.getAuthorsByProductIds(ids);
+                for (Product product : batch) {
+                    productSearchIndex.index(product,
+                            authorsByProduct.getOrDefault(product.getId(), Collections.emptyList()));
+                }
+                indexed += batch.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+            productSearchIndex.commit();
+            rebuilding = false;
+            reindexChangedDuringRebuild();
+            productSearchIndex.markReady();
+            log.info("Rebuilt product search index: {} products in {} ms", indexed, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Product search index rebuild failed after {} products: {}", indexed, e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private void reindexChangedDuringRebuild() {
+        for (Long productId : List.copyOf(changedDuringRebuild)) {
+            changedDuringRebuild.remove(productId);
+            reindex(productId);
+        }
+    }
+}
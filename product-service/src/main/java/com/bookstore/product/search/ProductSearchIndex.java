@@ -0,0 +1,292 @@
+package com.bookstore.product.search;
+
+import com.bookstore.product.dto.author.AuthorDTO;
+import com.bookstore.product.dto.request.ProductSearchCriteria;
+import com.bookstore.product.entity.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Embedded Lucene inverted index over ACTIVE products. Only ids are stored;
+ * callers load the matching rows by primary key.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_AUTHORS = "authors";
+    private static final String FIELD_DESCRIPTION = "description";
+    private static final String FIELD_CATEGORY = "categoryId";
+    private static final String FIELD_PUBLISHER = "publisherId";
+    private static final String FIELD_PRICE = "sellingPrice";
+    private static final String FIELD_CREATED_AT = "createdAt";
+
+    private static final Map<String, SortField.Type> SORTABLE_FIELDS = Map.of(
+            FIELD_PRICE, SortField.Type.LONG,
+            FIELD_CREATED_AT, SortField.Type.LONG);
+
+    @Value("${product.search.index-path:./data/product-index}")
+    private String indexPath;
+
+    private final Analyzer analyzer = new VietnameseFoldingAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexPath));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        log.info("Opened product search index at {} ({} docs)", indexPath, writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        ready = false;
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean supports(Pageable pageable) {
+        return ready && pageable.getSort().stream()
+                .allMatch(order -> SORTABLE_FIELDS.containsKey(order.getProperty()));
+    }
+
+    public void index(Product product, List<AuthorDTO> authors) {
+        try {
+            if (product.getStatus() != Product.ProductStatus.ACTIVE) {
+                writer.deleteDocuments(idTerm(product.getId()));
+            } else {
+                writer.updateDocument(idTerm(product.getId()), toDocument(product, authors));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index product " + product.getId(), e);
+        }
+    }
+
+    public void delete(Long productId) {
+        try {
+            writer.deleteDocuments(idTerm(productId));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to remove product " + productId + " from index", e);
+        }
+    }
+
+    public void deleteAll() {
+        try {
+            writer.deleteAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to clear product index", e);
+        }
+    }
+
+    /**
+     * Makes pending changes visible to searches and durable on disk.
+     */
+    public void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to commit product index", e);
+        }
+    }
+
+    public Page<Long> search(ProductSearchCriteria criteria, Collection<Long> categoryIds, Pageable pageable) {
+        Query query = buildQuery(criteria, categoryIds);
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = pageable.getSort().isSorted()
+                    ? searcher.search(query, limit, toLuceneSort(pageable))
+                    : searcher.search(query, limit);
+            int total = searcher.count(query);
+
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            List<Long> ids = new ArrayList<>();
+            for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                ids.add(Long.valueOf(storedFields.document(hits[i].doc).get(FIELD_ID)));
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release index searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Query buildQuery(ProductSearchCriteria criteria, Collection<Long> categoryIds) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+
+        List<String> terms = StringUtils.hasText(criteria.getKeyword())
+                ? analyze(criteria.getKeyword())
+                : List.of();
+        if (terms.isEmpty()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        for (int i = 0; i < terms.size(); i++) {
+            // The last term is treated as a prefix so search-as-you-type still matches.
+            boolean prefix = i == terms.size() - 1;
+            BooleanQuery termQuery = new BooleanQuery.Builder()
+                    .add(new BoostQuery(termOrPrefix(FIELD_TITLE, terms.get(i), prefix), 3f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(termOrPrefix(FIELD_AUTHORS, terms.get(i), prefix), 2f), BooleanClause.Occur.SHOULD)
+                    .add(termOrPrefix(FIELD_DESCRIPTION, terms.get(i), prefix), BooleanClause.Occur.SHOULD)
+                    .build();
+            builder.add(termQuery, BooleanClause.Occur.MUST);
+        }
+
+        if (categoryIds != null) {
+            builder.add(LongPoint.newSetQuery(FIELD_CATEGORY, categoryIds), BooleanClause.Occur.FILTER);
+        } else if (criteria.getCategoryId() != null) {
+            builder.add(LongPoint.newExactQuery(FIELD_CATEGORY, criteria.getCategoryId()), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getPublisherId() != null) {
+            builder.add(LongPoint.newExactQuery(FIELD_PUBLISHER, criteria.getPublisherId()), BooleanClause.Occur.FILTER);
+        }
+        if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+            long min = criteria.getMinPrice() != null
+                    ? toCents(criteria.getMinPrice(), RoundingMode.CEILING) : Long.MIN_VALUE;
+            long max = criteria.getMaxPrice() != null
+                    ? toCents(criteria.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+            builder.add(LongPoint.newRangeQuery(FIELD_PRICE, min, max), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Query termOrPrefix(String field, String text, boolean prefix) {
+        Term term = new Term(field, text);
+        return prefix ? new PrefixQuery(term) : new TermQuery(term);
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(FIELD_TITLE, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze search keyword", e);
+        }
+        return terms;
+    }
+
+    private Sort toLuceneSort(Pageable pageable) {
+        SortField[] fields = pageable.getSort().stream()
+                .map(order -> new SortField(order.getProperty(),
+                        SORTABLE_FIELDS.get(order.getProperty()), order.isDescending()))
+                .toArray(SortField[]::new);
+        return new Sort(fields);
+    }
+
+    private Document toDocument(Product product, List<AuthorDTO> authors) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, product.getId().toString(), Field.Store.YES));
+        doc.add(new TextField(FIELD_TITLE, product.getTitle(), Field.Store.NO));
+        if (product.getDescription() != null) {
+            doc.add(new TextField(FIELD_DESCRIPTION, product.getDescription(), Field.Store.NO));
+        }
+        if (authors != null && !authors.isEmpty()) {
+            String authorNames = authors.stream()
+                    .map(AuthorDTO::getName)
+                    .collect(Collectors.joining(" "));
+            doc.add(new TextField(FIELD_AUTHORS, authorNames, Field.Store.NO));
+        }
+        if (product.getCategory() != null) {
+            doc.add(new LongPoint(FIELD_CATEGORY, product.getCategory().getId()));
+        }
+        if (product.getPublisher() != null) {
+            doc.add(new LongPoint(FIELD_PUBLISHER, product.getPublisher().getId()));
+        }
+
+        long price = toCents(product.getSellingPrice(), RoundingMode.HALF_UP);
+        doc.add(new LongPoint(FIELD_PRICE, price));
+        doc.add(new NumericDocValuesField(FIELD_PRICE, price));
+
+        long createdAt = product.getCreatedAt() != null
+                ? product.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        doc.add(new NumericDocValuesField(FIELD_CREATED_AT, createdAt));
+        return doc;
+    }
+
+    private static Term idTerm(Long productId) {
+        return new Term(FIELD_ID, productId.toString());
+    }
+
+    private static long toCents(BigDecimal amount, RoundingMode roundingMode) {
+        return amount.movePointRight(2).setScale(0, roundingMode).longValueExact();
+    }
+}
@@ -0,0 +1,28 @@
+package com.bookstore.product.search;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+
+/**
+ * Lower-cases and strips diacritics the same way ProductFields.generateSlug does
+ * (combining marks removed, "đ" folded to "d"), so "Đắc Nhân Tâm" and
+ * "dac nhan tam" produce the same terms.
+ */
+public class VietnameseFoldingAnalyzer extends Analyzer {
+
+    @Override
+    protected TokenStreamComponents createComponents(String fieldName) {
+        StandardTokenizer source = new StandardTokenizer();
+        TokenStream filter = new LowerCaseFilter(source);
+        filter = new ASCIIFoldingFilter(filter);
+        return new TokenStreamComponents(source, filter);
+    }
+
+    @Override
+    protected TokenStream normalize(String fieldName, TokenStream in) {
+        return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+    }
+}
@@ -5,6 +5,7 @@ import com.bookstore.product.dto.request.CreateCategoryRequest;
 import com.bookstore.product.entity.Category;
 
 import java.util.Optional;
+import java.util.Set;
 
 public interface ICategoryService {
 
@@ -25,6 +26,11 @@ public interface ICategoryService {
 
     ServiceResponse getChildCategories(Long parentId);
 
+    /**
+     * IDs of the category and all of its descendants, served from the in-memory tree
+     */
+    Set<Long> getSubtreeIds(Long categoryId);
+
     ServiceResponse updateCategory(Long id, CreateCategoryRequest request);
 
     ServiceResponse deleteCategory(Long id);
@@ -6,12 +6,16 @@ import com.bookstore.product.entity.AuthorRole;
 import com.bookstore.product.entity.Product;
 import com.bookstore.product.entity.ProductAuthor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface IProductAuthorService {
 
     List<AuthorDTO> getAuthorsByProductId(Long productId);
 
+    Map<Long, List<AuthorDTO>> getAuthorsByProductIds(Collection<Long> productIds);
+
     List<ProductAuthor> findByProductId(Long productId);
 
     List<ProductAuthor> findByAuthorId(Long authorId);
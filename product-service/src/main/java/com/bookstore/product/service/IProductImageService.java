@@ -4,12 +4,16 @@ import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.product.dto.productImage.ProductImageDTO;
 import com.bookstore.product.entity.ProductImage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface IProductImageService {
 
     List<ProductImageDTO> getImagesByProductId(Long productId);
 
+    Map<Long, List<ProductImageDTO>> getImagesByProductIds(Collection<Long> productIds);
+
     List<ProductImage> findByProductId(Long productId);
 
     ServiceResponse addProductImage(Long productId, ProductImageDTO request);
@@ -0,0 +1,11 @@
+package com.bookstore.product.service;
+
+import com.bookstore.common.dto.response.ServiceResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface IProductImportService {
+
+    ServiceResponse startImport(MultipartFile file, String format, Long sellerId);
+
+    ServiceResponse getImportJob(String jobId, Long userId, boolean isAdmin);
+}
@@ -2,6 +2,7 @@ package com.bookstore.product.service;
 
 import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.product.dto.request.CreateProductRequest;
+import com.bookstore.product.dto.request.CursorPageRequest;
 import com.bookstore.product.dto.request.UpdateProductRequest;
 import com.bookstore.product.dto.request.ProductSearchCriteria;
 import org.springframework.data.domain.Pageable;
@@ -16,13 +17,24 @@ public interface IProductService {
 
     ServiceResponse getProductBySlug(String slug);
 
+    void recordView(Long productId);
+
     ServiceResponse getProductsBySeller(Long sellerId, Pageable pageable);
 
     ServiceResponse getMyProducts(Long sellerId, Pageable pageable);
 
     ServiceResponse searchProducts(ProductSearchCriteria criteria, Pageable pageable);
 
-    ServiceResponse getProductsByCategory(Long categoryId, Pageable pageable);
+    ServiceResponse getProductsByCategory(Long categoryId, boolean includeSubcategories, Pageable pageable);
+
+    ServiceResponse searchProductsByCursor(ProductSearchCriteria criteria, CursorPageRequest pageRequest);
+
+    ServiceResponse getProductsByCategoryCursor(Long categoryId, boolean includeSubcategories,
+                                                CursorPageRequest pageRequest);
+
+    ServiceResponse getProductsBySellerCursor(Long sellerId, CursorPageRequest pageRequest);
+
+    ServiceResponse getMyProductsCursor(Long sellerId, CursorPageRequest pageRequest);
 
     ServiceResponse deleteProduct(Long id, Long userId, boolean isAdmin);
 }
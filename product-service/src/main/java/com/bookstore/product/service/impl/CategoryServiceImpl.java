@@ -2,22 +2,25 @@ package com.bookstore.product.service.impl;
 
 import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.common.exception.BusinessException;
+import com.bookstore.product.category.CategoryNode;
+import com.bookstore.product.category.CategoryTreeHolder;
 import com.bookstore.product.dto.request.CreateCategoryRequest;
 import com.bookstore.product.dto.category.CategoryDTO;
 import com.bookstore.product.entity.Category;
+import com.bookstore.product.event.CategoryChangedEvent;
 import com.bookstore.product.repository.CategoryRepository;
 import com.bookstore.product.repository.ProductRepository;
 import com.bookstore.product.service.ICategoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.text.Normalizer;
-import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,6 +29,8 @@ public class CategoryServiceImpl implements ICategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CategoryTreeHolder categoryTreeHolder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -62,53 +67,42 @@ public class CategoryServiceImpl implements ICategoryService {
                 .build();
 
         Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
         return ServiceResponse.RESPONSE_SUCCESS("Category created successfully", mapToDTO(saved, parent));
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ServiceResponse getCategoryById(Long id) {
-        Category category = categoryRepository.findById(id)
+        CategoryNode node = categoryTreeHolder.get().findById(id)
                 .orElseThrow(() -> new BusinessException("Category not found: " + id));
-        return ServiceResponse.RESPONSE_SUCCESS(mapToDTO(category, getParent(category)));
+        return ServiceResponse.RESPONSE_SUCCESS(node.getDto());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ServiceResponse getCategoryBySlug(String slug) {
-        Category category = categoryRepository.findBySlug(slug)
+        CategoryNode node = categoryTreeHolder.get().findBySlug(slug)
                 .orElseThrow(() -> new BusinessException("Category not found: " + slug));
-        return ServiceResponse.RESPONSE_SUCCESS(mapToDTO(category, getParent(category)));
+        return ServiceResponse.RESPONSE_SUCCESS(node.getDto());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ServiceResponse getAllCategories() {
-        List<CategoryDTO> categories = categoryRepository.findByIsActiveTrueOrderByDisplayOrderAsc()
-                .stream()
-                .map(c -> mapToDTO(c, getParent(c)))
-                .collect(Collectors.toList());
-        return ServiceResponse.RESPONSE_SUCCESS(categories);
+        return ServiceResponse.RESPONSE_SUCCESS(categoryTreeHolder.get().getActiveCategories());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ServiceResponse getRootCategories() {
-        List<CategoryDTO> categories = categoryRepository.findByParentIsNullOrderByDisplayOrderAsc()
-                .stream()
-                .map(c -> mapToDTO(c, null))
-                .collect(Collectors.toList());
-        return ServiceResponse.RESPONSE_SUCCESS(categories);
+        return ServiceResponse.RESPONSE_SUCCESS(categoryTreeHolder.get().getRoots());
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ServiceResponse getChildCategories(Long parentId) {
-        List<CategoryDTO> categories = categoryRepository.findByParentIdOrderByDisplayOrderAsc(parentId)
-                .stream()
-                .map(c -> mapToDTO(c, getParent(c)))
-                .collect(Collectors.toList());
-        return ServiceResponse.RESPONSE_SUCCESS(categories);
+        return ServiceResponse.RESPONSE_SUCCESS(categoryTreeHolder.get().getChildren(parentId));
+    }
+
+    @Override
+    public Set<Long> getSubtreeIds(Long categoryId) {
+        return categoryTreeHolder.get().getSubtreeIds(categoryId);
     }
 
     @Override
@@ -125,6 +119,9 @@ public class CategoryServiceImpl implements ICategoryService {
         category.setDescription(request.getDescription());
         category.setImageUrl(request.getImageUrl());
         if (request.getParentId() != null) {
+            if (categoryTreeHolder.get().getSubtreeIds(id).contains(request.getParentId())) {
+                throw new BusinessException("Category cannot be moved under itself or one of its descendants");
+            }
             Category newParent = categoryRepository.findById(request.getParentId())
                     .orElseThrow(() -> new BusinessException("Parent category not found: " + request.getParentId()));
             category.setParent(newParent);
@@ -136,6 +133,7 @@ public class CategoryServiceImpl implements ICategoryService {
         }
 
         Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
         return ServiceResponse.RESPONSE_SUCCESS("Category updated successfully", mapToDTO(saved, getParent(saved)));
     }
 
@@ -152,28 +150,13 @@ public class CategoryServiceImpl implements ICategoryService {
 
         category.setIsActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
         return ServiceResponse.RESPONSE_SUCCESS("Category deleted successfully", null);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ServiceResponse getCategoryTree() {
-        List<Category> rootCategories = categoryRepository.findByParentIsNullOrderByDisplayOrderAsc();
-        List<CategoryDTO> tree = rootCategories.stream()
-                .map(this::mapToDTOWithChildren)
-                .collect(Collectors.toList());
-        return ServiceResponse.RESPONSE_SUCCESS(tree);
-    }
-
-    private CategoryDTO mapToDTOWithChildren(Category category) {
-        List<Category> children = categoryRepository.findByParentIdOrderByDisplayOrderAsc(category.getId());
-        List<CategoryDTO> childDTOs = children.stream()
-                .map(this::mapToDTOWithChildren)
-                .collect(Collectors.toList());
-
-        CategoryDTO dto = mapToDTO(category, null);
-        dto.setChildren(childDTOs);
-        return dto;
+        return ServiceResponse.RESPONSE_SUCCESS(categoryTreeHolder.get().getTree());
     }
 
     private Category getParent(Category category) {
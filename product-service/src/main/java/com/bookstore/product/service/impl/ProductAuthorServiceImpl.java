@@ -27,14 +27,22 @@ public class ProductAuthorServiceImpl implements IProductAuthorService {
     public List<AuthorDTO> getAuthorsByProductId(Long productId) {
         return productAuthorRepository.findByProductId(productId)
                 .stream()
-                .map(pa -> AuthorDTO.builder()
-                        .id(pa.getAuthor().getId())
-                        .name(pa.getAuthor().getName())
-                        .role(pa.getAuthorRole() != null ? pa.getAuthorRole().name() : null)
-                        .build())
+                .map(this::mapToAuthorDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<AuthorDTO>> getAuthorsByProductIds(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productAuthorRepository.findByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.groupingBy(pa -> pa.getId().getProductId(),
+                        Collectors.mapping(this::mapToAuthorDTO, Collectors.toList())));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductAuthor> findByProductId(Long productId) {
@@ -109,4 +117,12 @@ public class ProductAuthorServiceImpl implements IProductAuthorService {
     public void deleteByProductId(Long productId) {
         productAuthorRepository.deleteByProductId(productId);
     }
+
+    private AuthorDTO mapToAuthorDTO(ProductAuthor productAuthor) {
+        return AuthorDTO.builder()
+                .id(productAuthor.getAuthor().getId())
+                .name(productAuthor.getAuthor().getName())
+                .role(productAuthor.getAuthorRole() != null ? productAuthor.getAuthorRole().name() : null)
+                .build();
+    }
 }
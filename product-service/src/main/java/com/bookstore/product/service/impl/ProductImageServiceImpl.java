@@ -14,8 +14,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +38,18 @@ public class ProductImageServiceImpl implements IProductImageService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ProductImageDTO>> getImagesByProductIds(Collection<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return productImageRepository.findByProductIdIn(productIds)
+                .stream()
+                .collect(Collectors.groupingBy(image -> image.getProduct().getId(),
+                        Collectors.mapping(this::mapToDTO, Collectors.toList())));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ProductImage> findByProductId(Long productId) {
@@ -0,0 +1,423 @@
+package com.bookstore.product.service.impl;
+
+import com.bookstore.common.dto.response.ServiceResponse;
+import com.bookstore.common.exception.BusinessException;
+import com.bookstore.product.category.CategoryTreeHolder;
+import com.bookstore.product.client.UserClient;
+import com.bookstore.product.dto.request.ProductImportRow;
+import com.bookstore.product.entity.ProductImportJob;
+import com.bookstore.product.importer.ImportFormat;
+import com.bookstore.product.importer.ProductImportJobStore;
+import com.bookstore.product.importer.ProductImportRecord;
+import com.bookstore.product.importer.ProductImportReferences;
+import com.bookstore.product.importer.ProductImportWriter;
+import com.bookstore.product.repository.AuthorRepository;
+import com.bookstore.product.repository.PublisherRepository;
+import com.bookstore.product.service.IProductImportService;
+import com.bookstore.product.util.ProductFields;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Streams seller import files row by row and writes them in JDBC batches. References are
+ * resolved from maps preloaded once per job and the seller name is fetched once, so a
+ * batch costs two lookup queries and two batch inserts regardless of its size. Job
+ * progress and row errors are saved after every batch, so any instance can report on a
+ * job; jobs this instance is running are touched every minute, and a job nobody has
+ * touched for stale-job-minutes is failed, because the upload it was reading went away
+ * with the instance that held it.
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements IProductImportService {
+
+    private static final int MAX_CONSECUTIVE_PARSE_ERRORS = 100;
+
+    private final ProductImportWriter productImportWriter;
+    private final CategoryTreeHolder categoryTreeHolder;
+    private final PublisherRepository publisherRepository;
+    private final AuthorRepository authorRepository;
+    private final UserClient userClient;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final Counter importedCounter;
+    private final Counter failedCounter;
+    private final ProductImportJobStore jobStore;
+    private final Set<String> localJobIds = ConcurrentHashMap.newKeySet();
+    private final ExecutorService importExecutor;
+
+    @Value("${product.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${product.import.job-retention-minutes:1440}")
+    private long jobRetentionMinutes;
+
+    @Value("${product.import.stale-job-minutes:10}")
+    private long staleJobMinutes;
+
+    public ProductImportServiceImpl(ProductImportWriter productImportWriter,
+                                    ProductImportJobStore jobStore,
+                                    CategoryTreeHolder categoryTreeHolder,
+                                    PublisherRepository publisherRepository,
+                                    AuthorRepository authorRepository,
+                                    UserClient userClient,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${product.import.max-concurrent-jobs:2}") int maxConcurrentJobs) {
+        this.productImportWriter = productImportWriter;
+        this.jobStore = jobStore;
+        this.categoryTreeHolder = categoryTreeHolder;
+        this.publisherRepository = publisherRepository;
+        this.authorRepository = authorRepository;
+        this.userClient = userClient;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.csvMapper = new CsvMapper();
+        this.csvMapper.registerModule(new JavaTimeModule());
+        this.importedCounter = Counter.builder("product.import.rows")
+                .tag("result", "imported")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("product.import.rows")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.importExecutor = Executors.newFixedThreadPool(maxConcurrentJobs, r -> {
+            Thread thread = new Thread(r, "product-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ServiceResponse startImport(MultipartFile file, String format, Long sellerId) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("Import file is empty");
+        }
+        ImportFormat importFormat = ImportFormat.detect(format, file.getOriginalFilename());
+        String sellerName = getSellerName(sellerId);
+
+        // The multipart temp file is removed when the request ends, so keep our own copy.
+        Path spoolFile;
+        try {
+            spoolFile = Files.createTempFile("product-import-", "." + importFormat.name().toLowerCase());
+            file.transferTo(spoolFile);
+        } catch (IOException e) {
+            throw new BusinessException("Failed to read import file", e);
+        }
+
+        ProductImportJob job = new ProductImportJob(UUID.randomUUID().toString(), sellerId,
+                file.getOriginalFilename());
+        jobStore.save(job);
+        localJobIds.add(job.getJobId());
+        importExecutor.submit(() -> runImport(job, importFormat, spoolFile, sellerName));
+        return ServiceResponse.RESPONSE_SUCCESS("Import started", job.toDTO(List.of()));
+    }
+
+    @Override
+    public ServiceResponse getImportJob(String jobId, Long userId, boolean isAdmin) {
+        ProductImportJob job = jobStore.find(jobId)
+                .orElseThrow(() -> new BusinessException("Import job not found: " + jobId));
+        if (!job.getSellerId().equals(userId) && !isAdmin) {
+            throw new BusinessException("You don't have permission to view this import job");
+        }
+        return ServiceResponse.RESPONSE_SUCCESS(jobStore.toDTO(job));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void heartbeat() {
+        try {
+            jobStore.touch(List.copyOf(localJobIds));
+            int failed = jobStore.failStale(LocalDateTime.now().minusMinutes(staleJobMinutes));
+            if (failed > 0) {
+                log.warn("Failed {} import jobs left unfinished by a stopped instance", failed);
+            }
+        } catch (Exception e) {
+            log.warn("Import job heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelay = 3_600_000)
+    public void evictFinishedJobs() {
+        jobStore.deleteFinishedBefore(LocalDateTime.now().minusMinutes(jobRetentionMinutes));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    private void runImport(ProductImportJob job, ImportFormat format, Path spoolFile, String sellerName) {
+        job.start();
+        jobStore.save(job);
+        long start = System.currentTimeMillis();
+        try (InputStream in = Files.newInputStream(spoolFile);
+             MappingIterator<ProductImportRow> rows = openReader(format, in)) {
+            ProductImportReferences references = new ProductImportReferences(categoryTreeHolder.get(),
+                    publisherRepository.findAll(), authorRepository.findAll());
+            Set<String> seenIsbns = new HashSet<>();
+            Set<String> seenSlugs = new HashSet<>();
+            List<PendingRow> buffer = new ArrayList<>(batchSize);
+            long rowNumber = 0;
+            int consecutiveParseErrors = 0;
+
+            while (rows.hasNextValue()) {
+                rowNumber++;
+                ProductImportRow row;
+                try {
+                    row = rows.nextValue();
+                    consecutiveParseErrors = 0;
+                } catch (RuntimeException e) {
+                    reject(job, rowNumber, null, "Unreadable row: " + e.getMessage());
+                    if (++consecutiveParseErrors >= MAX_CONSECUTIVE_PARSE_ERRORS) {
+                        throw new BusinessException("Import file is malformed near row " + rowNumber);
+                    }
+                    continue;
+                }
+                buffer.add(new PendingRow(rowNumber, row));
+                if (buffer.size() >= batchSize) {
+                    importBatch(job, buffer, references, seenIsbns, seenSlugs, sellerName);
+                    buffer.clear();
+                    jobStore.save(job);
+                }
+            }
+            if (!buffer.isEmpty()) {
+                importBatch(job, buffer, references, seenIsbns, seenSlugs, sellerName);
+            }
+            job.complete();
+            log.info("Import job {} finished: {} imported, {} failed in {} ms", job.getJobId(),
+                    job.getImportedRows(), job.getFailedRows(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", job.getJobId(), e.getMessage());
+            job.fail(e.getMessage());
+        } finally {
+            saveFinished(job);
+            try {
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException e) {
+                log.warn("Failed to delete import spool file {}: {}", spoolFile, e.getMessage());
+            }
+        }
+    }
+
+    private void saveFinished(ProductImportJob job) {
+        try {
+            jobStore.save(job);
+        } catch (Exception e) {
+            // Left unfinished in the table; the stale job sweep fails it.
+            log.error("Failed to save import job {}: {}", job.getJobId(), e.getMessage());
+        } finally {
+            localJobIds.remove(job.getJobId());
+        }
+    }
+
+    private MappingIterator<ProductImportRow> openReader(ImportFormat format, InputStream in) throws IOException {
+        if (format == ImportFormat.CSV) {
+            CsvSchema schema = CsvSchema.emptySchema().withHeader().withArrayElementSeparator("|");
+            return csvMapper.readerFor(ProductImportRow.class).with(schema).readValues(in);
+        }
+        // Accepts a top-level JSON array as well as newline-delimited JSON objects.
+        return objectMapper.readerFor(ProductImportRow.class).readValues(in);
+    }
+
+    private void importBatch(ProductImportJob job, List<PendingRow> rows, ProductImportReferences references,
+                             Set<String> seenIsbns, Set<String> seenSlugs, String sellerName) {
+        List<PendingRow> valid = new ArrayList<>(rows.size());
+        Map<PendingRow, ResolvedReferences> resolved = new HashMap<>();
+        for (PendingRow pending : rows) {
+            ProductImportRow row = pending.row();
+            String error = validate(row);
+            ResolvedReferences refs = null;
+            if (error == null) {
+                refs = resolveReferences(row, references);
+                error = refs.error();
+            }
+            String isbn = normalizeIsbn(row.getIsbn());
+            if (error == null && isbn != null && !seenIsbns.add(isbn)) {
+                error = "Duplicate ISBN in file: " + isbn;
+            }
+            if (error != null) {
+                reject(job, pending.rowNumber(), row.getTitle(), error);
+                continue;
+            }
+            valid.add(pending);
+            resolved.put(pending, refs);
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingIsbns = productImportWriter.findExistingIsbns(valid.stream()
+                .map(pending -> normalizeIsbn(pending.row().getIsbn()))
+                .filter(isbn -> isbn != null)
+                .collect(Collectors.toSet()));
+        Set<String> existingSlugs = productImportWriter.findExistingSlugs(valid.stream()
+                .map(pending -> ProductFields.generateSlug(pending.row().getTitle()))
+                .collect(Collectors.toSet()));
+
+        List<ProductImportRecord> records = new ArrayList<>(valid.size());
+        for (PendingRow pending : valid) {
+            ProductImportRow row = pending.row();
+            String isbn = normalizeIsbn(row.getIsbn());
+            if (isbn != null && existingIsbns.contains(isbn)) {
+                reject(job, pending.rowNumber(), row.getTitle(), "ISBN already exists: " + isbn);
+                continue;
+            }
+            String slug = ProductFields.generateSlug(row.getTitle());
+            if (existingSlugs.contains(slug) || !seenSlugs.add(slug)) {
+                slug = slug + "-" + UUID.randomUUID().toString().substring(0, 8);
+                seenSlugs.add(slug);
+            }
+            row.setIsbn(isbn);
+            records.add(toRecord(pending, slug, resolved.get(pending)));
+        }
+        if (!records.isEmpty()) {
+            write(job, records, sellerName);
+        }
+    }
+
+    private void write(ProductImportJob job, List<ProductImportRecord> records, String sellerName) {
+        try {
+            productImportWriter.write(records, job.getSellerId(), sellerName);
+            job.recordImported(records.size());
+            importedCounter.increment(records.size());
+        } catch (RuntimeException batchFailure) {
+            if (records.size() == 1) {
+                ProductImportRecord record = records.get(0);
+                reject(job, record.row(), record.source().getTitle(), "Insert failed: " + rootMessage(batchFailure));
+                return;
+            }
+            // Isolate the offending rows instead of failing the whole batch.
+            log.warn("Import job {} batch failed, retrying row by row: {}", job.getJobId(), rootMessage(batchFailure));
+            for (ProductImportRecord record : records) {
+                write(job, List.of(record), sellerName);
+            }
+        }
+    }
+
+    private String validate(ProductImportRow row) {
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private ResolvedReferences resolveReferences(ProductImportRow row, ProductImportReferences references) {
+        Optional<Long> categoryId = references.resolveCategory(row.getCategory());
+        if (categoryId.isEmpty()) {
+            return ResolvedReferences.error("Category not found: " + row.getCategory());
+        }
+        Long publisherId = null;
+        if (row.getPublisher() != null && !row.getPublisher().isBlank()) {
+            Optional<Long> publisher = references.resolvePublisher(row.getPublisher());
+            if (publisher.isEmpty()) {
+                return ResolvedReferences.error("Publisher not found: " + row.getPublisher());
+            }
+            publisherId = publisher.get();
+        }
+        List<Long> authorIds = new ArrayList<>();
+        if (row.getAuthors() != null) {
+            for (String author : row.getAuthors()) {
+                if (author == null || author.isBlank()) {
+                    continue;
+                }
+                Optional<Long> authorId = references.resolveAuthor(author);
+                if (authorId.isEmpty()) {
+                    return ResolvedReferences.error("Author not found: " + author);
+                }
+                if (!authorIds.contains(authorId.get())) {
+                    authorIds.add(authorId.get());
+                }
+            }
+        }
+        return new ResolvedReferences(categoryId.get(), publisherId, authorIds, null);
+    }
+
+    private ProductImportRecord toRecord(PendingRow pending, String slug, ResolvedReferences refs) {
+        ProductImportRow row = pending.row();
+        BigDecimal discountPercent = row.getDiscountPercent() != null ? row.getDiscountPercent() : BigDecimal.ZERO;
+        return new ProductImportRecord(
+                pending.rowNumber(),
+                row,
+                ProductFields.generateSku(),
+                slug,
+                discountPercent,
+                ProductFields.calculateSellingPrice(row.getOriginalPrice(), discountPercent),
+                refs.categoryId(),
+                refs.publisherId(),
+                refs.authorIds(),
+                ProductFields.parseCoverType(row.getCoverType()));
+    }
+
+    private void reject(ProductImportJob job, long rowNumber, String title, String message) {
+        job.recordError(rowNumber, title, message);
+        failedCounter.increment();
+    }
+
+    @SuppressWarnings("unchecked")
+    private String getSellerName(Long sellerId) {
+        ServiceResponse userResponse = userClient.getUserById(sellerId);
+        if (userResponse == null || userResponse.getData() == null) {
+            throw new BusinessException("User not found: " + sellerId);
+        }
+        Map<String, Object> userData = (Map<String, Object>) userResponse.getData();
+        return userData.get("fullName") != null ? userData.get("fullName").toString() : "Unknown";
+    }
+
+    private String normalizeIsbn(String isbn) {
+        return isbn == null || isbn.isBlank() ? null : isbn.trim();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    private record PendingRow(long rowNumber, ProductImportRow row) {
+    }
+
+    private record ResolvedReferences(Long categoryId, Long publisherId, List<Long> authorIds, String error) {
+        static ResolvedReferences error(String message) {
+            return new ResolvedReferences(null, null, List.of(), message);
+        }
+    }
+}
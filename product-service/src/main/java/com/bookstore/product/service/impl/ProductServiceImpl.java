@@ -3,44 +3,60 @@ package com.bookstore.product.service.impl;
 import com.bookstore.common.dto.response.ServiceResponse;
 import com.bookstore.common.exception.BusinessException;
 import com.bookstore.common.service.SharedFileService;
+import com.bookstore.product.cache.ProductCacheInvalidator;
 import com.bookstore.product.client.UserClient;
 import com.bookstore.product.dto.author.AuthorDTO;
+import com.bookstore.product.dto.product.ProductCursorPage;
 import com.bookstore.product.dto.product.ProductDTO;
 import com.bookstore.product.dto.productImage.ProductImageDTO;
 import com.bookstore.product.dto.request.CreateProductRequest;
+import com.bookstore.product.dto.request.CursorPageRequest;
 import com.bookstore.product.dto.request.ProductSearchCriteria;
 import com.bookstore.product.dto.request.UpdateProductRequest;
 import com.bookstore.product.entity.AuthorRole;
 import com.bookstore.product.entity.Category;
 import com.bookstore.product.entity.Product;
 import com.bookstore.product.entity.Publisher;
+import com.bookstore.product.event.ProductChangedEvent;
+import com.bookstore.product.pagination.ProductCursor;
 import com.bookstore.product.repository.ProductRepository;
+import com.bookstore.product.scheduler.ViewCountBuffer;
+import com.bookstore.product.search.ProductSearchIndex;
 import com.bookstore.product.service.*;
 import com.bookstore.product.specification.ProductSpecification;
+import com.bookstore.product.util.ProductFields;
 import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.text.Normalizer;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProductServiceImpl implements IProductService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final ProductRepository productRepository;
     private final ICategoryService iCategoryService;
     private final IPublisherService iPublisherService;
@@ -48,6 +64,10 @@ public class ProductServiceImpl implements IProductService {
     private final IProductAuthorService productAuthorService;
     private final UserClient userClient;
     private final SharedFileService sharedFileService;
+    private final ProductSearchIndex productSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ViewCountBuffer viewCountBuffer;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional
@@ -71,10 +91,10 @@ public class ProductServiceImpl implements IProductService {
         Map<String, Object> userData = (Map<String, Object>) userResponse.getData();
         String userFullName = userData.get("fullName") != null ? userData.get("fullName").toString() : "Unknown";
 
-        String sku = generateSku();
-        String slug = generateSlug(request.getTitle());
+        String sku = ProductFields.generateSku();
+        String slug = ProductFields.generateSlug(request.getTitle());
         if (productRepository.existsBySku(sku)) {
-            sku = generateSku();
+            sku = ProductFields.generateSku();
         }
         if (productRepository.existsBySlug(slug)) {
             slug = slug + "-" + UUID.randomUUID().toString().substring(0, 8);
@@ -85,7 +105,7 @@ public class ProductServiceImpl implements IProductService {
 
         BigDecimal discountPercent = request.getDiscountPercent() != null ? request.getDiscountPercent()
                 : BigDecimal.ZERO;
-        BigDecimal sellingPrice = calculateSellingPrice(request.getOriginalPrice(), discountPercent);
+        BigDecimal sellingPrice = ProductFields.calculateSellingPrice(request.getOriginalPrice(), discountPercent);
 
         Product product = Product.builder()
                 .sku(sku)
@@ -106,7 +126,7 @@ public class ProductServiceImpl implements IProductService {
                 .pageCount(request.getPageCount())
                 .weight(request.getWeight())
                 .dimensions(request.getDimensions())
-                .coverType(parseCoverType(request.getCoverType()))
+                .coverType(ProductFields.parseCoverType(request.getCoverType()))
                 .metaTitle(request.getMetaTitle())
                 .metaDescription(request.getMetaDescription())
                 .metaKeywords(request.getMetaKeywords())
@@ -120,6 +140,7 @@ public class ProductServiceImpl implements IProductService {
         Product savedProduct = productRepository.save(product);
 
         saveProductAuthors(savedProduct, request);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId()));
 
         return ServiceResponse.RESPONSE_SUCCESS("Product created successfully", mapToDTO(savedProduct));
     }
@@ -129,58 +150,109 @@ public class ProductServiceImpl implements IProductService {
     }
 
     @Override
+    // Not readOnly: a miss refills the cache right after the eviction on commit, and a lagging
+    // replica would put the old row back for the whole TTL, so the load reads the primary.
     @Transactional
-    @Cacheable(value = "product", key = "#id")
+    @Cacheable(value = ProductCacheInvalidator.PRODUCT_CACHE, key = "#id")
     public ServiceResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new BusinessException("Product not found: " + id));
-        productRepository.incrementViewCount(id);
-        return ServiceResponse.RESPONSE_SUCCESS(mapToDTO(product));
+        return meterRegistry.timer("product.cache.load", "cache", ProductCacheInvalidator.PRODUCT_CACHE)
+                .record(() -> {
+                    Product product = productRepository.findById(id)
+                            .orElseThrow(() -> new BusinessException("Product not found: " + id));
+                    return ServiceResponse.RESPONSE_SUCCESS(mapToDTO(product));
+                });
     }
 
     @Override
+    // Not readOnly: a miss refills the cache right after the eviction on commit, and a lagging
+    // replica would put the old row back for the whole TTL, so the load reads the primary.
     @Transactional
+    @Cacheable(value = ProductCacheInvalidator.PRODUCT_BY_SLUG_CACHE, key = "#slug")
     public ServiceResponse getProductBySlug(String slug) {
-        Product product = productRepository.findBySlug(slug)
-                .orElseThrow(() -> new BusinessException("Product not found: " + slug));
-        productRepository.incrementViewCount(product.getId());
-        return ServiceResponse.RESPONSE_SUCCESS(mapToDTO(product));
+        return meterRegistry.timer("product.cache.load", "cache", ProductCacheInvalidator.PRODUCT_BY_SLUG_CACHE)
+                .record(() -> {
+                    Product product = productRepository.findBySlug(slug)
+                            .orElseThrow(() -> new BusinessException("Product not found: " + slug));
+                    return ServiceResponse.RESPONSE_SUCCESS(mapToDTO(product));
+                });
+    }
+
+    @Override
+    public void recordView(Long productId) {
+        viewCountBuffer.record(productId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ServiceResponse getProductsBySeller(Long sellerId, Pageable pageable) {
-        Page<ProductDTO> products = productRepository
-                .findBySellerIdAndStatus(sellerId, Product.ProductStatus.ACTIVE, pageable)
-                .map(this::mapToDTO);
+        Page<ProductDTO> products = mapToDTOPage(productRepository
+                .findBySellerIdAndStatus(sellerId, Product.ProductStatus.ACTIVE, pageable));
         return ServiceResponse.RESPONSE_SUCCESS(products);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ServiceResponse getMyProducts(Long sellerId, Pageable pageable) {
-        Page<ProductDTO> products = productRepository.findBySellerId(sellerId, pageable)
-                .map(this::mapToDTO);
+        Page<ProductDTO> products = mapToDTOPage(productRepository.findBySellerId(sellerId, pageable));
         return ServiceResponse.RESPONSE_SUCCESS(products);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ServiceResponse searchProducts(ProductSearchCriteria criteria, Pageable pageable) {
-        Specification<Product> spec = ProductSpecification.getProducts(criteria);
-        Page<ProductDTO> products = productRepository.findAll(spec, pageable).map(this::mapToDTO);
+        Set<Long> categoryIds = resolveCategoryIds(criteria);
+        if (StringUtils.hasText(criteria.getKeyword()) && productSearchIndex.supports(pageable)) {
+            return ServiceResponse.RESPONSE_SUCCESS(searchIndexedProducts(criteria, categoryIds, pageable));
+        }
+        Specification<Product> spec = ProductSpecification.getProducts(criteria, categoryIds);
+        Page<ProductDTO> products = mapToDTOPage(productRepository.findAll(spec, pageable));
         return ServiceResponse.RESPONSE_SUCCESS(products);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ServiceResponse getProductsByCategory(Long categoryId, Pageable pageable) {
-        Page<ProductDTO> products = productRepository
-                .findByCategoryIdAndStatus(categoryId, Product.ProductStatus.ACTIVE, pageable)
-                .map(this::mapToDTO);
+    public ServiceResponse getProductsByCategory(Long categoryId, boolean includeSubcategories, Pageable pageable) {
+        Page<Product> page = includeSubcategories
+                ? productRepository.findByCategoryIdInAndStatus(
+                        iCategoryService.getSubtreeIds(categoryId), Product.ProductStatus.ACTIVE, pageable)
+                : productRepository.findByCategoryIdAndStatus(categoryId, Product.ProductStatus.ACTIVE, pageable);
+        Page<ProductDTO> products = mapToDTOPage(page);
         return ServiceResponse.RESPONSE_SUCCESS(products);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ServiceResponse searchProductsByCursor(ProductSearchCriteria criteria, CursorPageRequest pageRequest) {
+        return ServiceResponse.RESPONSE_SUCCESS(
+                findByCursor(ProductSpecification.getProducts(criteria, resolveCategoryIds(criteria)), pageRequest));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ServiceResponse getProductsByCategoryCursor(Long categoryId, boolean includeSubcategories,
+                                                       CursorPageRequest pageRequest) {
+        Specification<Product> spec = (includeSubcategories
+                ? ProductSpecification.inCategories(iCategoryService.getSubtreeIds(categoryId))
+                : ProductSpecification.hasCategory(categoryId))
+                .and(ProductSpecification.hasStatus(Product.ProductStatus.ACTIVE));
+        return ServiceResponse.RESPONSE_SUCCESS(findByCursor(spec, pageRequest));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ServiceResponse getProductsBySellerCursor(Long sellerId, CursorPageRequest pageRequest) {
+        Specification<Product> spec = ProductSpecification.hasSeller(sellerId)
+                .and(ProductSpecification.hasStatus(Product.ProductStatus.ACTIVE));
+        return ServiceResponse.RESPONSE_SUCCESS(findByCursor(spec, pageRequest));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ServiceResponse getMyProductsCursor(Long sellerId, CursorPageRequest pageRequest) {
+        return ServiceResponse.RESPONSE_SUCCESS(
+                findByCursor(ProductSpecification.hasSeller(sellerId), pageRequest));
+    }
+
     @Override
     @Transactional
     public ServiceResponse updateProduct(Long id, UpdateProductRequest request, Long userId,
@@ -192,9 +264,11 @@ public class ProductServiceImpl implements IProductService {
             throw new BusinessException("You don't have permission to update this product");
         }
 
+        String previousSlug = product.getSlug();
+
         if (request.getTitle() != null && !request.getTitle().equals(product.getTitle())) {
             product.setTitle(request.getTitle());
-            String slug = generateSlug(request.getTitle());
+            String slug = ProductFields.generateSlug(request.getTitle());
             if (productRepository.existsBySlug(slug) && !slug.equals(product.getSlug())) {
                 slug = slug + "-" + UUID.randomUUID().toString().substring(0, 8);
             }
@@ -218,7 +292,7 @@ public class ProductServiceImpl implements IProductService {
         if (request.getDimensions() != null)
             product.setDimensions(request.getDimensions());
         if (request.getCoverType() != null)
-            product.setCoverType(parseCoverType(request.getCoverType()));
+            product.setCoverType(ProductFields.parseCoverType(request.getCoverType()));
         if (request.getMetaTitle() != null)
             product.setMetaTitle(request.getMetaTitle());
         if (request.getMetaDescription() != null)
@@ -246,7 +320,7 @@ public class ProductServiceImpl implements IProductService {
             priceChanged = true;
         }
         if (priceChanged) {
-            BigDecimal sellingPrice = calculateSellingPrice(product.getOriginalPrice(), product.getDiscountPercent());
+            BigDecimal sellingPrice = ProductFields.calculateSellingPrice(product.getOriginalPrice(), product.getDiscountPercent());
             product.setSellingPrice(sellingPrice);
         }
 
@@ -268,13 +342,14 @@ public class ProductServiceImpl implements IProductService {
         }
 
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct.getId(),
+                previousSlug.equals(savedProduct.getSlug()) ? null : previousSlug));
 
         return ServiceResponse.RESPONSE_SUCCESS("Product updated successfully", mapToDTO(savedProduct));
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "product", key = "#id")
     public ServiceResponse deleteProduct(Long id, Long userId, boolean isAdmin) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new BusinessException("Product not found: " + id));
@@ -304,44 +379,62 @@ public class ProductServiceImpl implements IProductService {
         product.setThumbnailUrl(null);
 
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
         return ServiceResponse.RESPONSE_SUCCESS("Product deleted successfully", null);
     }
 
-    private String generateSku() {
-        return "SKU-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-    }
+    private ProductCursorPage findByCursor(Specification<Product> spec, CursorPageRequest pageRequest) {
+        String[] sortParts = pageRequest.getSort() != null
+                ? pageRequest.getSort().split(",")
+                : new String[]{"createdAt"};
+        ProductCursor.SortKey sortKey = ProductCursor.SortKey.fromProperty(sortParts[0].trim());
+        Sort.Direction direction = sortParts.length > 1
+                ? Sort.Direction.fromOptionalString(sortParts[1].trim()).orElse(Sort.Direction.DESC)
+                : Sort.Direction.DESC;
+        int size = Math.min(Math.max(pageRequest.getSize() != null ? pageRequest.getSize() : 20, 1), MAX_CURSOR_PAGE_SIZE);
+
+        if (StringUtils.hasText(pageRequest.getCursor())) {
+            ProductCursor after = ProductCursor.decode(pageRequest.getCursor(), sortKey, direction);
+            spec = spec.and(ProductSpecification.seekAfter(after));
+        }
 
-    private String generateSlug(String title) {
-        if (title == null)
-            return "";
-        String normalized = Normalizer.normalize(title, Normalizer.Form.NFD);
-        Pattern pattern = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-        String slug = pattern.matcher(normalized).replaceAll("");
-        slug = slug.replace("đ", "d").replace("Đ", "D");
-        return slug.toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-")
-                .replaceAll("^-|-$", "");
+        Sort sort = sortKey == ProductCursor.SortKey.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortKey.getProperty()).and(Sort.by(direction, "id"));
+        // One extra row tells whether another page exists without a COUNT query.
+        List<Product> rows = productRepository.findAllWithLimit(spec, sort, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<Product> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = hasNext
+                ? ProductCursor.after(pageRows.get(pageRows.size() - 1), sortKey, direction).encode()
+                : null;
+
+        return ProductCursorPage.builder()
+                .content(mapToDTOList(pageRows))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(size)
+                .build();
     }
 
-    private BigDecimal calculateSellingPrice(BigDecimal originalPrice, BigDecimal discountPercent) {
-        if (discountPercent == null || discountPercent.compareTo(BigDecimal.ZERO) == 0) {
-            return originalPrice;
+    private Set<Long> resolveCategoryIds(ProductSearchCriteria criteria) {
+        if (criteria.getCategoryId() == null || !criteria.isIncludeSubcategories()) {
+            return null;
         }
-        BigDecimal discountAmount = originalPrice.multiply(discountPercent)
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-        return originalPrice.subtract(discountAmount);
+        return iCategoryService.getSubtreeIds(criteria.getCategoryId());
     }
 
-    private Product.CoverType parseCoverType(String coverType) {
-        if (coverType == null)
-            return Product.CoverType.PAPERBACK;
-        try {
-            return Product.CoverType.valueOf(coverType.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            return Product.CoverType.PAPERBACK;
-        }
+    private Page<ProductDTO> searchIndexedProducts(ProductSearchCriteria criteria, Set<Long> categoryIds,
+                                                   Pageable pageable) {
+        Page<Long> hits = productSearchIndex.search(criteria, categoryIds, pageable);
+        Map<Long, Product> productsById = productRepository.findAllById(hits.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = hits.getContent().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return mapToDTOPage(new PageImpl<>(products, pageable, hits.getTotalElements()));
     }
 
     private ProductDTO mapToDTO(Product product) {
@@ -349,6 +442,33 @@ public class ProductServiceImpl implements IProductService {
 
         List<AuthorDTO> authors = productAuthorService.getAuthorsByProductId(product.getId());
 
+        return mapToDTO(product, images, authors);
+    }
+
+    /**
+     * Maps a whole page in three queries: the page itself, then all images and all
+     * authors of its products fetched with one IN query each.
+     */
+    private Page<ProductDTO> mapToDTOPage(Page<Product> page) {
+        return new PageImpl<>(mapToDTOList(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private List<ProductDTO> mapToDTOList(List<Product> products) {
+        List<Long> productIds = products.stream()
+                .map(Product::getId)
+                .toList();
+
+        Map<Long, List<ProductImageDTO>> imagesByProduct = productImageService.getImagesByProductIds(productIds);
+        Map<Long, List<AuthorDTO>> authorsByProduct = productAuthorService.getAuthorsByProductIds(productIds);
+
+        return products.stream()
+                .map(product -> mapToDTO(product,
+                        imagesByProduct.getOrDefault(product.getId(), Collections.emptyList()),
+                        authorsByProduct.getOrDefault(product.getId(), Collections.emptyList())))
+                .toList();
+    }
+
+    private ProductDTO mapToDTO(Product product, List<ProductImageDTO> images, List<AuthorDTO> authors) {
         return ProductDTO.builder()
                 .id(product.getId())
                 .sku(product.getSku())
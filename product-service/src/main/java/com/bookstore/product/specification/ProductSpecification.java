@@ -4,18 +4,30 @@ import com.bookstore.product.dto.request.ProductSearchCriteria;
 import com.bookstore.product.entity.Category;
 import com.bookstore.product.entity.Product;
 import com.bookstore.product.entity.Publisher;
+import com.bookstore.product.pagination.ProductCursor;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class ProductSpecification {
 
     public static Specification<Product> getProducts(ProductSearchCriteria criteria) {
+        return getProducts(criteria, null);
+    }
+
+    /**
+     * @param categoryIds when not null, replaces the single categoryId filter with an
+     *                    IN filter, e.g. a category subtree
+     */
+    public static Specification<Product> getProducts(ProductSearchCriteria criteria, Collection<Long> categoryIds) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -28,7 +40,9 @@ public class ProductSpecification {
                 predicates.add(criteriaBuilder.or(titleLike, descLike));
             }
 
-            if (criteria.getCategoryId() != null) {
+            if (categoryIds != null) {
+                predicates.add(root.get("category").get("id").in(categoryIds));
+            } else if (criteria.getCategoryId() != null) {
                 Join<Product, Category> categoryJoin = root.join("category", JoinType.INNER);
                 predicates.add(criteriaBuilder.equal(categoryJoin.get("id"), criteria.getCategoryId()));
             }
@@ -48,4 +62,45 @@ public class ProductSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static Specification<Product> hasStatus(Product.ProductStatus status) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Product> hasCategory(Long categoryId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> inCategories(Collection<Long> categoryIds) {
+        return (root, query, criteriaBuilder) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    public static Specification<Product> hasSeller(Long sellerId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("sellerId"), sellerId);
+    }
+
+    /**
+     * Keyset seek predicate: rows strictly after the cursor in (sort key, id) order.
+     * Expanded to {@code k > v OR (k = v AND id > i)} since JPA has no row-value comparison.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Product> seekAfter(ProductCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            boolean descending = cursor.getDirection() == Sort.Direction.DESC;
+            Path<Long> id = root.get("id");
+            Predicate idAfter = descending
+                    ? criteriaBuilder.lessThan(id, cursor.getId())
+                    : criteriaBuilder.greaterThan(id, cursor.getId());
+            if (cursor.getSortKey() == ProductCursor.SortKey.ID) {
+                return idAfter;
+            }
+
+            Path<Comparable> key = root.get(cursor.getSortKey().getProperty());
+            Comparable value = cursor.getKeyValue();
+            Predicate keyAfter = descending
+                    ? criteriaBuilder.lessThan(key, value)
+                    : criteriaBuilder.greaterThan(key, value);
+            return criteriaBuilder.or(keyAfter, criteriaBuilder.and(criteriaBuilder.equal(key, value), idAfter));
+        };
+    }
 }
@@ -0,0 +1,93 @@
+package com.bookstore.product.stock;
+
+import com.bookstore.common.dto.response.ServiceResponse;
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.inventory.StockLevelMessage;
+import com.bookstore.product.client.InventoryClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Local copy of sellable stock per product, fed by the inventory stock level stream. Each
+ * replica binds its own queue to the fanout exchange and keeps the highest version seen
+ * per product. Products it has not heard about, and entries older than max-age (the
+ * stream may have gaps across broker reconnects), are fetched with one bulk call.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockLevelReplica {
+
+    private static final int SEED_CHUNK = 200;
+
+    private final InventoryClient inventoryClient;
+    private final ConcurrentMap<Long, Level> levels = new ConcurrentHashMap<>();
+
+    @Value("${product.stock.max-age:10m}")
+    private Duration maxAge;
+
+    @RabbitListener(bindings = @QueueBinding(value = @Queue(exclusive = "true", autoDelete = "true"), exchange = @Exchange(value = RabbitMQConstants.INVENTORY_STOCK_LEVEL_EXCHANGE, type = ExchangeTypes.FANOUT)))
+    public void onStockLevel(StockLevelMessage message) {
+        Level incoming = new Level(message.getAvailable(), message.getVersion(), System.currentTimeMillis());
+        levels.merge(message.getProductId(), incoming,
+                (current, next) -> next.version() >= current.version() ? next : current);
+    }
+
+    public Map<Long, Integer> getAvailable(Collection<Long> productIds) {
+        long oldest = System.currentTimeMillis() - maxAge.toMillis();
+        Map<Long, Integer> available = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long productId : productIds) {
+            Level level = levels.get(productId);
+            if (level == null || level.updatedAt() < oldest) {
+                missing.add(productId);
+            } else {
+                available.put(productId, level.available());
+            }
+        }
+        for (int from = 0; from < missing.size(); from += SEED_CHUNK) {
+            seed(missing.subList(from, Math.min(from + SEED_CHUNK, missing.size())), available);
+        }
+        return available;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void seed(List<Long> productIds, Map<Long, Integer> available) {
+        try {
+            ServiceResponse response = inventoryClient.getAvailability(productIds);
+            if (response == null || response.getData() == null) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            for (Map<String, Object> row : (List<Map<String, Object>>) response.getData()) {
+                Long productId = ((Number) row.get("productId")).longValue();
+                int quantity = ((Number) row.get("availableQuantity")).intValue();
+                // Version -1 so that any streamed message replaces a fetched value.
+                Level level = levels.merge(productId, new Level(quantity, -1L, now),
+                        (current, fetched) -> current.updatedAt() < now - maxAge.toMillis() ? fetched : current);
+                available.put(productId, level.available());
+            }
+        } catch (Exception e) {
+            log.warn("Failed to fetch stock levels for {} products: {}", productIds.size(), e.getMessage());
+        }
+    }
+
+    private record Level(int available, long version, long updatedAt) {
+    }
+}
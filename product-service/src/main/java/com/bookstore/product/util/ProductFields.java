@@ -0,0 +1,58 @@
+package com.bookstore.product.util;
+
+import com.bookstore.product.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Derived product fields, shared by the product form and the bulk importer so both create
+ * products the same way.
+ */
+public final class ProductFields {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private ProductFields() {
+    }
+
+    public static String generateSku() {
+        return "SKU-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    public static String generateSlug(String title) {
+        if (title == null)
+            return "";
+        String normalized = Normalizer.normalize(title, Normalizer.Form.NFD);
+        String slug = DIACRITICS.matcher(normalized).replaceAll("");
+        slug = slug.replace("đ", "d").replace("Đ", "D");
+        return slug.toLowerCase()
+                .replaceAll("[^a-z0-9\\s-]", "")
+                .replaceAll("\\s+", "-")
+                .replaceAll("-+", "-")
+                .replaceAll("^-|-$", "");
+    }
+
+    public static BigDecimal calculateSellingPrice(BigDecimal originalPrice, BigDecimal discountPercent) {
+        if (discountPercent == null || discountPercent.compareTo(BigDecimal.ZERO) == 0) {
+            return originalPrice;
+        }
+        BigDecimal discountAmount = originalPrice.multiply(discountPercent)
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return originalPrice.subtract(discountAmount);
+    }
+
+    // Unknown or missing cover types default to paperback.
+    public static Product.CoverType parseCoverType(String coverType) {
+        if (coverType == null)
+            return Product.CoverType.PAPERBACK;
+        try {
+            return Product.CoverType.valueOf(coverType.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Product.CoverType.PAPERBACK;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bookstore.product.cache;
+
+import com.bookstore.product.config.RedisConfig;
+import com.bookstore.product.config.TwoLevelCacheProperties;
+import com.bookstore.product.dto.product.ProductDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trips through the serializers RedisConfig builds for the cache tier.
+ */
+class CompactRedisSerializerTest {
+
+    private static final int THRESHOLD = 1024;
+
+    private final RedisConfig redisConfig = new RedisConfig();
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = redisConfig.redisSerializer();
+
+    @Test
+    void smallValuesStaySmile() {
+        RedisSerializer<Object> serializer = compactSerializer(THRESHOLD);
+        ProductDTO product = product("Short description");
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertEquals(':', bytes[0]);
+        assertTrue(bytes.length < THRESHOLD);
+        assertEquals(product, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void valuesAboveTheThresholdAreCompressed() {
+        RedisSerializer<Object> serializer = compactSerializer(THRESHOLD);
+        ProductDTO product = product("Một cuốn sách hay về lập trình. ".repeat(200));
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertEquals(0x01, bytes[0]);
+        assertTrue(bytes.length < compactSerializer(0).serialize(product).length);
+        assertEquals(product, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void zeroThresholdDisablesCompression() {
+        RedisSerializer<Object> serializer = compactSerializer(0);
+        ProductDTO product = product("Một cuốn sách hay về lập trình. ".repeat(200));
+
+        byte[] bytes = serializer.serialize(product);
+
+        assertEquals(':', bytes[0]);
+        assertEquals(product, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void entriesWrittenAsJsonAreStillReadable() {
+        RedisSerializer<Object> serializer = compactSerializer(THRESHOLD);
+        ProductDTO product = product("Written before the switch to Smile");
+
+        byte[] legacy = jsonSerializer.serialize(product);
+
+        assertEquals('{', legacy[0]);
+        assertEquals(product, serializer.deserialize(legacy));
+    }
+
+    @Test
+    void jsonSettingKeepsTheLegacySerializer() {
+        TwoLevelCacheProperties properties = new TwoLevelCacheProperties();
+        properties.setSerializer("json");
+
+        assertInstanceOf(GenericJackson2JsonRedisSerializer.class,
+                redisConfig.cacheValueSerializer(jsonSerializer, properties));
+    }
+
+    @Test
+    void emptyBytesReadAsNull() {
+        RedisSerializer<Object> serializer = compactSerializer(THRESHOLD);
+
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    private RedisSerializer<Object> compactSerializer(int compressionThreshold) {
+        TwoLevelCacheProperties properties = new TwoLevelCacheProperties();
+        properties.setSerializer("smile");
+        properties.setCompressionThresholdBytes(compressionThreshold);
+        RedisSerializer<Object> serializer = redisConfig.cacheValueSerializer(jsonSerializer, properties);
+        assertInstanceOf(CompactRedisSerializer.class, serializer);
+        return serializer;
+    }
+
+    private static ProductDTO product(String description) {
+        return ProductDTO.builder()
+                .id(42L)
+                .sku("BK-0042")
+                .isbn("9786041234567")
+                .title("Lập trình Java")
+                .slug("lap-trinh-java")
+                .description(description)
+                .originalPrice(new BigDecimal("150000"))
+                .sellingPrice(new BigDecimal("120000"))
+                .onSale(true)
+                .categoryId(3L)
+                .categoryName("Công nghệ")
+                .publicationDate(LocalDate.of(2023, 5, 1))
+                .pageCount(420)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.bookstore.product.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TwoLevelCachePropertiesTest {
+
+    @Test
+    void cacheFieldsLeftOutComeFromTheDefaultsBlock() {
+        TwoLevelCacheProperties properties = bind(Map.of(
+                "product.cache.defaults.ttl", "45m",
+                "product.cache.defaults.local-ttl", "2m",
+                "product.cache.defaults.local-max-size", "500",
+                "product.cache.caches.products.ttl", "20m"));
+
+        TwoLevelCacheProperties.CacheSpec spec = properties.specFor("products");
+
+        assertEquals(Duration.ofMinutes(20), spec.getTtl());
+        assertEquals(Duration.ofMinutes(2), spec.getLocalTtl());
+        assertEquals(500L, spec.getLocalMaxSize());
+    }
+
+    @Test
+    void unknownCachesAndPartialDefaultsFallBackToBuiltInValues() {
+        TwoLevelCacheProperties properties = bind(Map.of("product.cache.defaults.ttl", "5m"));
+
+        TwoLevelCacheProperties.CacheSpec spec = properties.specFor("author");
+
+        assertEquals(Duration.ofMinutes(5), spec.getTtl());
+        assertEquals(Duration.ofMinutes(1), spec.getLocalTtl());
+        assertEquals(1000L, spec.getLocalMaxSize());
+    }
+
+    private static TwoLevelCacheProperties bind(Map<String, String> values) {
+        return new Binder(new MapConfigurationPropertySource(values))
+                .bind("product.cache", Bindable.ofInstance(new TwoLevelCacheProperties()))
+                .get();
+    }
+}
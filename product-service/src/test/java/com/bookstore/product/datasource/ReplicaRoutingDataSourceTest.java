@@ -0,0 +1,137 @@
+package com.bookstore.product.datasource;
+
+import com.bookstore.product.config.ReadReplicaDataSourceConfig;
+import com.bookstore.product.config.ReadReplicaProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and one replica. Each holds a row
+ * naming itself, so a query shows which one the routing DataSource picked.
+ */
+@SpringJUnitConfig(ReplicaRoutingDataSourceTest.Config.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Autowired
+    private NodeQueries nodeQueries;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("replica", nodeQueries.readOnlyNode());
+    }
+
+    @Test
+    void writeTransactionsUseThePrimary() {
+        assertEquals("primary", nodeQueries.writeNode());
+    }
+
+    @Test
+    void writesLandOnThePrimary() {
+        nodeQueries.insertWrite("book-1");
+
+        List<String> written = new JdbcTemplate(primaryDataSource).queryForList("SELECT name FROM writes", String.class);
+        assertEquals(List.of("book-1"), written);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        HikariDataSource primaryDataSource() {
+            return database("primary");
+        }
+
+        @Bean
+        ReplicaHealthMonitor replicaHealthMonitor() {
+            // Seeded before the monitor's first check so the replica starts out healthy
+            HikariDataSource seed = database("replica");
+            seed.close();
+
+            ReadReplicaProperties.Node node = new ReadReplicaProperties.Node();
+            node.setName("replica");
+            node.setUrl(url("replica"));
+            node.setUsername("sa");
+            node.setPassword("");
+            ReadReplicaProperties properties = new ReadReplicaProperties();
+            properties.setEnabled(true);
+            properties.setLagCheckEnabled(false);
+            properties.setNodes(List.of(node));
+            return new ReadReplicaDataSourceConfig().replicaHealthMonitor(properties, new SimpleMeterRegistry());
+        }
+
+        @Bean
+        DataSource dataSource(HikariDataSource primaryDataSource, ReplicaHealthMonitor replicaHealthMonitor) {
+            return new ReadReplicaDataSourceConfig().dataSource(primaryDataSource, replicaHealthMonitor);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        NodeQueries nodeQueries(DataSource dataSource) {
+            return new NodeQueries(new JdbcTemplate(dataSource));
+        }
+
+        private static HikariDataSource database(String name) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl(url(name));
+            dataSource.setUsername("sa");
+            dataSource.setPassword("");
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS writes (name VARCHAR(20))");
+            jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+            return dataSource;
+        }
+
+        // DB_CLOSE_DELAY keeps the database alive between pools and connections
+        private static String url(String name) {
+            return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        }
+    }
+
+    static class NodeQueries {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeQueries(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Transactional(readOnly = true)
+        public String readOnlyNode() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        @Transactional
+        public String writeNode() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        @Transactional
+        public void insertWrite(String name) {
+            jdbcTemplate.update("INSERT INTO writes (name) VALUES (?)", name);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.bookstore.saga;
 
+import com.bookstore.common.messaging.listener.EnableListenerContainers;
+import com.bookstore.common.outbox.EnableOutbox;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
@@ -12,6 +14,8 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableFeignClients
 @EnableAsync
 @EnableScheduling
+@EnableOutbox
+@EnableListenerContainers
 public class SagaServiceApplication {
 
     public static void main(String[] args) {
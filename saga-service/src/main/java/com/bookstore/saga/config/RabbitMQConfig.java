@@ -1,7 +1,13 @@
 package com.bookstore.saga.config;
 
 import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.saga.SagaRouting;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -9,6 +15,9 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Configuration
 public class RabbitMQConfig {
 
@@ -25,22 +34,37 @@ public class RabbitMQConfig {
     }
 
     @Bean
-    public Queue sagaOrderQueue() {
-        return new Queue(RabbitMQConstants.SAGA_ORDER_QUEUE, true);
+    public DirectExchange sagaExchange() {
+        return new DirectExchange(RabbitMQConstants.SAGA_EXCHANGE);
+    }
+
+    @Bean
+    public DirectExchange inventoryExchange() {
+        return new DirectExchange(RabbitMQConstants.INVENTORY_EXCHANGE);
     }
 
     @Bean
-    public Queue sagaOutOfStockQueue() {
-        return new Queue(RabbitMQConstants.SAGA_INVENTORY_OUT_OFF_STOCK_QUEUE, true);
+    public DirectExchange orderExchange() {
+        return new DirectExchange(RabbitMQConstants.ORDER_EXCHANGE);
     }
 
     @Bean
-    public Queue paymentSuccessQueue() {
-        return new Queue(RabbitMQConstants.PROCESS_PAYMENT_SUCCESS_QUEUE, true);
+    public DirectExchange paymentExchange() {
+        return new DirectExchange(RabbitMQConstants.PAYMENT_EXCHANGE);
     }
 
     @Bean
-    public Queue paymentFailQueue() {
-        return new Queue(RabbitMQConstants.PROCESS_PAYMENT_FAIL_QUEUE, true);
+    public Declarables sagaShardQueues() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < SagaRouting.SHARDS; shard++) {
+            Queue queue = QueueBuilder.durable(SagaRouting.queue(shard))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue)
+                    .to(sagaExchange())
+                    .with(SagaRouting.routingKey(shard)));
+        }
+        return new Declarables(declarables);
     }
 }
@@ -0,0 +1,74 @@
+package com.bookstore.saga.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Persisted state of one order's saga. Every step reads and writes this row under a row
+ * lock in the same transaction that writes its outgoing command to the outbox, so a crash
+ * either loses both or keeps both. deadlineAt is set while the saga waits on another
+ * service and cleared once it reaches a final state.
+ */
+@Entity
+@Table(name = "saga_instances", indexes = {
+        @Index(name = "idx_saga_instances_deadline_at", columnList = "deadline_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaInstance {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "saga_id", nullable = false, length = 36)
+    private String sagaId;
+
+    @Column(name = "order_number", length = 50)
+    private String orderNumber;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "payment_method", length = 30)
+    private String paymentMethod;
+
+    @Column(name = "total_amount", precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private SagaState state;
+
+    // Outcome of the payment: PAID or FAILED, then REFUNDING once a refund was requested
+    @Column(name = "payment_status", length = 20)
+    private String paymentStatus;
+
+    @Column(name = "transaction_id", length = 100)
+    private String transactionId;
+
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    // Times the command of the current step has been sent
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "deadline_at")
+    private LocalDateTime deadlineAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public boolean isCashOnDelivery() {
+        return "COD".equalsIgnoreCase(paymentMethod);
+    }
+}
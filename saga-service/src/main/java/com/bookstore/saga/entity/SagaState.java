@@ -0,0 +1,15 @@
+package com.bookstore.saga.entity;
+
+public enum SagaState {
+    RESERVING_STOCK, // Đã gửi ReserveStockCommand, chờ inventory trả lời
+    AWAITING_PAYMENT, // Đã giữ hàng, chờ kết quả thanh toán
+    CONFIRMING_STOCK, // Đã thanh toán (hoặc COD), chờ inventory trừ kho
+    COMPENSATING, // Đã gửi ReleaseStockCommand, chờ inventory trả hàng
+    COMPLETED,
+    FAILED, // Kết thúc mà không còn gì để bù trừ
+    COMPENSATED;
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == FAILED || this == COMPENSATED;
+    }
+}
@@ -0,0 +1,61 @@
+package com.bookstore.saga.listener;
+
+import com.bookstore.common.messaging.saga.OrderSagaStartEvent;
+import com.bookstore.common.messaging.saga.PaymentProcessedEvent;
+import com.bookstore.common.messaging.saga.SagaCompensationEvent;
+import com.bookstore.common.messaging.saga.SagaRouting;
+import com.bookstore.common.messaging.saga.StockConfirmedEvent;
+import com.bookstore.common.messaging.saga.StockReservedEvent;
+import com.bookstore.saga.orchestrator.OrderSagaOrchestrator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * One single-threaded consumer per saga shard queue. All events of an order land on the same
+ * shard, so they are applied one after another in arrival order, while the shards run in
+ * parallel. The queues are single-active-consumer, which keeps that true when several saga
+ * instances are running.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaShardListeners implements RabbitListenerConfigurer {
+
+    private final OrderSagaOrchestrator orchestrator;
+    private final MessageConverter jsonMessageConverter;
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        for (int shard = 0; shard < SagaRouting.SHARDS; shard++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("saga-shard-" + shard);
+            endpoint.setQueueNames(SagaRouting.queue(shard));
+            endpoint.setConcurrency("1");
+            endpoint.setMessageListener(this::onMessage);
+            registrar.registerEndpoint(endpoint);
+        }
+    }
+
+    private void onMessage(Message message) {
+        Object payload = jsonMessageConverter.fromMessage(message);
+        if (payload instanceof OrderSagaStartEvent event) {
+            orchestrator.start(event);
+        } else if (payload instanceof StockReservedEvent event) {
+            orchestrator.onStockReserved(event);
+        } else if (payload instanceof PaymentProcessedEvent event) {
+            orchestrator.onPaymentProcessed(event);
+        } else if (payload instanceof StockConfirmedEvent event) {
+            orchestrator.onStockConfirmed(event);
+        } else if (payload instanceof SagaCompensationEvent event) {
+            orchestrator.onStockReleased(event);
+        } else {
+            log.warn("Ignoring unexpected saga message {}", payload.getClass().getName());
+        }
+    }
+}
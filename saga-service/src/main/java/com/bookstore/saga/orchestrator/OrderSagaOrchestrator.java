@@ -0,0 +1,376 @@
+package com.bookstore.saga.orchestrator;
+
+import com.bookstore.common.messaging.RabbitMQConstants;
+import com.bookstore.common.messaging.saga.ConfirmStockCommand;
+import com.bookstore.common.messaging.saga.OrderSagaCompletedEvent;
+import com.bookstore.common.messaging.saga.OrderSagaStartEvent;
+import com.bookstore.common.messaging.saga.PaymentProcessedEvent;
+import com.bookstore.common.messaging.saga.RefundPaymentCommand;
+import com.bookstore.common.messaging.saga.ReleaseStockCommand;
+import com.bookstore.common.messaging.saga.ReserveStockCommand;
+import com.bookstore.common.messaging.saga.SagaCompensationEvent;
+import com.bookstore.common.messaging.saga.StockConfirmedEvent;
+import com.bookstore.common.messaging.saga.StockReservedEvent;
+import com.bookstore.common.outbox.OutboxPublisher;
+import com.bookstore.saga.entity.SagaInstance;
+import com.bookstore.saga.entity.SagaState;
+import com.bookstore.saga.repository.SagaInstanceRepository;
+import com.bookstore.saga.timeout.SagaDeadlineTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Drives an order through reserve stock → payment → confirm stock, compensating with a
+ * stock release when payment fails or a step times out, and with a refund request when a
+ * captured payment belongs to an order that will not be fulfilled. Each handler locks the saga row,
+ * checks the current state and writes the next command to the outbox in one transaction;
+ * an event that does not match the current state is a duplicate or arrived too late and is
+ * ignored, which makes every step safe to redeliver. Commands sent to inventory are
+ * idempotent per order, so re-sending one after a timeout is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSagaOrchestrator {
+
+    private final SagaInstanceRepository sagaRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final SagaProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final SagaDeadlineTimer deadlineTimer;
+
+    @Transactional
+    public void start(OrderSagaStartEvent event) {
+        if (sagaRepository.existsById(event.getOrderId())) {
+            log.debug("Saga for order {} already started", event.getOrderId());
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SagaInstance saga = SagaInstance.builder()
+                .orderId(event.getOrderId())
+                .sagaId(event.getSagaId() != null ? event.getSagaId() : UUID.randomUUID().toString())
+                .orderNumber(event.getOrderNumber())
+                .userId(event.getUserId())
+                .paymentMethod(event.getPaymentMethod())
+                .totalAmount(event.getTotalAmount())
+                .state(SagaState.RESERVING_STOCK)
+                .attempts(1)
+                .deadlineAt(now.plus(properties.getTimeout().getReservation()))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        sagaRepository.save(saga);
+        scheduleDeadline(saga);
+        meterRegistry.counter("saga.started").increment();
+
+        ReserveStockCommand command = ReserveStockCommand.builder()
+                .sagaId(saga.getSagaId())
+                .orderId(event.getOrderId())
+                .userId(event.getUserId())
+                .shippingProvince(event.getShippingProvince())
+                .idempotencyKey(event.getOrderNumber())
+                .items(event.getItems().stream()
+                        .map(item -> ReserveStockCommand.StockItem.builder()
+                                .productId(item.getProductId())
+                                .sku(item.getSku())
+                                .quantity(item.getQuantity())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.INVENTORY_EXCHANGE, RabbitMQConstants.INVENTORY_RESERVE_KEY, command);
+    }
+
+    @Transactional
+    public void onStockReserved(StockReservedEvent event) {
+        SagaInstance saga = lock(event.getOrderId());
+        if (saga == null) {
+            return;
+        }
+        if (saga.getState() != SagaState.RESERVING_STOCK) {
+            if (event.isSuccess() && (saga.getState() == SagaState.COMPENSATING
+                    || saga.getState() == SagaState.COMPENSATED)) {
+                // The reservation landed after the saga gave up on it; release it again
+                sendRelease(saga);
+            }
+            ignored(saga, event);
+            return;
+        }
+
+        // order-service moves the order out of PENDING on this result
+        outboxPublisher.publish(RabbitMQConstants.ORDER_EXCHANGE, RabbitMQConstants.ORDER_STOCK_RESULT_KEY, event);
+
+        if (!event.isSuccess()) {
+            saga.setFailureReason(event.getFailureReason());
+            refundIfPaid(saga);
+            finish(saga, SagaState.FAILED);
+            return;
+        }
+        if (saga.isCashOnDelivery() || "PAID".equals(saga.getPaymentStatus())) {
+            confirmStock(saga);
+        } else if ("FAILED".equals(saga.getPaymentStatus())) {
+            compensate(saga, saga.getFailureReason());
+        } else {
+            transition(saga, SagaState.AWAITING_PAYMENT, paymentTimeout(event));
+        }
+    }
+
+    @Transactional
+    public void onPaymentProcessed(PaymentProcessedEvent event) {
+        SagaInstance saga = lock(event.getOrderId());
+        if (saga == null) {
+            return;
+        }
+        String reason = "Payment failed: " + event.getFailureReason();
+        switch (saga.getState()) {
+            case RESERVING_STOCK -> {
+                // Paid before inventory answered; act on it once the stock step finishes
+                saga.setPaymentStatus(event.isSuccess() ? "PAID" : "FAILED");
+                saga.setTransactionId(event.getTransactionId());
+                if (!event.isSuccess()) {
+                    saga.setFailureReason(reason);
+                }
+                saga.setUpdatedAt(LocalDateTime.now());
+            }
+            case AWAITING_PAYMENT -> {
+                saga.setPaymentStatus(event.isSuccess() ? "PAID" : "FAILED");
+                saga.setTransactionId(event.getTransactionId());
+                if (event.isSuccess()) {
+                    confirmStock(saga);
+                } else {
+                    compensate(saga, reason);
+                }
+            }
+            case COMPENSATING, COMPENSATED, FAILED -> {
+                if (!event.isSuccess() || "REFUNDING".equals(saga.getPaymentStatus())) {
+                    ignored(saga, event);
+                    return;
+                }
+                // Paid after the order was given up on: the stock is gone, the money goes back
+                log.warn("Payment {} for order {} arrived in {}; requesting a refund",
+                        event.getTransactionId(), saga.getOrderId(), saga.getState());
+                saga.setPaymentStatus("PAID");
+                saga.setTransactionId(event.getTransactionId());
+                refundIfPaid(saga);
+                saga.setUpdatedAt(LocalDateTime.now());
+            }
+            default -> ignored(saga, event);
+        }
+    }
+
+    @Transactional
+    public void onStockConfirmed(StockConfirmedEvent event) {
+        SagaInstance saga = lock(event.getOrderId());
+        if (saga == null) {
+            return;
+        }
+        if (saga.getState() != SagaState.CONFIRMING_STOCK) {
+            ignored(saga, event);
+            return;
+        }
+        if (event.isSuccess()) {
+            publishCompleted(saga, true, saga.isCashOnDelivery() ? "CONFIRMED" : "PAID");
+            finish(saga, SagaState.COMPLETED);
+            return;
+        }
+        // Nothing is held any more (the reservation expired or was released), so there is
+        // nothing to compensate in inventory; a captured payment has to be refunded.
+        saga.setFailureReason("Stock confirmation failed: " + event.getFailureReason());
+        refundIfPaid(saga);
+        publishCompleted(saga, false, "CANCELLED");
+        finish(saga, SagaState.FAILED);
+    }
+
+    @Transactional
+    public void onStockReleased(SagaCompensationEvent event) {
+        SagaInstance saga = lock(event.getOrderId());
+        if (saga == null) {
+            return;
+        }
+        if (saga.getState() != SagaState.COMPENSATING) {
+            ignored(saga, event);
+            return;
+        }
+        if (!event.isSuccess()) {
+            // Release is idempotent; a negative answer means nothing was held for the order
+            log.info("Nothing to release for order {}: {}", saga.getOrderId(), event.getFailureReason());
+        }
+        // Paid while the reservation was still outstanding, then timed out
+        refundIfPaid(saga);
+        publishCompleted(saga, false, "CANCELLED");
+        finish(saga, SagaState.COMPENSATED);
+    }
+
+    /**
+     * Fires the deadline of the saga's current step. A step that finished in the meantime
+     * has moved the deadline, so a late or duplicate timeout is a no-op.
+     */
+    @Transactional
+    public void onTimeout(Long orderId) {
+        SagaInstance saga = lock(orderId);
+        if (saga == null || saga.getDeadlineAt() == null || saga.getDeadlineAt().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        meterRegistry.counter("saga.timeouts", "state", saga.getState().name()).increment();
+        switch (saga.getState()) {
+            case RESERVING_STOCK -> compensate(saga, "Stock reservation timed out");
+            case AWAITING_PAYMENT -> compensate(saga, "Payment timed out");
+            case CONFIRMING_STOCK -> {
+                retry(saga, properties.getTimeout().getConfirmation());
+                sendConfirm(saga);
+            }
+            case COMPENSATING -> {
+                retry(saga, properties.getTimeout().getCompensation());
+                sendRelease(saga);
+            }
+            default -> {
+                saga.setDeadlineAt(null);
+                saga.setUpdatedAt(LocalDateTime.now());
+                scheduleDeadline(saga);
+            }
+        }
+    }
+
+    private void confirmStock(SagaInstance saga) {
+        transition(saga, SagaState.CONFIRMING_STOCK, properties.getTimeout().getConfirmation());
+        sendConfirm(saga);
+    }
+
+    private void compensate(SagaInstance saga, String reason) {
+        saga.setFailureReason(reason);
+        transition(saga, SagaState.COMPENSATING, properties.getTimeout().getCompensation());
+        sendRelease(saga);
+    }
+
+    /**
+     * The payment step ends the configured margin before inventory expires the reservation,
+     * so a payment that arrives on the last second can still be confirmed against held stock.
+     */
+    private Duration paymentTimeout(StockReservedEvent event) {
+        Duration timeout = properties.getTimeout().getPayment();
+        if (event.getExpiresAt() == null) {
+            return timeout;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), Instant.ofEpochMilli(event.getExpiresAt()))
+                .minus(properties.getTimeout().getReservationMargin());
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(timeout) < 0 ? untilExpiry : timeout;
+    }
+
+    // REFUNDING records that the request was sent, so a duplicate callback does not ask twice
+    private void refundIfPaid(SagaInstance saga) {
+        if (!"PAID".equals(saga.getPaymentStatus())) {
+            return;
+        }
+        saga.setPaymentStatus("REFUNDING");
+        meterRegistry.counter("saga.refunds").increment();
+        RefundPaymentCommand command = RefundPaymentCommand.builder()
+                .sagaId(saga.getSagaId())
+                .orderId(saga.getOrderId())
+                .transactionId(saga.getTransactionId())
+                .amount(saga.getTotalAmount())
+                .reason(saga.getFailureReason())
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.PAYMENT_EXCHANGE, RabbitMQConstants.PAYMENT_REFUND_KEY, command);
+    }
+
+    private void sendConfirm(SagaInstance saga) {
+        ConfirmStockCommand command = ConfirmStockCommand.builder()
+                .sagaId(saga.getSagaId())
+                .orderId(saga.getOrderId())
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.INVENTORY_EXCHANGE, RabbitMQConstants.INVENTORY_CONFIRM_KEY, command);
+    }
+
+    private void sendRelease(SagaInstance saga) {
+        ReleaseStockCommand command = ReleaseStockCommand.builder()
+                .sagaId(saga.getSagaId())
+                .orderId(saga.getOrderId())
+                .reservationId(saga.getOrderId().toString())
+                .reason(saga.getFailureReason())
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.INVENTORY_EXCHANGE, RabbitMQConstants.INVENTORY_RELEASE_KEY, command);
+    }
+
+    private void publishCompleted(SagaInstance saga, boolean success, String finalStatus) {
+        OrderSagaCompletedEvent event = OrderSagaCompletedEvent.builder()
+                .sagaId(saga.getSagaId())
+                .orderId(saga.getOrderId())
+                .orderNumber(saga.getOrderNumber())
+                .success(success)
+                .transactionId(saga.getTransactionId())
+                .failureReason(success ? null : saga.getFailureReason())
+                .finalStatus(finalStatus)
+                .build();
+        outboxPublisher.publish(RabbitMQConstants.ORDER_EXCHANGE, RabbitMQConstants.ORDER_SAGA_COMPLETED_KEY, event);
+    }
+
+    private void transition(SagaInstance saga, SagaState to, Duration timeout) {
+        LocalDateTime now = LocalDateTime.now();
+        meterRegistry.counter("saga.transitions", "from", saga.getState().name(), "to", to.name()).increment();
+        saga.setState(to);
+        saga.setAttempts(1);
+        saga.setDeadlineAt(now.plus(timeout));
+        saga.setUpdatedAt(now);
+        scheduleDeadline(saga);
+    }
+
+    private void retry(SagaInstance saga, Duration timeout) {
+        int attempts = saga.getAttempts() + 1;
+        if (attempts > properties.getRetry().getMaxAttempts()) {
+            log.error("Saga {} for order {} still has no reply in {} after {} attempts",
+                    saga.getSagaId(), saga.getOrderId(), saga.getState(), attempts - 1);
+        }
+        int doublings = Math.min(attempts - 1, properties.getRetry().getMaxBackoffDoublings());
+        LocalDateTime now = LocalDateTime.now();
+        saga.setAttempts(attempts);
+        saga.setDeadlineAt(now.plus(timeout.multipliedBy(1L << doublings)));
+        saga.setUpdatedAt(now);
+        scheduleDeadline(saga);
+    }
+
+    private void finish(SagaInstance saga, SagaState to) {
+        meterRegistry.counter("saga.transitions", "from", saga.getState().name(), "to", to.name()).increment();
+        saga.setState(to);
+        saga.setDeadlineAt(null);
+        saga.setUpdatedAt(LocalDateTime.now());
+        scheduleDeadline(saga);
+    }
+
+    // The timer follows the committed deadline; after a rollback the row still has the old one.
+    private void scheduleDeadline(SagaInstance saga) {
+        Long orderId = saga.getOrderId();
+        LocalDateTime deadline = saga.getDeadlineAt();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deadlineTimer.schedule(orderId, deadline);
+            }
+        });
+    }
+
+    private SagaInstance lock(Long orderId) {
+        SagaInstance saga = sagaRepository.findByOrderIdForUpdate(orderId).orElse(null);
+        if (saga == null) {
+            log.warn("No saga for order {}", orderId);
+        }
+        return saga;
+    }
+
+    private void ignored(SagaInstance saga, Object event) {
+        log.debug("Ignoring {} for order {} in state {}", event.getClass().getSimpleName(),
+                saga.getOrderId(), saga.getState());
+    }
+}
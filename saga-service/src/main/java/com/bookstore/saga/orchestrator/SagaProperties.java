@@ -0,0 +1,55 @@
+package com.bookstore.saga.orchestrator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "saga")
+public class SagaProperties {
+
+    private Timeout timeout = new Timeout();
+    private Retry retry = new Retry();
+
+    @Data
+    public static class Timeout {
+        // Waiting for inventory to answer a reserve command before compensating
+        private Duration reservation = Duration.ofSeconds(60);
+        // VNPay links expire after 15 minutes, but the wait never outlasts the reservation:
+        // it ends this margin before inventory expires the held stock, leaving time to confirm
+        private Duration payment = Duration.ofMinutes(15);
+        private Duration reservationMargin = Duration.ofMinutes(1);
+        // Confirm and release are re-sent after this long without a reply, doubling each time
+        private Duration confirmation = Duration.ofSeconds(30);
+        private Duration compensation = Duration.ofSeconds(30);
+
+        // Timing wheel: 100 ms ticks, 256 slots per level, 3 levels cover about 19 days
+        private long tickMs = 100;
+        private int wheelSize = 256;
+        private int wheelLevels = 3;
+        // Deadlines held in memory (roughly 100 bytes each); the rest wait in saga_instances
+        private int capacity = 1_000_000;
+        // Only deadlines due within this window are put in the wheel; longer ones are loaded later
+        private Duration loadHorizon = Duration.ofMinutes(20);
+        private long loadIntervalMs = 60000;
+        private int loadBatchSize = 1000;
+        // Safety net for deadlines no wheel fired (lost with a crashed instance, or failed)
+        private long sweepIntervalMs = 60000;
+        private Duration sweepGrace = Duration.ofSeconds(10);
+        private int sweepBatchSize = 100;
+        private int fireThreads = 4;
+        private int fireQueueCapacity = 10000;
+        private long shutdownTimeoutMs = 5000;
+    }
+
+    @Data
+    public static class Retry {
+        // Re-sends of a confirm or release before each further attempt is logged as an error
+        private int maxAttempts = 3;
+        // Cap on the doubling of the re-send delay
+        private int maxBackoffDoublings = 5;
+    }
+}
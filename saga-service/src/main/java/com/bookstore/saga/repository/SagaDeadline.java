@@ -0,0 +1,6 @@
+package com.bookstore.saga.repository;
+
+import java.time.LocalDateTime;
+
+public record SagaDeadline(Long orderId, LocalDateTime deadlineAt) {
+}
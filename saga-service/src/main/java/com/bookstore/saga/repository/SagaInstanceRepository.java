@@ -0,0 +1,32 @@
+package com.bookstore.saga.repository;
+
+import com.bookstore.saga.entity.SagaInstance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SagaInstanceRepository extends JpaRepository<SagaInstance, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SagaInstance s WHERE s.orderId = :orderId")
+    Optional<SagaInstance> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+
+    @Query("SELECT s.orderId FROM SagaInstance s WHERE s.deadlineAt <= :now ORDER BY s.deadlineAt")
+    List<Long> findDueOrderIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Keyset page over (deadline_at, order_id) after the given position, up to and including :to
+    @Query("SELECT new com.bookstore.saga.repository.SagaDeadline(s.orderId, s.deadlineAt) FROM SagaInstance s "
+            + "WHERE s.deadlineAt <= :to AND (s.deadlineAt > :from OR (s.deadlineAt = :from AND s.orderId > :afterId)) "
+            + "ORDER BY s.deadlineAt, s.orderId")
+    List<SagaDeadline> findDeadlinesAfter(@Param("from") LocalDateTime from, @Param("afterId") Long afterId,
+                                          @Param("to") LocalDateTime to, Pageable pageable);
+}
@@ -0,0 +1,90 @@
+package com.bookstore.saga.scheduler;
+
+import com.bookstore.saga.orchestrator.OrderSagaOrchestrator;
+import com.bookstore.saga.orchestrator.SagaProperties;
+import com.bookstore.saga.repository.SagaDeadline;
+import com.bookstore.saga.repository.SagaInstanceRepository;
+import com.bookstore.saga.timeout.SagaDeadlineTimer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the deadline timer fed from saga_instances. The first load after startup reads
+ * every deadline within the horizon, which recovers the wheel after a restart; later loads
+ * only read the window that has come into range since. The overdue sweep fires deadlines
+ * that no wheel did, e.g. ones held by an instance that crashed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SagaTimeoutScheduler {
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final SagaInstanceRepository sagaRepository;
+    private final OrderSagaOrchestrator orchestrator;
+    private final SagaDeadlineTimer deadlineTimer;
+    private final SagaProperties properties;
+
+    // Deadlines up to here have been handed to the timer; null until the recovery load
+    private LocalDateTime loadedUntil;
+
+    @Scheduled(fixedDelayString = "${saga.timeout.load-interval-ms:60000}")
+    public void loadUpcoming() {
+        LocalDateTime to = LocalDateTime.now().plus(properties.getTimeout().getLoadHorizon());
+        LocalDateTime from = loadedUntil != null ? loadedUntil : BEGINNING;
+        LocalDateTime dropped = deadlineTimer.takeEarliestDropped();
+        if (dropped != null && dropped.isBefore(from)) {
+            from = dropped;
+        }
+        long afterId = Long.MIN_VALUE;
+        int batchSize = properties.getTimeout().getLoadBatchSize();
+        int loaded = 0;
+
+        while (true) {
+            List<SagaDeadline> page = sagaRepository.findDeadlinesAfter(from, afterId, to, PageRequest.of(0, batchSize));
+            for (SagaDeadline deadline : page) {
+                if (deadlineTimer.isFull()) {
+                    // Continue from here once fired deadlines have made room
+                    loadedUntil = from;
+                    log.warn("Saga deadline timer is full after loading {} deadlines, resuming at {}", loaded, from);
+                    return;
+                }
+                deadlineTimer.schedule(deadline.orderId(), deadline.deadlineAt());
+                from = deadline.deadlineAt();
+                afterId = deadline.orderId();
+                loaded++;
+            }
+            if (page.size() < batchSize) {
+                break;
+            }
+        }
+        loadedUntil = to;
+        if (loaded > 0) {
+            log.debug("Loaded {} saga deadlines up to {}", loaded, to);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${saga.timeout.sweep-interval-ms:60000}")
+    public void sweepOverdue() {
+        LocalDateTime overdue = LocalDateTime.now().minus(properties.getTimeout().getSweepGrace());
+        List<Long> due = sagaRepository.findDueOrderIds(overdue,
+                PageRequest.of(0, properties.getTimeout().getSweepBatchSize()));
+        if (!due.isEmpty()) {
+            log.warn("Firing {} overdue saga deadlines the timer missed", due.size());
+        }
+        for (Long orderId : due) {
+            try {
+                orchestrator.onTimeout(orderId);
+            } catch (RuntimeException e) {
+                log.warn("Saga timeout for order {} failed, retrying on the next sweep: {}", orderId, e.getMessage());
+            }
+        }
+    }
+}
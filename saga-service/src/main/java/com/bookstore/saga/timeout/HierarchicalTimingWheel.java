@@ -0,0 +1,188 @@
+package com.bookstore.saga.timeout;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Hashed hierarchical timing wheel. Level 0 has one slot per tick; each higher level has
+ * one slot per full turn of the level below and is cascaded into it when that level wraps.
+ * Scheduling, rescheduling and cancelling are O(1): a map lookup plus linking into a slot's
+ * doubly linked list. Advancing one tick touches one slot, plus a cascade every wheelSize
+ * ticks. A deadline never fires before its tick and fires at most one tick late.
+ *
+ * <p>At most {@code capacity} keys are held; schedule returns false when full, so memory
+ * stays bounded whatever the number of pending deadlines. Not thread-safe.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long startMs;
+    private final long tickMs;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final int capacity;
+    private final Entry<K>[][] slots;
+    private final Map<K, Entry<K>> entries;
+    // Next tick to be processed
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long startMs, long tickMs, int wheelSize, int levels, int capacity) {
+        if (tickMs <= 0 || Integer.bitCount(wheelSize) != 1 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize a power of two");
+        }
+        if (levels < 1 || Integer.numberOfTrailingZeros(wheelSize) * levels > 62) {
+            throw new IllegalArgumentException("Unsupported number of levels: " + levels);
+        }
+        this.startMs = startMs;
+        this.tickMs = tickMs;
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.capacity = capacity;
+        this.slots = new Entry[levels][wheelSize];
+        this.entries = new HashMap<>();
+        this.currentTick = 0;
+    }
+
+    /**
+     * Schedules key at deadlineMs, replacing its previous deadline. Returns false, leaving
+     * nothing scheduled for a new key, when the wheel is full.
+     */
+    public boolean schedule(K key, long deadlineMs) {
+        Entry<K> entry = entries.get(key);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            if (entries.size() >= capacity) {
+                return false;
+            }
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        }
+        entry.tick = Math.floorDiv(deadlineMs - startMs + tickMs - 1, tickMs);
+        link(entry);
+        return true;
+    }
+
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Processes every tick up to nowMs and hands each expired key to the consumer, in
+     * deadline order across ticks.
+     */
+    public void advanceTo(long nowMs, Consumer<K> expired) {
+        long target = Math.floorDiv(nowMs - startMs, tickMs);
+        while (currentTick <= target) {
+            tick(expired);
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public boolean isFull() {
+        return entries.size() >= capacity;
+    }
+
+    private void tick(Consumer<K> expired) {
+        int index = (int) (currentTick & mask);
+        if (index == 0) {
+            cascade(1);
+        }
+        Entry<K> entry = slots[0][index];
+        slots[0][index] = null;
+        while (entry != null) {
+            Entry<K> next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            entries.remove(entry.key);
+            expired.accept(entry.key);
+            entry = next;
+        }
+        currentTick++;
+    }
+
+    // Re-links the current slot of a level into the levels below, then the level above if this one wrapped.
+    private void cascade(int level) {
+        if (level >= levels) {
+            return;
+        }
+        int index = (int) ((currentTick >>> (bits * level)) & mask);
+        Entry<K> entry = slots[level][index];
+        slots[level][index] = null;
+        while (entry != null) {
+            Entry<K> next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            link(entry);
+            entry = next;
+        }
+        if (index == 0) {
+            cascade(level + 1);
+        }
+    }
+
+    private void link(Entry<K> entry) {
+        long tick = Math.max(entry.tick, currentTick);
+        long delta = tick - currentTick;
+        long range = 1L << (bits * levels);
+        if (delta >= range) {
+            // Beyond the top level: park in its furthest slot and place again when it cascades
+            tick = currentTick + range - 1;
+            delta = range - 1;
+        }
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        int index = (int) ((tick >>> (bits * level)) & mask);
+        Entry<K> head = slots[level][index];
+        entry.level = level;
+        entry.index = index;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][index] = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.level][entry.index] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private long tick;
+        private int level;
+        private int index;
+        private Entry<K> prev;
+        private Entry<K> next;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+    }
+}
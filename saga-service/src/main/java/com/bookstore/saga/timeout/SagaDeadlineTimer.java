@@ -0,0 +1,180 @@
+package com.bookstore.saga.timeout;
+
+import com.bookstore.saga.orchestrator.OrderSagaOrchestrator;
+import com.bookstore.saga.orchestrator.SagaProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires saga step deadlines from an in-memory timing wheel. saga_instances.deadline_at stays
+ * the durable record: the wheel only holds deadlines due within the load horizon, and
+ * SagaTimeoutScheduler loads the rest as they come into range and recovers everything
+ * after a restart. A fired deadline is re-checked under the saga's row lock, so an early,
+ * stale or duplicate entry (another instance may hold the same deadline) does nothing.
+ */
+@Component
+@Slf4j
+public class SagaDeadlineTimer implements SmartLifecycle {
+
+    private final SagaProperties.Timeout properties;
+    private final ObjectProvider<OrderSagaOrchestrator> orchestrator;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Counter firedCounter;
+    private final Counter droppedCounter;
+    // Earliest deadline the wheel had no room for; the loader reads again from there
+    private LocalDateTime earliestDropped;
+    private ThreadPoolExecutor fireExecutor;
+    private volatile boolean running;
+    private Thread driverThread;
+
+    public SagaDeadlineTimer(SagaProperties properties, ObjectProvider<OrderSagaOrchestrator> orchestrator,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties.getTimeout();
+        this.orchestrator = orchestrator;
+        this.wheel = new HierarchicalTimingWheel<>(System.currentTimeMillis(), this.properties.getTickMs(),
+                this.properties.getWheelSize(), this.properties.getWheelLevels(), this.properties.getCapacity());
+        this.firedCounter = Counter.builder("saga.deadlines.fired")
+                .description("Saga deadlines fired by the timing wheel")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("saga.deadlines.dropped")
+                .description("Saga deadlines left to the loader because the timing wheel was full")
+                .register(meterRegistry);
+        Gauge.builder("saga.deadlines.pending", this, SagaDeadlineTimer::size)
+                .description("Saga deadlines held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Schedules the deadline of an order's current step, replacing the previous one. A null
+     * deadline cancels it; one beyond the load horizon is left to the loader.
+     */
+    public void schedule(Long orderId, LocalDateTime deadline) {
+        if (deadline == null) {
+            cancel(orderId);
+            return;
+        }
+        long deadlineMs = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean added;
+        synchronized (wheel) {
+            if (deadlineMs > System.currentTimeMillis() + properties.getLoadHorizon().toMillis()) {
+                wheel.cancel(orderId);
+                return;
+            }
+            added = wheel.schedule(orderId, deadlineMs);
+            if (!added && (earliestDropped == null || deadline.isBefore(earliestDropped))) {
+                earliestDropped = deadline;
+            }
+        }
+        if (!added) {
+            droppedCounter.increment();
+        }
+    }
+
+    public void cancel(Long orderId) {
+        synchronized (wheel) {
+            wheel.cancel(orderId);
+        }
+    }
+
+    public boolean isFull() {
+        synchronized (wheel) {
+            return wheel.isFull();
+        }
+    }
+
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    /**
+     * Returns and clears the earliest deadline that did not fit since the last call.
+     */
+    public LocalDateTime takeEarliestDropped() {
+        synchronized (wheel) {
+            LocalDateTime dropped = earliestDropped;
+            earliestDropped = null;
+            return dropped;
+        }
+    }
+
+    private void driveLoop() {
+        List<Long> due = new ArrayList<>();
+        while (running) {
+            synchronized (wheel) {
+                wheel.advanceTo(System.currentTimeMillis(), due::add);
+            }
+            for (Long orderId : due) {
+                fireExecutor.execute(() -> fire(orderId));
+            }
+            due.clear();
+            try {
+                Thread.sleep(properties.getTickMs());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    private void fire(Long orderId) {
+        try {
+            orchestrator.getObject().onTimeout(orderId);
+            firedCounter.increment();
+        } catch (RuntimeException e) {
+            // Still overdue in saga_instances, so the overdue sweep fires it again.
+            log.warn("Saga deadline for order {} failed: {}", orderId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        // A full queue runs the timeout on the driver thread, which slows ticking instead of dropping work.
+        fireExecutor = new ThreadPoolExecutor(properties.getFireThreads(), properties.getFireThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getFireQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "saga-deadline-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        running = true;
+        driverThread = new Thread(this::driveLoop, "saga-deadline-timer");
+        driverThread.setDaemon(true);
+        driverThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        driverThread.interrupt();
+        fireExecutor.shutdown();
+        try {
+            driverThread.join(properties.getShutdownTimeoutMs());
+            fireExecutor.awaitTermination(properties.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookstore.saga.timeout;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long START = 1_000_000L;
+    private static final long TICK = 100;
+
+    @Test
+    void firesAMillionDeadlinesWithinOneTickAndHoldsNoMoreThanCapacity() {
+        int count = 1_000_000;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(START, TICK, 256, 3, count);
+        Random random = new Random(42);
+        long[] deadlines = new long[count];
+        for (int i = 0; i < count; i++) {
+            deadlines[i] = START + (long) (random.nextDouble() * 3_600_000L);
+            assertTrue(wheel.schedule(i, deadlines[i]));
+        }
+        assertEquals(count, wheel.size());
+        assertTrue(wheel.isFull());
+        assertFalse(wheel.schedule(-1, START + 1), "a full wheel rejects new keys");
+        assertTrue(wheel.schedule(7, deadlines[7]), "a full wheel still reschedules keys it holds");
+        assertEquals(count, wheel.size());
+
+        long[] firedAt = new long[count];
+        Arrays.fill(firedAt, -1);
+        for (long now = START; now <= START + 3_600_000L + TICK; now += 37) {
+            long time = now;
+            wheel.advanceTo(now, key -> {
+                assertEquals(-1, firedAt[key], "fired twice: " + key);
+                firedAt[key] = time;
+            });
+        }
+        for (int i = 0; i < count; i++) {
+            assertTrue(firedAt[i] >= deadlines[i], "fired early: " + i);
+            assertTrue(firedAt[i] - deadlines[i] <= TICK + 37, "fired late: " + i);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void scheduleCostStaysFlatAsTheWheelFills() {
+        long smallWheel = bestNanosPerSchedule(10_000);
+        long largeWheel = bestNanosPerSchedule(1_000_000);
+
+        // A cost that grew with the number of entries would be ~100x here.
+        assertTrue(largeWheel < smallWheel * 5,
+                "schedule took " + largeWheel + " ns at 1M entries vs " + smallWheel + " ns at 10k");
+    }
+
+    @Test
+    void retainedHeapIsBoundedByCapacity() {
+        int capacity = 200_000;
+        long baseline = usedHeap();
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(START, TICK, 256, 3, capacity);
+        for (int i = 0; i < capacity; i++) {
+            wheel.schedule(i, START + (i % 36_000) * TICK);
+        }
+        long full = usedHeap() - baseline;
+
+        for (int i = capacity; i < capacity * 5; i++) {
+            assertFalse(wheel.schedule(i, START + TICK));
+        }
+        long flooded = usedHeap() - baseline;
+
+        wheel.advanceTo(START + 3_600_000L, key -> {
+        });
+        long drained = usedHeap() - baseline;
+
+        assertEquals(0, wheel.size());
+        assertTrue(full < capacity * 256L, "full wheel retains " + full + " bytes");
+        assertTrue(flooded < full + full / 10, "rejected keys grew the heap from " + full + " to " + flooded);
+        assertTrue(drained < full / 4, "drained wheel still retains " + drained + " bytes");
+    }
+
+    @Test
+    void rescheduleReplacesAndCancelRemoves() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(START, TICK, 256, 3, 10);
+        wheel.schedule("a", START + 60_000);
+        wheel.schedule("a", START + 500);
+        wheel.schedule("b", START + 500);
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(START + 500, fired::add);
+        assertEquals(List.of("a"), fired);
+        wheel.advanceTo(START + 120_000, fired::add);
+        assertEquals(List.of("a"), fired);
+    }
+
+    @Test
+    void overdueAndOutOfRangeDeadlinesStillFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(0, 1, 4, 2, 10);
+        // 4 slots x 2 levels cover 16 ticks; 100 is parked and placed again as it cascades
+        wheel.schedule("far", 100);
+        List<String> fired = new ArrayList<>();
+        wheel.advanceTo(99, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advanceTo(100, fired::add);
+        assertEquals(List.of("far"), fired);
+
+        wheel.schedule("overdue", 50);
+        wheel.advanceTo(101, fired::add);
+        assertEquals(List.of("far", "overdue"), fired);
+    }
+
+    // Best of several rounds of rescheduling the same 10k keys in a wheel holding size entries;
+    // keeping the touched keys fixed leaves cache misses out of the comparison.
+    private static long bestNanosPerSchedule(int size) {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(START, TICK, 256, 3, size);
+        Random random = new Random(7);
+        for (int i = 0; i < size; i++) {
+            wheel.schedule(i, START + (long) (random.nextDouble() * 3_600_000L));
+        }
+        int batch = 10_000;
+        int touched = Math.min(size, 10_000);
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 20; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                wheel.schedule(random.nextInt(touched), START + (long) (random.nextDouble() * 3_600_000L));
+            }
+            best = Math.min(best, (System.nanoTime() - start) / batch);
+        }
+        assertEquals(size, wheel.size());
+        return Math.max(best, 1);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}